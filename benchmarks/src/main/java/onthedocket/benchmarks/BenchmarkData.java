@@ -0,0 +1,59 @@
+package onthedocket.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+
+/**
+ * Generates the synthetic calendars the benchmarks run against. Events are spread over
+ * roughly ten per day around {@link #ANCHOR}, so that the month containing it is always
+ * populated whatever the size, and about one in twenty spans several days. The same seed
+ * always yields the same calendar.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+final class BenchmarkData {
+	/**
+	 * The date the generated calendars are centered on.
+	 */
+	static final LocalDate ANCHOR = LocalDate.of(2024, 6, 15);
+	private static final EventCategory[] CATEGORIES = {EventCategory.DEFAULT, EventCategory.WORK, EventCategory.SCHOOL, EventCategory.PERSONAL};
+	private static final String[] NAMES = {"Standup", "Review", "Lunch", "Planning", "Gym", "Lecture", "Dentist", "Call", "Retro", "Study group"};
+
+	private BenchmarkData() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Generates {@code count} events spread over {@link #spanDays(int)} days around {@link #ANCHOR}.
+	 *
+	 * @param count the number of events
+	 * @param seed the random seed
+	 * @return the events, in no particular order
+	 */
+	static List<Event> events(int count, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		int span = spanDays(count);
+		LocalDateTime first = ANCHOR.minusDays(span / 2).atStartOfDay();
+		List<Event> events = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			LocalDateTime start = first.plusMinutes(random.nextLong((long) span * 24 * 60));
+			long minutes = random.nextInt(20) == 0 ? 24 * 60 + random.nextInt(3 * 24 * 60) : 15 + random.nextInt(180);
+			String name = NAMES[random.nextInt(NAMES.length)] + " " + random.nextInt(100);
+			events.add(new Event(name, start, start.plusMinutes(minutes), CATEGORIES[random.nextInt(CATEGORIES.length)]));
+		}
+		return events;
+	}
+
+	/**
+	 * Returns the number of days the given number of events is spread over.
+	 */
+	static int spanDays(int count) {
+		return Math.max(60, count / 10);
+	}
+}
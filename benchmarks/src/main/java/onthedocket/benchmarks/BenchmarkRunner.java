@@ -0,0 +1,26 @@
+package onthedocket.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Runs the benchmarks selected on the command line, or all
+ * of them, exactly as JMH's own launcher would, but always with the GC profiler attached so
+ * that each result reports its allocation rate alongside its throughput.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class BenchmarkRunner {
+	private BenchmarkRunner() {
+		throw new AssertionError();
+	}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		new Runner(new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class).build()).run();
+	}
+}
@@ -0,0 +1,67 @@
+package onthedocket.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import onthedocket.models.Event;
+import onthedocket.persistence.DataManager;
+
+/**
+ * Measures the read paths the calendar relies on: the events covering one day, and the
+ * events of a whole month bucketed by day as {@code CalendarComponent} does when it builds
+ * its grid. Each invocation moves to a different day or month of the populated range.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataManagerBenchmark {
+	@Param({"1000", "100000", "1000000"})
+	public int size;
+
+	private LocalDate[] days;
+	private LocalDate[] months;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		DataManager.setEvents(BenchmarkData.events(size, 42));
+		int span = BenchmarkData.spanDays(size);
+		LocalDate first = BenchmarkData.ANCHOR.minusDays(span / 2);
+		days = new LocalDate[1024];
+		months = new LocalDate[1024];
+		for (int i = 0; i < days.length; i++) {
+			days[i] = first.plusDays((i * 7919L) % span);
+			months[i] = days[i].withDayOfMonth(1);
+		}
+	}
+
+	@Benchmark
+	public ArrayList<Event> getEventsOn() {
+		return DataManager.getEventsOn(days[next++ & 1023]);
+	}
+
+	@Benchmark
+	public TreeMap<LocalDate, ArrayList<Event>> monthBucketing() {
+		LocalDate first = months[next++ & 1023];
+		return DataManager.getEventsByDay(first, first.withDayOfMonth(first.lengthOfMonth()));
+	}
+}
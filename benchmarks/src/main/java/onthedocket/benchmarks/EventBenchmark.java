@@ -0,0 +1,81 @@
+package onthedocket.benchmarks;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import onthedocket.models.Event;
+
+/**
+ * Measures {@link Event#hashCode()} and {@link Event#equals(Object)} across a whole calendar,
+ * both on their own and as a hash set uses them. Equality is checked against separately
+ * constructed copies, so it cannot short-circuit on identity.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventBenchmark {
+	@Param({"1000", "100000", "1000000"})
+	public int size;
+
+	private Event[] events;
+	private Event[] copies;
+
+	@Setup
+	public void setUp() {
+		List<Event> generated = BenchmarkData.events(size, 42);
+		events = generated.toArray(new Event[0]);
+		copies = BenchmarkData.events(size, 42).toArray(new Event[0]);
+	}
+
+	@Benchmark
+	public void hashCodes(Blackhole blackhole) {
+		for (Event e : events) {
+			blackhole.consume(e.hashCode());
+		}
+	}
+
+	@Benchmark
+	public void equalsCopies(Blackhole blackhole) {
+		for (int i = 0; i < events.length; i++) {
+			blackhole.consume(events[i].equals(copies[i]));
+		}
+	}
+
+	@Benchmark
+	public void equalsNeighbours(Blackhole blackhole) {
+		for (int i = 1; i < events.length; i++) {
+			blackhole.consume(events[i].equals(events[i - 1]));
+		}
+	}
+
+	@Benchmark
+	public HashSet<Event> hashSet() {
+		HashSet<Event> set = new HashSet<>(events.length * 2);
+		for (Event e : events) {
+			set.add(e);
+		}
+		for (Event e : copies) {
+			set.contains(e);
+		}
+		return set;
+	}
+}
@@ -0,0 +1,68 @@
+package onthedocket.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import onthedocket.models.Event;
+import onthedocket.views.OverlapLayout;
+
+/**
+ * Measures {@link OverlapLayout} on a single crowded day, with the events in start order as
+ * the DataManager returns them and shuffled. Run with the GC profiler to confirm that a layout
+ * reusing its arrays allocates nothing.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OverlapLayoutBenchmark {
+	@Param({"10", "100", "1000"})
+	public int eventsPerDay;
+
+	private List<Event> sorted;
+	private List<Event> shuffled;
+	private final OverlapLayout layout = new OverlapLayout();
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		LocalDateTime dayStart = BenchmarkData.ANCHOR.atStartOfDay();
+		shuffled = new ArrayList<>(eventsPerDay);
+		for (int i = 0; i < eventsPerDay; i++) {
+			LocalDateTime start = dayStart.plusMinutes(random.nextInt(23 * 60));
+			shuffled.add(new Event("Event " + i, start, start.plusMinutes(15 + random.nextInt(120))));
+		}
+		sorted = new ArrayList<>(shuffled);
+		sorted.sort(Comparator.comparing(Event::getStart));
+	}
+
+	@Benchmark
+	public int layoutSorted() {
+		return layout.layout(sorted);
+	}
+
+	@Benchmark
+	public int layoutShuffled() {
+		return layout.layout(shuffled);
+	}
+}
@@ -0,0 +1,96 @@
+package onthedocket.benchmarks;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import onthedocket.persistence.DataManager;
+import onthedocket.utils.Theme;
+import onthedocket.views.CalendarComponent;
+
+/**
+ * Measures painting a {@link CalendarComponent} into an off-screen {@link BufferedImage}, in
+ * both render modes. {@code paint} repaints the month already built; {@code rebuildAndPaint}
+ * also rebuilds it first, as navigating to a month does. The component is never shown, so the
+ * benchmark runs headless.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PaintBenchmark {
+	private static final int WIDTH = 1600;
+	private static final int HEIGHT = 1000;
+
+	@Param({"1000", "100000", "1000000"})
+	public int size;
+
+	@Param({"COMPONENTS", "PAINTED"})
+	public CalendarComponent.RenderMode renderMode;
+
+	private CalendarComponent calendar;
+	private BufferedImage image;
+	private Graphics2D graphics;
+
+	@Setup
+	public void setUp() {
+		DataManager.setEvents(BenchmarkData.events(size, 42));
+		calendar = new CalendarComponent(BenchmarkData.ANCHOR, Theme.LIGHT);
+		calendar.setRenderMode(renderMode);
+		calendar.setSize(WIDTH, HEIGHT);
+		layOut(calendar);
+		image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		graphics = image.createGraphics();
+	}
+
+	@TearDown
+	public void tearDown() {
+		graphics.dispose();
+	}
+
+	@Benchmark
+	public BufferedImage paint() {
+		calendar.paint(graphics);
+		return image;
+	}
+
+	@Benchmark
+	public BufferedImage rebuildAndPaint() {
+		calendar.updateWith(BenchmarkData.ANCHOR);
+		layOut(calendar);
+		calendar.paint(graphics);
+		return image;
+	}
+
+	/**
+	 * Lays out a component tree that has no peer, as showing it in a window would.
+	 */
+	private static void layOut(Component component) {
+		if (component instanceof Container) {
+			Container container = (Container) component;
+			container.doLayout();
+			for (Component child : container.getComponents()) {
+				layOut(child);
+			}
+		}
+	}
+}
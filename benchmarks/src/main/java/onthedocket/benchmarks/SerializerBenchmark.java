@@ -0,0 +1,95 @@
+package onthedocket.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import onthedocket.models.EventCategory;
+import onthedocket.models.RecurringEvent;
+import onthedocket.persistence.DataManager;
+import onthedocket.persistence.Serializer;
+import onthedocket.utils.Theme;
+
+/**
+ * Measures saving and loading the whole calendar through {@link Serializer}, separately and
+ * as a round trip, against a data file in a temporary directory.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SerializerBenchmark {
+	@Param({"1000", "100000", "1000000"})
+	public int size;
+
+	private Path directory;
+
+	/**
+	 * Points {@link Serializer} at a fresh data file and resets {@link DataManager} for each
+	 * trial. Both hold static state, so every trial of a fork must start from its own file and
+	 * data rather than from the journal and events left by the trial before it.
+	 * The file is loaded once, since Serializer writes nothing before a successful load.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("onthedocket-bench");
+		new Serializer(directory.resolve("onthedocket.dat").toFile());
+		DataManager.setTheme(Theme.LIGHT);
+		DataManager.setCategories(Collections.<EventCategory>emptyList());
+		DataManager.setRecurringEvents(Collections.<RecurringEvent>emptyList());
+		DataManager.setEvents(BenchmarkData.events(size, 42));
+		Serializer.writeSnapshot();
+		if (!Serializer.deserialize()) {
+			throw new IOException("Could not load the initial data file");
+		}
+	}
+
+	/**
+	 * Detaches and closes the journal the trial attached, then deletes its files.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Serializer.close();
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+	@Benchmark
+	public boolean serialize() {
+		return Serializer.serialize();
+	}
+
+	@Benchmark
+	public boolean deserialize() {
+		return Serializer.deserialize();
+	}
+
+	@Benchmark
+	public boolean roundTrip() {
+		return Serializer.serialize() && Serializer.deserialize();
+	}
+}
@@ -0,0 +1,151 @@
+package onthedocket.models;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Keeps track of every live {@link EventCategory} created in this process and hands out their ids.
+ * <p>
+ * Ids are assigned in creation order and never change or get reused, so they can stand in for
+ * the category in memory wherever a compact reference is needed. The presets are created first
+ * and always receive ids {@code 0} to {@code 3}. Categories can be looked up in constant time by
+ * id, by name, or by name and color together; the latter is what loaders use through
+ * {@link #canonical(String, Color)} so that stored categories resolve to the instances already in
+ * memory, presets included.
+ * </p>
+ * <p>
+ * Ids are local to the process: they depend on the order in which categories happened to be
+ * created in this run, so they must never be written to a file or sent elsewhere. Stored data
+ * refers to categories by name and color, as the dictionary of {@code BinaryFormat} and the
+ * records of the journal do, and is resolved again through {@link #canonical(String, Color)}.
+ * </p>
+ * <p>
+ * A category deleted from the calendar is {@link #unregister(EventCategory) unregistered}: its
+ * id no longer resolves, and looking up its name and color afterwards creates a new category.
+ * Only an empty slot remains for the id, so that ids are still never reused.
+ * </p>
+ * <p>
+ * All methods are safe to call from any thread. This class is non-instantiable.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class CategoryRegistry {
+	private static final ArrayList<EventCategory> byId = new ArrayList<EventCategory>();
+	private static final HashMap<String, EventCategory> byName = new HashMap<String, EventCategory>();
+	private static final HashMap<String, EventCategory> byKey = new HashMap<String, EventCategory>();
+
+	/**
+	 * Private constructor to prevent external instantiation.
+	 *
+	 * @throws AssertionError always thrown to enforce non-instantiability
+	 */
+	private CategoryRegistry() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Returns the preset categories in id order.
+	 *
+	 * @return an unmodifiable list of {@link EventCategory#DEFAULT}, {@link EventCategory#WORK},
+	 *         {@link EventCategory#SCHOOL}, and {@link EventCategory#PERSONAL}
+	 */
+	public static List<EventCategory> presets() {
+		return Collections.unmodifiableList(Arrays.asList(EventCategory.DEFAULT, EventCategory.WORK,
+				EventCategory.SCHOOL, EventCategory.PERSONAL));
+	}
+
+	/**
+	 * Returns the category with the given id.
+	 *
+	 * @param id the id to look up
+	 * @return the category, or {@code null} if no category has that id
+	 */
+	public static synchronized EventCategory byId(int id) {
+		return id >= 0 && id < byId.size() ? byId.get(id) : null;
+	}
+
+	/**
+	 * Returns a category with the given name. If several share the name, the one
+	 * created first is returned, so the presets take precedence.
+	 *
+	 * @param name the name to look up
+	 * @return the category, or {@code null} if no category has that name
+	 */
+	public static synchronized EventCategory byName(String name) {
+		return byName.get(name);
+	}
+
+	/**
+	 * Returns the existing category with the given name and color, creating one if there is none.
+	 * Loaders use this so that a stored category always resolves to a single instance.
+	 *
+	 * @param name the category name
+	 * @param color the category color
+	 * @return the canonical category with that name and color
+	 */
+	public static EventCategory canonical(String name, Color color) {
+		String key = key(name, color);
+		synchronized(CategoryRegistry.class) {
+			EventCategory existing = byKey.get(key);
+			if(existing != null) return existing;
+		}
+		// Constructed outside the lock, which EventCategory's class initializer also takes.
+		// If another thread registered the same category first, its instance wins.
+		new EventCategory(name, color);
+		synchronized(CategoryRegistry.class) {
+			return byKey.get(key);
+		}
+	}
+
+	/**
+	 * Registers a newly constructed category and returns its id.
+	 */
+	static synchronized int register(EventCategory c) {
+		int id = byId.size();
+		byId.add(c);
+		byName.putIfAbsent(c.getName(), c);
+		byKey.putIfAbsent(key(c.getName(), c.getColor()), c);
+		return id;
+	}
+
+	/**
+	 * Forgets a category that has been deleted, so the registry no longer keeps it reachable.
+	 * If another category shares its name, or its name and color, that one takes over the
+	 * lookup. The presets are never forgotten.
+	 *
+	 * @param c the deleted category
+	 */
+	public static synchronized void unregister(EventCategory c) {
+		int id = c.getId();
+		if(id < presets().size() || id >= byId.size() || byId.get(id) != c) return;
+		byId.set(id, null);
+		String key = key(c.getName(), c.getColor());
+		boolean named = byName.remove(c.getName(), c);
+		boolean keyed = byKey.remove(key, c);
+		if(!named && !keyed) return;
+		for(EventCategory other : byId) {
+			if(other == null) continue;
+			if(named) byName.putIfAbsent(other.getName(), other);
+			if(keyed) byKey.putIfAbsent(key(other.getName(), other.getColor()), other);
+		}
+	}
+
+	/**
+	 * Updates the name and color lookups after a registered category changed its name or color.
+	 */
+	static synchronized void reindex(EventCategory c, String oldName, Color oldColor) {
+		byName.remove(oldName, c);
+		byKey.remove(key(oldName, oldColor), c);
+		byName.putIfAbsent(c.getName(), c);
+		byKey.putIfAbsent(key(c.getName(), c.getColor()), c);
+	}
+
+	private static String key(String name, Color color) {
+		return name + '#' + color.getRGB();
+	}
+}
@@ -1,7 +1,9 @@
 package onthedocket.models;
 
 import java.awt.Color;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * Represents a classification of calendar events, providing a name
@@ -11,6 +13,12 @@ import java.io.Serializable;
  * {@link #DEFAULT}, {@link #WORK}, {@link #SCHOOL}, and {@link #PERSONAL}.
  * Developers may also instantiate custom categories as needed.
  * </p>
+ * <p>
+ * Every category is registered with the {@link CategoryRegistry} when it is created and receives
+ * a unique id; two categories are equal only if they have the same id. Deserialized categories
+ * are replaced by the registered instance with the same name and color, so the presets stay
+ * the very same objects across save and load.
+ * </p>
  * 
  * @author Sitatunga147 (with moderate AI assistance)
  */
@@ -35,6 +43,7 @@ public class EventCategory implements Serializable {
 	
 	private String name;
 	private Color color;
+	private final transient int id;
 
 	/**
 	 * Constructs an {@code EventCategory} with the given display name and color.
@@ -44,8 +53,47 @@ public class EventCategory implements Serializable {
 	 * @throws NullPointerException if {@code name} or {@code color} is {@code null}
 	 */
 	public EventCategory(String name, Color color) {
-		setName(name);
-		setColor(color);
+		this.name = Objects.requireNonNull(name);
+		this.color = Objects.requireNonNull(color);
+		this.id = CategoryRegistry.register(this);
+	}
+	
+	/**
+	 * Indicates whether some other object is "equal to" this one.
+	 * Two categories are equal if they have the same id.
+	 * 
+	 * @param o the reference object with which to compare
+	 * @return {@code true} if {@code o} is a category with the same id; {@code false} otherwise
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(!(o instanceof EventCategory)) return false;
+		return id == ((EventCategory)o).id;
+	}
+	
+	/**
+	 * Returns a hash code value for the category, consistent with {@link #equals(Object)}.
+	 * 
+	 * @return the category id
+	 */
+	@Override
+	public int hashCode() {
+		return id;
+	}
+	
+	/**
+	 * Replaces a deserialized category with the registered category of the same name and color.
+	 * 
+	 * @return the canonical instance
+	 * @throws ObjectStreamException never thrown; declared as required by the serialization protocol
+	 */
+	private Object readResolve() throws ObjectStreamException {
+		return CategoryRegistry.canonical(name, color);
+	}
+
+	public int getId() {
+		return id;
 	}
 
 	public String getName() {
@@ -53,7 +101,9 @@ public class EventCategory implements Serializable {
 	}
 
 	public void setName(String name) {
-		this.name = name;
+		String oldName = this.name;
+		this.name = Objects.requireNonNull(name);
+		CategoryRegistry.reindex(this, oldName, color);
 	}
 
 	public Color getColor() {
@@ -61,6 +111,8 @@ public class EventCategory implements Serializable {
 	}
 
 	public void setColor(Color color) {
-		this.color = color;
+		Color oldColor = this.color;
+		this.color = Objects.requireNonNull(color);
+		CategoryRegistry.reindex(this, name, oldColor);
 	}
 }
@@ -0,0 +1,251 @@
+package onthedocket.models;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Describes on which dates a {@link RecurringEvent} repeats, in the spirit of an iCalendar RRULE.
+ * <p>
+ * A rule repeats every {@code interval} days, weeks, months, or years, counted from the date of
+ * the first occurrence. Weekly rules may name the days of the week to repeat on; other rules
+ * repeat on the first occurrence's day of the month (and month, for yearly rules), skipping
+ * periods where that date does not exist, such as the 31st in shorter months. A rule may end on
+ * an inclusive {@code until} date, after a {@code count} of occurrences, or never. Dates listed
+ * as exceptions are left out but still count towards {@code count}.
+ * </p>
+ * <p>
+ * Rules are immutable; methods such as {@link #withException(LocalDate)} return a modified copy.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class RecurrenceRule implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The unit in which a rule's interval is counted.
+	 */
+	public enum Frequency {
+		DAILY, WEEKLY, MONTHLY, YEARLY
+	}
+
+	private final Frequency frequency;
+	private final int interval;
+	private final Set<DayOfWeek> byDay;
+	private final LocalDate until;
+	private final int count;
+	private final Set<LocalDate> exceptions;
+
+	/**
+	 * Constructs a rule that repeats every period of the given frequency, forever.
+	 *
+	 * @param frequency the unit of repetition
+	 */
+	public RecurrenceRule(Frequency frequency) {
+		this(frequency, 1, Collections.<DayOfWeek>emptySet(), null, 0, Collections.<LocalDate>emptySet());
+	}
+
+	/**
+	 * Constructs a rule from all of its parts.
+	 *
+	 * @param frequency the unit of repetition
+	 * @param interval the number of units between repetitions; at least 1
+	 * @param byDay for weekly rules, the days of the week to repeat on, or empty for the first
+	 *        occurrence's day; ignored by other frequencies
+	 * @param until the last date an occurrence may fall on, or {@code null} for no end date
+	 * @param count the maximum number of occurrences, or {@code 0} for no limit
+	 * @param exceptions dates on which no occurrence takes place
+	 * @throws IllegalArgumentException if {@code interval} is below 1 or {@code count} is negative
+	 */
+	public RecurrenceRule(Frequency frequency, int interval, Collection<DayOfWeek> byDay, LocalDate until,
+			int count, Collection<LocalDate> exceptions) {
+		if(interval < 1) throw new IllegalArgumentException("Interval must be at least 1: " + interval);
+		if(count < 0) throw new IllegalArgumentException("Count must not be negative: " + count);
+		this.frequency = Objects.requireNonNull(frequency);
+		this.interval = interval;
+		this.byDay = byDay.isEmpty() ? Collections.<DayOfWeek>emptySet() : Collections.unmodifiableSet(EnumSet.copyOf(byDay));
+		this.until = until;
+		this.count = count;
+		this.exceptions = Collections.unmodifiableSet(new TreeSet<LocalDate>(exceptions));
+	}
+
+	/**
+	 * Returns a copy of this rule that also skips the given date.
+	 *
+	 * @param date the date to leave out
+	 * @return the new rule
+	 */
+	public RecurrenceRule withException(LocalDate date) {
+		TreeSet<LocalDate> updated = new TreeSet<LocalDate>(exceptions);
+		updated.add(date);
+		return new RecurrenceRule(frequency, interval, byDay, until, count, updated);
+	}
+
+	/**
+	 * Returns a copy of this rule that ends on the given date.
+	 *
+	 * @param date the last date an occurrence may fall on, or {@code null} for no end date
+	 * @return the new rule
+	 */
+	public RecurrenceRule withUntil(LocalDate date) {
+		return new RecurrenceRule(frequency, interval, byDay, date, count, exceptions);
+	}
+
+	/**
+	 * Passes every occurrence date from {@code from} to {@code to} (inclusive) to the given action,
+	 * in ascending order, for a series whose first occurrence falls on {@code first}.
+	 * <p>
+	 * Without a count limit, the expansion jumps straight to the period containing {@code from},
+	 * so its cost depends only on the length of the requested range. With a count limit it has to
+	 * count from the first occurrence, but then never visits more than {@code count} dates.
+	 * </p>
+	 *
+	 * @param first the date of the series' first occurrence
+	 * @param from the first date to report
+	 * @param to the last date to report
+	 * @param action the action to perform on each occurrence date
+	 */
+	public void forEachDate(LocalDate first, LocalDate from, LocalDate to, Consumer<LocalDate> action) {
+		LocalDate last = until != null && until.isBefore(to) ? until : to;
+		long period = count == 0 && from.isAfter(first) ? periodOf(first, from) : 0;
+		int generated = 0;
+		for(;; period++) {
+			if(periodStart(first, period).isAfter(last)) return;
+			for(LocalDate date : datesIn(first, period)) {
+				if(date.isBefore(first)) continue;
+				if(date.isAfter(last)) return;
+				if(count > 0 && generated++ >= count) return;
+				if(!date.isBefore(from) && !exceptions.contains(date)) action.accept(date);
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of the period containing the given date.
+	 */
+	private long periodOf(LocalDate first, LocalDate date) {
+		switch(frequency) {
+		case DAILY:
+			return ChronoUnit.DAYS.between(first, date) / interval;
+		case WEEKLY:
+			return ChronoUnit.WEEKS.between(weekOf(first), date) / interval;
+		case MONTHLY:
+			return ChronoUnit.MONTHS.between(YearMonth.from(first), YearMonth.from(date)) / interval;
+		default:
+			return (long) (date.getYear() - first.getYear()) / interval;
+		}
+	}
+
+	/**
+	 * Returns the first day covered by the given period.
+	 */
+	private LocalDate periodStart(LocalDate first, long period) {
+		long units = period * interval;
+		switch(frequency) {
+		case DAILY:
+			return first.plusDays(units);
+		case WEEKLY:
+			return weekOf(first).plusWeeks(units);
+		case MONTHLY:
+			return YearMonth.from(first).plusMonths(units).atDay(1);
+		default:
+			return LocalDate.of(first.getYear(), 1, 1).plusYears(units);
+		}
+	}
+
+	/**
+	 * Returns the candidate dates within the given period in ascending order, before
+	 * the start, end, and exception checks are applied.
+	 */
+	private Collection<LocalDate> datesIn(LocalDate first, long period) {
+		LocalDate start = periodStart(first, period);
+		switch(frequency) {
+		case DAILY:
+			return Collections.singletonList(start);
+		case WEEKLY: {
+			if(byDay.isEmpty()) return Collections.singletonList(start.with(TemporalAdjusters.nextOrSame(first.getDayOfWeek())));
+			TreeSet<LocalDate> dates = new TreeSet<LocalDate>();
+			for(DayOfWeek day : byDay) dates.add(start.with(TemporalAdjusters.nextOrSame(day)));
+			return dates;
+		}
+		case MONTHLY: {
+			YearMonth month = YearMonth.from(start);
+			return month.isValidDay(first.getDayOfMonth())
+					? Collections.singletonList(month.atDay(first.getDayOfMonth()))
+					: Collections.<LocalDate>emptyList();
+		}
+		default: {
+			YearMonth month = YearMonth.of(start.getYear(), first.getMonth());
+			return month.isValidDay(first.getDayOfMonth())
+					? Collections.singletonList(month.atDay(first.getDayOfMonth()))
+					: Collections.<LocalDate>emptyList();
+		}
+		}
+	}
+
+	private static LocalDate weekOf(LocalDate date) {
+		return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+	}
+
+	/**
+	 * Indicates whether some other object is "equal to" this one.
+	 * Two rules are equal if all of their parts are equal.
+	 *
+	 * @param o the reference object with which to compare
+	 * @return {@code true} if this rule is equal to {@code o}; {@code false} otherwise
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(!(o instanceof RecurrenceRule)) return false;
+
+		RecurrenceRule other = (RecurrenceRule)o;
+		return frequency == other.frequency && interval == other.interval && count == other.count
+				&& byDay.equals(other.byDay) && Objects.equals(until, other.until) && exceptions.equals(other.exceptions);
+	}
+
+	/**
+	 * Returns a hash code value for the rule, consistent with {@link #equals(Object)}.
+	 *
+	 * @return a hash code based on all parts of the rule
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(frequency, interval, byDay, until, count, exceptions);
+	}
+
+	public Frequency getFrequency() {
+		return frequency;
+	}
+
+	public int getInterval() {
+		return interval;
+	}
+
+	public Set<DayOfWeek> getByDay() {
+		return byDay;
+	}
+
+	public LocalDate getUntil() {
+		return until;
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public Set<LocalDate> getExceptions() {
+		return exceptions;
+	}
+}
@@ -0,0 +1,184 @@
+package onthedocket.models;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A series of calendar events that repeat according to a {@link RecurrenceRule}, such as a weekly
+ * standup. The series is stored once, however many times it repeats; individual occurrences are
+ * only created as {@link Occurrence} events for the range a caller asks for.
+ * <p>
+ * Every occurrence starts at the same time of day as the first one and lasts equally long.
+ * Recurring events are immutable; {@link #withRule(RecurrenceRule)} returns a modified copy.
+ * </p>
+ * <p>
+ * Two {@code RecurringEvent} instances are considered equal if they share the same name, first
+ * start, duration, category, and rule.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class RecurringEvent implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final String name;
+	private final LocalDateTime start;
+	private final Duration duration;
+	private final EventCategory category;
+	private final RecurrenceRule rule;
+
+	/**
+	 * Constructs a recurring event from its first occurrence and a rule.
+	 *
+	 * @param name a title shared by every occurrence
+	 * @param start the date-time when the first occurrence begins
+	 * @param end the date-time when the first occurrence ends
+	 * @param category the category shared by every occurrence
+	 * @param rule the rule deciding on which dates the event repeats
+	 * @throws IllegalArgumentException if {@code end} is before {@code start}
+	 */
+	public RecurringEvent(String name, LocalDateTime start, LocalDateTime end, EventCategory category, RecurrenceRule rule) {
+		if(end.isBefore(start)) throw new IllegalArgumentException("End is before start: " + start + " -> " + end);
+		this.name = Objects.requireNonNull(name);
+		this.start = start;
+		this.duration = Duration.between(start, end);
+		this.category = Objects.requireNonNull(category);
+		this.rule = Objects.requireNonNull(rule);
+	}
+
+	/**
+	 * Returns a copy of this recurring event that follows the given rule.
+	 *
+	 * @param newRule the rule for the copy
+	 * @return the new recurring event
+	 */
+	public RecurringEvent withRule(RecurrenceRule newRule) {
+		return new RecurringEvent(name, start, start.plus(duration), category, newRule);
+	}
+
+	/**
+	 * Passes every occurrence that overlaps the range from {@code from} to {@code to} (inclusive)
+	 * to the given action, in start order. Only occurrences that can fall inside the range are
+	 * ever created.
+	 *
+	 * @param from the start of the range
+	 * @param to the end of the range
+	 * @param action the action to perform on each occurrence
+	 */
+	public void forEachOccurrence(LocalDateTime from, LocalDateTime to, Consumer<? super Occurrence> action) {
+		if(to.isBefore(start)) return;
+		LocalDate earliest = from.minus(duration).toLocalDate();
+		rule.forEachDate(start.toLocalDate(), earliest, to.toLocalDate(), date -> {
+			LocalDateTime occurrenceStart = date.atTime(start.toLocalTime());
+			LocalDateTime occurrenceEnd = occurrenceStart.plus(duration);
+			if(!occurrenceStart.isAfter(to) && !occurrenceEnd.isBefore(from)) {
+				action.accept(new Occurrence(this, occurrenceStart, occurrenceEnd));
+			}
+		});
+	}
+
+	/**
+	 * Retrieves every occurrence that overlaps the range from {@code from} to {@code to} (inclusive).
+	 *
+	 * @param from the start of the range
+	 * @param to the end of the range
+	 * @return the occurrences in start order; never null but possibly empty
+	 */
+	public ArrayList<Occurrence> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+		ArrayList<Occurrence> result = new ArrayList<Occurrence>();
+		forEachOccurrence(from, to, result::add);
+		return result;
+	}
+
+	/**
+	 * Indicates whether some other object is "equal to" this one.
+	 * Two recurring events are equal if they have the same name, first start, duration,
+	 * category, and rule.
+	 *
+	 * @param o the reference object with which to compare
+	 * @return {@code true} if this recurring event is equal to {@code o}; {@code false} otherwise
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(!(o instanceof RecurringEvent)) return false;
+
+		RecurringEvent other = (RecurringEvent)o;
+		return name.equals(other.name) && start.equals(other.start) && duration.equals(other.duration)
+				&& category.equals(other.category) && rule.equals(other.rule);
+	}
+
+	/**
+	 * Returns a hash code value for the recurring event, consistent with {@link #equals(Object)}.
+	 *
+	 * @return a hash code based on name, first start, duration, category, and rule
+	 */
+	@Override
+	public int hashCode() {
+		return Objects.hash(name, start, duration, category, rule);
+	}
+
+	/**
+	 * Returns a String representation of this recurring event in the format:
+	 * <pre>
+	 * RecurringEvent[Name: yyyy-MM-dd HH:mm, FREQUENCY (Category Name)]
+	 * </pre>
+	 *
+	 * @return a formatted String describing this recurring event
+	 */
+	@Override
+	public String toString() {
+		DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+		return String.format("RecurringEvent[%s: %s, %s (%s)]", name, start.format(format), rule.getFrequency(), category.getName());
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public LocalDateTime getStart() {
+		return start;
+	}
+
+	public LocalDateTime getEnd() {
+		return start.plus(duration);
+	}
+
+	public Duration getDuration() {
+		return duration;
+	}
+
+	public EventCategory getCategory() {
+		return category;
+	}
+
+	public RecurrenceRule getRule() {
+		return rule;
+	}
+
+	/**
+	 * A single occurrence of a {@link RecurringEvent}, created on demand. An occurrence is equal
+	 * to any {@link Event} with the same fields and remembers the series it belongs to, so that
+	 * removing it can be turned into an exception on the series.
+	 */
+	public static final class Occurrence extends Event {
+		private static final long serialVersionUID = 1L;
+
+		private final RecurringEvent series;
+
+		private Occurrence(RecurringEvent series, LocalDateTime start, LocalDateTime end) {
+			super(series.name, start, end, series.category);
+			this.series = series;
+		}
+
+		public RecurringEvent getSeries() {
+			return series;
+		}
+	}
+}
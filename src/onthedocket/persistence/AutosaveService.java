@@ -0,0 +1,168 @@
+package onthedocket.persistence;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves {@link DataManager} in the background shortly after it changes, so that saving never
+ * blocks the user interface.
+ * <p>
+ * Every change restarts a quiet-period timer, so a burst of edits results in a single save;
+ * a save is forced once changes have been pending for the maximum delay, even if edits keep
+ * arriving. Saves run on a dedicated daemon thread through {@link Serializer#writeSnapshot()},
+ * which captures a consistent snapshot and atomically replaces the data file. Progress and
+ * failures are reported to registered {@link Listener}s on the autosave thread.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public class AutosaveService {
+	/**
+	 * Receives progress and failure reports from an {@link AutosaveService}. Methods are
+	 * called on the autosave thread; user interfaces must hand them over to their own thread.
+	 */
+	public interface Listener {
+		/**
+		 * Called when a save begins.
+		 */
+		void saveStarted();
+
+		/**
+		 * Called when a save completes successfully.
+		 *
+		 * @param time the local time at which the save completed
+		 */
+		void saveSucceeded(LocalDateTime time);
+
+		/**
+		 * Called when a save fails. The changes remain pending and are retried on the next save.
+		 *
+		 * @param error the cause of the failure
+		 */
+		void saveFailed(IOException error);
+	}
+
+	private final long quietMillis;
+	private final long maxDelayMillis;
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "autosave");
+		t.setDaemon(true);
+		return t;
+	});
+	private final CopyOnWriteArrayList<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+	private final DataListener changeListener = new DataListener() {
+		@Override
+		public void dataChanged() {
+			changed();
+		}
+	};
+	private ScheduledFuture<?> pending;
+	private long firstPendingChange = -1;
+
+	/**
+	 * Creates an autosave service with the given timing. The service does nothing
+	 * until {@link #start()} is called.
+	 *
+	 * @param quietPeriod how long the data must stay unchanged before it is saved
+	 * @param maxDelay the longest a change may wait for a save while edits keep arriving
+	 */
+	public AutosaveService(Duration quietPeriod, Duration maxDelay) {
+		this.quietMillis = quietPeriod.toMillis();
+		this.maxDelayMillis = maxDelay.toMillis();
+	}
+
+	/**
+	 * Starts watching {@link DataManager} for changes.
+	 */
+	public void start() {
+		DataManager.addListener(changeListener);
+	}
+
+	/**
+	 * Stops watching for changes, waits for any running save to finish, and shuts down the
+	 * autosave thread. Changes still pending are left to the journal.
+	 */
+	public void stop() {
+		DataManager.removeListener(changeListener);
+		synchronized(this) {
+			if(pending != null) pending.cancel(false);
+		}
+		executor.shutdown();
+		try {
+			executor.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Notes a change and (re)schedules the next save after the quiet period, or sooner if
+	 * that would exceed the maximum delay since the first unsaved change.
+	 */
+	public synchronized void changed() {
+		long now = System.currentTimeMillis();
+		if(firstPendingChange < 0) firstPendingChange = now;
+		long delay = Math.min(quietMillis, firstPendingChange + maxDelayMillis - now);
+		schedule(Math.max(0, delay));
+	}
+
+	/**
+	 * Schedules a save to run immediately in the background.
+	 */
+	public synchronized void saveNow() {
+		if(firstPendingChange < 0) firstPendingChange = System.currentTimeMillis();
+		schedule(0);
+	}
+
+	private void schedule(long delayMillis) {
+		if(executor.isShutdown()) return;
+		if(pending != null) pending.cancel(false);
+		pending = executor.schedule(this::save, delayMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Runs on the autosave thread: writes the snapshot and reports the outcome.
+	 */
+	private void save() {
+		synchronized(this) {
+			firstPendingChange = -1;
+		}
+		for(Listener l : listeners) l.saveStarted();
+		try {
+			Serializer.writeSnapshot();
+		} catch (IOException e) {
+			failed(e);
+			return;
+		} catch (RuntimeException e) {
+			failed(new IOException("Unexpected error while saving: " + e, e));
+			return;
+		}
+		LocalDateTime time = LocalDateTime.now();
+		for(Listener l : listeners) l.saveSucceeded(time);
+	}
+
+	/**
+	 * Marks the changes as pending again and reports the failure. Runtime exceptions are
+	 * reported too, since one escaping into the executor would be lost without a trace.
+	 */
+	private void failed(IOException error) {
+		synchronized(this) {
+			if(firstPendingChange < 0) firstPendingChange = System.currentTimeMillis();
+		}
+		for(Listener l : listeners) l.saveFailed(error);
+	}
+}
@@ -0,0 +1,601 @@
+package onthedocket.persistence;
+
+import java.awt.Color;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import onthedocket.models.CategoryRegistry;
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.models.RecurrenceRule;
+import onthedocket.models.RecurringEvent;
+import onthedocket.utils.EpochMinutes;
+import onthedocket.utils.Theme;
+
+/**
+ * Reads and writes the compact, versioned binary storage format used by {@link Serializer}.
+ * <p>
+ * A file consists of a header, a category dictionary, and the event table:
+ * </p>
+ * <pre>
+ * int    magic ("OTDK")
+ * short  version
+ * long   journal generation (version 2 and later)
+ * string theme name ("" when no theme is set)
+ * int    category count, then per category:
+ *        string name, int ARGB color, byte registered (1 if held by DataManager)
+ * int    event count, then per event:
+ *        long start epoch minute, long end epoch minute, int category id, string name
+ * int    recurring event count (version 3 and later), then per recurring event:
+ *        long first start epoch minute, long first end epoch minute, int category id,
+ *        string name, rule
+ * </pre>
+ * <p>
+ * A rule is stored as a byte frequency, int interval, byte bitmask of weekdays (bit 0 is Monday),
+ * long until epoch day ({@link Long#MIN_VALUE} for none), int count, and an int number of
+ * exception dates followed by each as a long epoch day.
+ * </p>
+ * <p>
+ * Strings are stored as an int byte length followed by UTF-8 bytes, and category ids are
+ * positions in the dictionary; on load, each entry resolves to the registered category with
+ * the same name and color. The journal generation is that of the first {@link Journal}
+ * whose records are not already contained in the file. All I/O goes through a
+ * {@link FileChannel} and a reusable direct buffer. A damaged file fails with an
+ * {@link IOException}: table sizes, string lengths, category ids, and times are checked
+ * before they are used. This class is non-instantiable.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class BinaryFormat {
+	/**
+	 * The four bytes "OTDK" that open every binary data file.
+	 */
+	public static final int MAGIC = 0x4F54444B;
+	/**
+	 * The format version written by this class.
+	 */
+	public static final short VERSION = 3;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int MIN_CATEGORY_BYTES = 4 + 4 + 1;
+	private static final int MIN_EVENT_BYTES = 8 + 8 + 4 + 4;
+	private static final int MIN_RULE_BYTES = 1 + 4 + 1 + 8 + 4 + 4;
+
+	/**
+	 * Private constructor to prevent external instantiation.
+	 *
+	 * @throws AssertionError always thrown to enforce non-instantiability
+	 */
+	private BinaryFormat() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * The in-memory contents of one data file.
+	 */
+	public static final class Contents {
+		private final List<Event> events;
+		private final List<EventCategory> categories;
+		private final List<RecurringEvent> recurring;
+		private final Theme theme;
+		private final long journalGeneration;
+
+		/**
+		 * Creates a contents holder.
+		 *
+		 * @param events the events, in any order
+		 * @param categories the categories registered with the DataManager
+		 * @param recurring the recurring events
+		 * @param theme the selected theme, or {@code null}
+		 * @param journalGeneration the generation of the first journal not contained in these contents
+		 */
+		public Contents(List<Event> events, List<EventCategory> categories, List<RecurringEvent> recurring,
+				Theme theme, long journalGeneration) {
+			this.events = events;
+			this.categories = categories;
+			this.recurring = recurring;
+			this.theme = theme;
+			this.journalGeneration = journalGeneration;
+		}
+
+		public List<Event> getEvents() {
+			return events;
+		}
+
+		public List<EventCategory> getCategories() {
+			return categories;
+		}
+
+		public List<RecurringEvent> getRecurringEvents() {
+			return recurring;
+		}
+
+		public Theme getTheme() {
+			return theme;
+		}
+
+		public long getJournalGeneration() {
+			return journalGeneration;
+		}
+	}
+
+	/**
+	 * Determines whether the given file starts with the binary format's magic number.
+	 *
+	 * @param path the file to inspect
+	 * @return {@code true} if the file is in the binary format; {@code false} otherwise
+	 * @throws IOException if the file cannot be read
+	 */
+	public static boolean isBinary(Path path) throws IOException {
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(4);
+			while(header.hasRemaining() && channel.read(header) >= 0);
+			return !header.hasRemaining() && header.getInt(0) == MAGIC;
+		}
+	}
+
+	/**
+	 * Writes the given contents to the given file, replacing anything already there,
+	 * and forces the written bytes to the storage device before returning.
+	 *
+	 * @param path the file to write
+	 * @param contents the data to store
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(Path path, Contents contents) throws IOException {
+		HashMap<EventCategory, Integer> ids = new HashMap<EventCategory, Integer>();
+		ArrayList<EventCategory> dictionary = new ArrayList<EventCategory>();
+		for(EventCategory c : contents.categories) {
+			if(ids.putIfAbsent(c, dictionary.size()) == null) dictionary.add(c);
+		}
+		int registered = dictionary.size();
+		for(Event e : contents.events) {
+			if(ids.putIfAbsent(e.getCategory(), dictionary.size()) == null) dictionary.add(e.getCategory());
+		}
+		for(RecurringEvent r : contents.recurring) {
+			if(ids.putIfAbsent(r.getCategory(), dictionary.size()) == null) dictionary.add(r.getCategory());
+		}
+
+		try(Output out = new Output(FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))) {
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			out.writeLong(contents.journalGeneration);
+			out.writeString(contents.theme == null ? "" : contents.theme.getName());
+
+			out.writeInt(dictionary.size());
+			for(int i = 0; i < dictionary.size(); i++) {
+				EventCategory c = dictionary.get(i);
+				out.writeString(c.getName());
+				out.writeInt(c.getColor().getRGB());
+				out.writeByte(i < registered ? 1 : 0);
+			}
+
+			out.writeInt(contents.events.size());
+			for(Event e : contents.events) {
+				out.writeLong(EpochMinutes.of(e.getStart()));
+				out.writeLong(EpochMinutes.of(e.getEnd()));
+				out.writeInt(ids.get(e.getCategory()));
+				out.writeString(e.getName());
+			}
+
+			out.writeInt(contents.recurring.size());
+			for(RecurringEvent r : contents.recurring) {
+				out.writeLong(EpochMinutes.of(r.getStart()));
+				out.writeLong(EpochMinutes.of(r.getEnd()));
+				out.writeInt(ids.get(r.getCategory()));
+				out.writeString(r.getName());
+				writeRule(out, r.getRule());
+			}
+			out.sync();
+		}
+	}
+
+	/**
+	 * Reads the contents of the given binary data file.
+	 *
+	 * @param path the file to read
+	 * @return the stored events, registered categories, and theme
+	 * @throws IOException if the file cannot be read, is not in the binary format,
+	 *         or uses an unsupported version
+	 */
+	public static Contents read(Path path) throws IOException {
+		try(Input in = new Input(FileChannel.open(path, StandardOpenOption.READ))) {
+			if(in.readInt() != MAGIC) throw new IOException("Not an OnTheDocket data file: " + path);
+			short version = in.readShort();
+			if(version < 1 || version > VERSION) throw new IOException("Unsupported data file version " + version + ": " + path);
+			long journalGeneration = version >= 2 ? in.readLong() : 0;
+			Theme theme = themeNamed(in.readString());
+
+			int categoryCount = readCount(in, MIN_CATEGORY_BYTES);
+			EventCategory[] dictionary = new EventCategory[categoryCount];
+			ArrayList<EventCategory> categories = new ArrayList<EventCategory>();
+			for(int i = 0; i < categoryCount; i++) {
+				dictionary[i] = CategoryRegistry.canonical(in.readString(), new Color(in.readInt(), true));
+				if(in.readByte() != 0) categories.add(dictionary[i]);
+			}
+
+			int eventCount = readCount(in, MIN_EVENT_BYTES);
+			ArrayList<Event> events = new ArrayList<Event>(eventCount);
+			for(int i = 0; i < eventCount; i++) {
+				LocalDateTime start = readDateTime(in);
+				LocalDateTime end = readDateTime(in);
+				EventCategory category = readCategory(in, dictionary);
+				events.add(new Event(in.readString(), start, end, category));
+			}
+
+			ArrayList<RecurringEvent> recurring = new ArrayList<RecurringEvent>();
+			if(version >= 3) {
+				int recurringCount = readCount(in, MIN_EVENT_BYTES + MIN_RULE_BYTES);
+				for(int i = 0; i < recurringCount; i++) {
+					LocalDateTime start = readDateTime(in);
+					LocalDateTime end = readDateTime(in);
+					EventCategory category = readCategory(in, dictionary);
+					String name = in.readString();
+					recurring.add(new RecurringEvent(name, start, end, category, readRule(in)));
+				}
+			}
+			return new Contents(events, categories, recurring, theme, journalGeneration);
+		}
+	}
+
+	/**
+	 * Reads the events of the given binary data file straight into an {@link EventStore},
+	 * without materializing an {@link Event} for each one. This is meant for archives too
+	 * large to hold as objects; the header, theme, and registered categories are skipped.
+	 *
+	 * @param path the file to read
+	 * @return a store holding every event in the file
+	 * @throws IOException if the file cannot be read, is not in the binary format,
+	 *         or uses an unsupported version
+	 */
+	public static EventStore readStore(Path path) throws IOException {
+		try(Input in = new Input(FileChannel.open(path, StandardOpenOption.READ))) {
+			if(in.readInt() != MAGIC) throw new IOException("Not an OnTheDocket data file: " + path);
+			short version = in.readShort();
+			if(version < 1 || version > VERSION) throw new IOException("Unsupported data file version " + version + ": " + path);
+			if(version >= 2) in.readLong();
+			in.readString();
+
+			int categoryCount = readCount(in, MIN_CATEGORY_BYTES);
+			EventCategory[] dictionary = new EventCategory[categoryCount];
+			for(int i = 0; i < categoryCount; i++) {
+				dictionary[i] = CategoryRegistry.canonical(in.readString(), new Color(in.readInt(), true));
+				in.readByte();
+			}
+
+			int eventCount = readCount(in, MIN_EVENT_BYTES);
+			EventStore store = new EventStore(eventCount);
+			for(int i = 0; i < eventCount; i++) {
+				long start = in.readLong();
+				long end = in.readLong();
+				EventCategory category = readCategory(in, dictionary);
+				store.add(in.readString(), start, end, category);
+			}
+			return store;
+		}
+	}
+
+	/**
+	 * Reads only the theme name from the header of the given binary data file.
+	 *
+	 * @param path the file to read
+	 * @return the stored theme, or {@code null} if none is stored
+	 * @throws IOException if the file cannot be read or is not in the binary format
+	 */
+	public static Theme readTheme(Path path) throws IOException {
+		try(Input in = new Input(FileChannel.open(path, StandardOpenOption.READ))) {
+			if(in.readInt() != MAGIC) throw new IOException("Not an OnTheDocket data file: " + path);
+			if(in.readShort() >= 2) in.readLong();
+			return themeNamed(in.readString());
+		}
+	}
+
+	/**
+	 * Reads the number of entries of a table and checks that the rest of the file is long
+	 * enough to hold them, so a corrupt count fails here rather than by exhausting memory. A
+	 * count running past the end fails with EOFException, as a torn journal record does.
+	 *
+	 * @param in the input to read from
+	 * @param minBytes the fewest bytes a single entry of the table can take
+	 * @return the number of entries
+	 * @throws IOException if the input cannot be read or the count cannot be right
+	 */
+	static int readCount(Input in, int minBytes) throws IOException {
+		int count = in.readInt();
+		if(count < 0) throw new IOException("Corrupt entry count " + count);
+		if(count > in.remaining() / minBytes) throw new EOFException("Entry count " + count + " runs past the end");
+		return count;
+	}
+
+	/**
+	 * Reads a category id and resolves it against the dictionary.
+	 *
+	 * @param in the input to read from
+	 * @param dictionary the categories of the file, by id
+	 * @return the category with the id read
+	 * @throws IOException if the input cannot be read or the id is not in the dictionary
+	 */
+	static EventCategory readCategory(Input in, EventCategory[] dictionary) throws IOException {
+		int id = in.readInt();
+		if(id < 0 || id >= dictionary.length) throw new IOException("Bad category index " + id);
+		return dictionary[id];
+	}
+
+	/**
+	 * Reads an epoch minute as a date-time.
+	 *
+	 * @param in the input to read from
+	 * @return the date-time read
+	 * @throws IOException if the input cannot be read or holds a minute out of range
+	 */
+	static LocalDateTime readDateTime(Input in) throws IOException {
+		long epochMinute = in.readLong();
+		try {
+			return EpochMinutes.toDateTime(epochMinute);
+		} catch(DateTimeException e) {
+			throw new IOException("Corrupt time " + epochMinute, e);
+		}
+	}
+
+	/**
+	 * Writes a recurrence rule in the layout described in the class comment.
+	 *
+	 * @param out the output to write to
+	 * @param rule the rule to write
+	 * @throws IOException if the output cannot be written
+	 */
+	static void writeRule(Output out, RecurrenceRule rule) throws IOException {
+		out.writeByte(rule.getFrequency().ordinal());
+		out.writeInt(rule.getInterval());
+		out.writeByte(dayMask(rule.getByDay()));
+		out.writeLong(rule.getUntil() == null ? Long.MIN_VALUE : rule.getUntil().toEpochDay());
+		out.writeInt(rule.getCount());
+		out.writeInt(rule.getExceptions().size());
+		for(LocalDate date : rule.getExceptions()) out.writeLong(date.toEpochDay());
+	}
+
+	/**
+	 * Reads a recurrence rule written by {@link #writeRule(Output, RecurrenceRule)}.
+	 *
+	 * @param in the input to read from
+	 * @return the rule
+	 * @throws IOException if the input cannot be read or holds an invalid rule
+	 */
+	static RecurrenceRule readRule(Input in) throws IOException {
+		int frequency = in.readByte();
+		if(frequency < 0 || frequency >= RecurrenceRule.Frequency.values().length) throw new IOException("Corrupt frequency " + frequency);
+		int interval = in.readInt();
+		int mask = in.readByte();
+		long until = in.readLong();
+		int count = in.readInt();
+		int exceptionCount = readCount(in, 8);
+		try {
+			ArrayList<LocalDate> exceptions = new ArrayList<LocalDate>(exceptionCount);
+			for(int i = 0; i < exceptionCount; i++) exceptions.add(LocalDate.ofEpochDay(in.readLong()));
+			return new RecurrenceRule(RecurrenceRule.Frequency.values()[frequency], interval, days(mask),
+					until == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(until), count, exceptions);
+		} catch(IllegalArgumentException | DateTimeException e) {
+			throw new IOException("Corrupt recurrence rule", e);
+		}
+	}
+
+	/**
+	 * Packs a set of weekdays into a bitmask, Monday being bit 0.
+	 *
+	 * @param days the weekdays
+	 * @return the bitmask
+	 */
+	static int dayMask(Set<DayOfWeek> days) {
+		int mask = 0;
+		for(DayOfWeek day : days) mask |= 1 << day.ordinal();
+		return mask;
+	}
+
+	private static EnumSet<DayOfWeek> days(int mask) {
+		EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+		for(DayOfWeek day : DayOfWeek.values()) {
+			if((mask & 1 << day.ordinal()) != 0) days.add(day);
+		}
+		return days;
+	}
+
+	/**
+	 * Resolves a stored theme name to one of the preset themes.
+	 *
+	 * @param name the stored name
+	 * @return the matching preset, or {@code null} if none matches
+	 */
+	static Theme themeNamed(String name) {
+		for(Theme t : new Theme[] {Theme.LIGHT, Theme.DARK}) {
+			if(t.getName().equals(name)) return t;
+		}
+		return null;
+	}
+
+	/**
+	 * A buffered writer of primitive values onto a file channel.
+	 */
+	static final class Output implements AutoCloseable {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+		Output(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		private void ensure(int bytes) throws IOException {
+			if(buffer.remaining() < bytes) flush();
+		}
+
+		void writeByte(int v) throws IOException {
+			ensure(1);
+			buffer.put((byte) v);
+		}
+
+		void writeShort(short v) throws IOException {
+			ensure(2);
+			buffer.putShort(v);
+		}
+
+		void writeInt(int v) throws IOException {
+			ensure(4);
+			buffer.putInt(v);
+		}
+
+		void writeLong(long v) throws IOException {
+			ensure(8);
+			buffer.putLong(v);
+		}
+
+		void writeString(String s) throws IOException {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			writeInt(bytes.length);
+			if(bytes.length > buffer.capacity()) {
+				flush();
+				ByteBuffer large = ByteBuffer.wrap(bytes);
+				while(large.hasRemaining()) channel.write(large);
+			} else {
+				ensure(bytes.length);
+				buffer.put(bytes);
+			}
+		}
+
+		/**
+		 * Writes all buffered bytes to the channel.
+		 *
+		 * @throws IOException if the channel cannot be written
+		 */
+		void flush() throws IOException {
+			buffer.flip();
+			while(buffer.hasRemaining()) channel.write(buffer);
+			buffer.clear();
+		}
+
+		/**
+		 * Writes all buffered bytes and forces them to the storage device.
+		 *
+		 * @throws IOException if the channel cannot be written or synced
+		 */
+		void sync() throws IOException {
+			flush();
+			channel.force(true);
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				flush();
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * A buffered reader of primitive values from a file channel.
+	 */
+	static final class Input implements AutoCloseable {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+		Input(FileChannel channel) {
+			this.channel = channel;
+			buffer.limit(0);
+		}
+
+		/**
+		 * Ensures at least the given number of bytes are buffered.
+		 *
+		 * @throws EOFException if the channel ends first
+		 */
+		private void ensure(int bytes) throws IOException {
+			if(buffer.remaining() >= bytes) return;
+			buffer.compact();
+			while(buffer.position() < bytes) {
+				if(channel.read(buffer) < 0) {
+					buffer.flip();
+					throw new EOFException();
+				}
+			}
+			buffer.flip();
+		}
+
+		/**
+		 * Returns the file offset of the next unread byte.
+		 *
+		 * @throws IOException if the channel position cannot be read
+		 */
+		long position() throws IOException {
+			return channel.position() - buffer.remaining();
+		}
+
+		/**
+		 * Returns the number of bytes left to read.
+		 *
+		 * @throws IOException if the channel size or position cannot be read
+		 */
+		long remaining() throws IOException {
+			return channel.size() - position();
+		}
+
+		byte readByte() throws IOException {
+			ensure(1);
+			return buffer.get();
+		}
+
+		short readShort() throws IOException {
+			ensure(2);
+			return buffer.getShort();
+		}
+
+		int readInt() throws IOException {
+			ensure(4);
+			return buffer.getInt();
+		}
+
+		long readLong() throws IOException {
+			ensure(8);
+			return buffer.getLong();
+		}
+
+		/**
+		 * Reads a string, checking its length against the bytes left before allocating it.
+		 *
+		 * @throws EOFException if the length runs past the end, as in a torn journal record
+		 */
+		String readString() throws IOException {
+			int length = readInt();
+			if(length < 0) throw new IOException("Corrupt string length " + length);
+			if(length > buffer.remaining() && length > remaining()) throw new EOFException("String length " + length + " runs past the end");
+			byte[] bytes = new byte[length];
+			int offset = 0;
+			while(offset < length) {
+				if(!buffer.hasRemaining()) ensure(1);
+				int chunk = Math.min(buffer.remaining(), length - offset);
+				buffer.get(bytes, offset, chunk);
+				offset += chunk;
+			}
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+}
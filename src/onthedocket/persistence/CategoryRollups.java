@@ -0,0 +1,405 @@
+package onthedocket.persistence;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import onthedocket.models.CategoryRegistry;
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.utils.EpochMinutes;
+
+/**
+ * Immutable rollups of the time booked per {@link EventCategory} in every week, month, and year
+ * covered by a set of events. An event spanning several periods is split at their boundaries,
+ * each period receiving only the minutes that fall within it, and counts as one event in each.
+ * An event ending exactly where a period starts does not count in that period.
+ * <p>
+ * Like {@link DayAggregates}, an instance is never modified: {@link #withAll(Collection)} and
+ * {@link #withoutAll(Collection)} return a new version sharing every untouched period with the
+ * old one. The periods of each length are grouped by the year they start in, so an added or
+ * removed event costs a copy of the small maps of years, of the year's periods it touches,
+ * and of the few periods it covers, never of the periods of other years.
+ * {@link DataManager} keeps a version in step with its events, and
+ * {@link #query(Period, LocalDate, LocalDate)} answers a report by looking up each period of
+ * the range, never visiting the events themselves.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class CategoryRollups {
+	/**
+	 * Rollups of no events.
+	 */
+	public static final CategoryRollups EMPTY = new CategoryRollups(new EnumMap<Period, Map<Integer, Map<Long, PeriodTotals>>>(Period.class));
+	private static final long MINUTES_PER_DAY = EpochMinutes.MINUTES_PER_DAY;
+
+	/**
+	 * For each period length, the totals of every period holding events, grouped by the year
+	 * of the period's first day and keyed by the epoch day of that day. Absent lengths and
+	 * years hold no events at all.
+	 */
+	private final EnumMap<Period, Map<Integer, Map<Long, PeriodTotals>>> tables;
+
+	private CategoryRollups(EnumMap<Period, Map<Integer, Map<Long, PeriodTotals>>> tables) {
+		this.tables = tables;
+	}
+
+	/**
+	 * The lengths of period time is rolled up by.
+	 */
+	public enum Period {
+		/**
+		 * A week, from Sunday to Saturday, as the week timeline shows it.
+		 */
+		WEEK("Weekly"),
+		/**
+		 * A calendar month.
+		 */
+		MONTH("Monthly"),
+		/**
+		 * A calendar year.
+		 */
+		YEAR("Yearly");
+
+		private final String label;
+
+		Period(String label) {
+			this.label = label;
+		}
+
+		/**
+		 * Returns the first day of the period containing a date.
+		 *
+		 * @param date any date
+		 * @return the Sunday, first of the month, or first of the year on or before {@code date}
+		 */
+		public LocalDate startOf(LocalDate date) {
+			switch(this) {
+			case WEEK:
+				return date.minusDays(date.getDayOfWeek().getValue() % 7);
+			case MONTH:
+				return date.withDayOfMonth(1);
+			default:
+				return date.withDayOfYear(1);
+			}
+		}
+
+		/**
+		 * Returns the first day of the period following the one starting on a date.
+		 *
+		 * @param start the first day of a period
+		 * @return the first day of the next period
+		 */
+		public LocalDate next(LocalDate start) {
+			switch(this) {
+			case WEEK:
+				return start.plusWeeks(1);
+			case MONTH:
+				return start.plusMonths(1);
+			default:
+				return start.plusYears(1);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return label;
+		}
+	}
+
+	/**
+	 * The time booked per category in a single period.
+	 */
+	public static final class Totals {
+		private final Period period;
+		private final LocalDate start;
+		private final int count;
+		private final long totalMinutes;
+		private final Map<EventCategory, Long> categoryMinutes;
+
+		private Totals(Period period, LocalDate start, int count, Map<EventCategory, Long> categoryMinutes) {
+			this.period = period;
+			this.start = start;
+			this.count = count;
+			this.categoryMinutes = categoryMinutes;
+			long total = 0;
+			for(long minutes : categoryMinutes.values()) total += minutes;
+			this.totalMinutes = total;
+		}
+
+		public Period getPeriod() {
+			return period;
+		}
+
+		public LocalDate getStart() {
+			return start;
+		}
+
+		/**
+		 * Returns the last day of the period.
+		 *
+		 * @return the day before the next period starts
+		 */
+		public LocalDate getEnd() {
+			return period.next(start).minusDays(1);
+		}
+
+		/**
+		 * Returns the number of events falling, at least in part, within the period.
+		 *
+		 * @return the number of events overlapping the period
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * Returns the minutes booked in the period by events of all categories, summed over the
+		 * events, so overlapping events may book more minutes than the period has.
+		 *
+		 * @return the booked minutes of the period
+		 */
+		public long getTotalMinutes() {
+			return totalMinutes;
+		}
+
+		/**
+		 * Returns the minutes booked in the period by events of one category.
+		 *
+		 * @param category the category
+		 * @return the booked minutes of {@code category}; 0 if it has none
+		 */
+		public long getMinutes(EventCategory category) {
+			Long minutes = categoryMinutes.get(category);
+			return minutes == null ? 0 : minutes;
+		}
+
+		/**
+		 * Returns the minutes booked in the period by events of each category.
+		 *
+		 * @return an unmodifiable map from category to minutes, holding only categories with
+		 *         a positive number of minutes
+		 */
+		public Map<EventCategory, Long> getCategoryMinutes() {
+			return categoryMinutes;
+		}
+
+		/**
+		 * Adds the totals of another set of events in the same period.
+		 *
+		 * @param other the totals to add, which must be of the same period
+		 * @return the combined totals
+		 * @throws IllegalArgumentException if {@code other} is of a different period
+		 */
+		public Totals plus(Totals other) {
+			if(other.period != period || !other.start.equals(start)) {
+				throw new IllegalArgumentException("Cannot add totals of " + other.start + " to totals of " + start);
+			}
+			if(other.count == 0) return this;
+			if(count == 0) return other;
+			HashMap<EventCategory, Long> combined = new HashMap<EventCategory, Long>(categoryMinutes);
+			for(Map.Entry<EventCategory, Long> entry : other.categoryMinutes.entrySet()) {
+				combined.merge(entry.getKey(), entry.getValue(), Long::sum);
+			}
+			return new Totals(period, start, count + other.count, Collections.unmodifiableMap(combined));
+		}
+	}
+
+	/**
+	 * Computes the rollups of the given events.
+	 *
+	 * @param events the events to roll up
+	 * @return the rollups of {@code events}
+	 */
+	public static CategoryRollups of(Collection<? extends Event> events) {
+		return EMPTY.withAll(events);
+	}
+
+	/**
+	 * Returns rollups that also count the given event.
+	 *
+	 * @param e the event to add; must not be null
+	 * @return the new rollups
+	 */
+	public CategoryRollups with(Event e) {
+		return apply(Collections.singletonList(e), 1);
+	}
+
+	/**
+	 * Returns rollups that also count all of the given events. Each period the batch touches is
+	 * copied once however many of its events fall in it.
+	 *
+	 * @param added the events to add; none may be null
+	 * @return the new rollups, or these rollups if {@code added} is empty
+	 */
+	public CategoryRollups withAll(Collection<? extends Event> added) {
+		return apply(added, 1);
+	}
+
+	/**
+	 * Returns rollups that no longer count the given event, which must have been counted.
+	 *
+	 * @param e the event to remove
+	 * @return the new rollups
+	 */
+	public CategoryRollups without(Event e) {
+		return apply(Collections.singletonList(e), -1);
+	}
+
+	/**
+	 * Returns rollups that no longer count the given events, all of which must have been counted.
+	 *
+	 * @param removed the events to remove
+	 * @return the new rollups, or these rollups if {@code removed} is empty
+	 */
+	public CategoryRollups withoutAll(Collection<? extends Event> removed) {
+		return apply(removed, -1);
+	}
+
+	/**
+	 * Returns the totals of one period.
+	 *
+	 * @param period the length of the period
+	 * @param date any date within the period
+	 * @return the totals of the period containing {@code date}
+	 */
+	public Totals get(Period period, LocalDate date) {
+		LocalDate start = period.startOf(date);
+		Map<Integer, Map<Long, PeriodTotals>> table = tables.get(period);
+		Map<Long, PeriodTotals> year = table == null ? null : table.get(start.getYear());
+		PeriodTotals totals = year == null ? null : year.get(start.toEpochDay());
+		return totals == null ? new Totals(period, start, 0, Collections.<EventCategory, Long>emptyMap()) : totals.toTotals(period, start);
+	}
+
+	/**
+	 * Returns the totals of every period from the one containing {@code first} to the one
+	 * containing {@code last}, in order. Each period is a single lookup, so the time taken
+	 * depends only on the number of periods, not on the number of events.
+	 *
+	 * @param period the length of the periods
+	 * @param first a date within the first period; must not be null
+	 * @param last a date within the last period; must not be null
+	 * @return the totals of each period, including periods without events; empty if
+	 *         {@code last} is before {@code first}
+	 */
+	public List<Totals> query(Period period, LocalDate first, LocalDate last) {
+		ArrayList<Totals> rows = new ArrayList<Totals>();
+		for(LocalDate start = period.startOf(first); !start.isAfter(last); start = period.next(start)) {
+			rows.add(get(period, start));
+		}
+		return rows;
+	}
+
+	/**
+	 * Returns the categories that booked time in any of the given periods, for use as the
+	 * columns of a report: the preset categories first, in their usual order, then the others
+	 * by name.
+	 *
+	 * @param rows the totals of the reported periods
+	 * @return the categories with a positive number of minutes in at least one row
+	 */
+	public static List<EventCategory> categoriesOf(Collection<Totals> rows) {
+		HashSet<EventCategory> booked = new HashSet<EventCategory>();
+		for(Totals row : rows) booked.addAll(row.getCategoryMinutes().keySet());
+		ArrayList<EventCategory> columns = new ArrayList<EventCategory>();
+		for(EventCategory preset : CategoryRegistry.presets()) {
+			if(booked.remove(preset)) columns.add(preset);
+		}
+		ArrayList<EventCategory> others = new ArrayList<EventCategory>(booked);
+		others.sort(Comparator.comparing(EventCategory::getName));
+		columns.addAll(others);
+		return columns;
+	}
+
+	/**
+	 * Adds ({@code sign} 1) or removes ({@code sign} -1) the given events, copying each touched
+	 * year and period once and dropping periods and years left without events.
+	 */
+	private CategoryRollups apply(Collection<? extends Event> changed, int sign) {
+		if(changed.isEmpty()) return this;
+		EnumMap<Period, Map<Integer, Map<Long, PeriodTotals>>> updated = new EnumMap<Period, Map<Integer, Map<Long, PeriodTotals>>>(Period.class);
+		for(Period period : Period.values()) {
+			Map<Integer, Map<Long, PeriodTotals>> old = tables.get(period);
+			HashMap<Integer, Map<Long, PeriodTotals>> table = old == null ? new HashMap<Integer, Map<Long, PeriodTotals>>() : new HashMap<Integer, Map<Long, PeriodTotals>>(old);
+			HashSet<Integer> copiedYears = new HashSet<Integer>();
+			HashSet<Long> copied = new HashSet<Long>();
+			for(Event e : changed) {
+				long start = EpochMinutes.of(e.getStart());
+				long end = EpochMinutes.of(e.getEnd());
+				// Every event counts in the period it starts in; later periods only if it runs into them.
+				LocalDate from = period.startOf(e.getStart().toLocalDate());
+				do {
+					LocalDate to = period.next(from);
+					long minutes = Math.min(end, to.toEpochDay() * MINUTES_PER_DAY) - Math.max(start, from.toEpochDay() * MINUTES_PER_DAY);
+					Integer yearKey = from.getYear();
+					Map<Long, PeriodTotals> year = table.get(yearKey);
+					if(copiedYears.add(yearKey)) {
+						year = year == null ? new HashMap<Long, PeriodTotals>() : new HashMap<Long, PeriodTotals>(year);
+						table.put(yearKey, year);
+					}
+					Long key = from.toEpochDay();
+					PeriodTotals totals = year.get(key);
+					if(copied.add(key)) {
+						totals = totals == null ? new PeriodTotals() : totals.copy();
+						year.put(key, totals);
+					}
+					totals.add(sign, sign * minutes, e.getCategory());
+					from = to;
+				} while(from.toEpochDay() * MINUTES_PER_DAY < end);
+			}
+			for(Integer yearKey : copiedYears) {
+				Map<Long, PeriodTotals> year = table.get(yearKey);
+				year.values().removeIf(totals -> totals.events == 0);
+				if(year.isEmpty()) table.remove(yearKey);
+			}
+			if(!table.isEmpty()) updated.put(period, table);
+		}
+		return new CategoryRollups(updated);
+	}
+
+	/**
+	 * The counters of one period. A period is only modified while a new version is being
+	 * built, before it is published.
+	 */
+	private static final class PeriodTotals {
+		private final HashMap<EventCategory, Long> categoryMinutes;
+		private int events;
+
+		PeriodTotals() {
+			this(new HashMap<EventCategory, Long>(), 0);
+		}
+
+		private PeriodTotals(HashMap<EventCategory, Long> categoryMinutes, int events) {
+			this.categoryMinutes = categoryMinutes;
+			this.events = events;
+		}
+
+		PeriodTotals copy() {
+			return new PeriodTotals(new HashMap<EventCategory, Long>(categoryMinutes), events);
+		}
+
+		void add(int count, long minutes, EventCategory category) {
+			events += count;
+			if(minutes != 0) {
+				long booked = categoryMinutes.getOrDefault(category, 0L) + minutes;
+				if(booked == 0) {
+					categoryMinutes.remove(category);
+				} else {
+					categoryMinutes.put(category, booked);
+				}
+			}
+		}
+
+		Totals toTotals(Period period, LocalDate start) {
+			return new Totals(period, start, events, Collections.unmodifiableMap(categoryMinutes));
+		}
+	}
+}
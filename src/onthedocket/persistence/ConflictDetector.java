@@ -0,0 +1,100 @@
+package onthedocket.persistence;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import onthedocket.models.Event;
+
+/**
+ * Finds scheduling conflicts, meaning events whose times overlap as defined by
+ * {@link Event#overlaps(Event)}, inclusive of start and end.
+ * <p>
+ * Rather than comparing every pair of events, the detector sorts the events by start and sweeps
+ * through them once, remembering the latest end seen in the current group: the next event either
+ * starts by then and joins the group, or starts a new one. This takes O(n log n) time, or O(n)
+ * for events that are already sorted, as {@link DataManager}'s queries return them. Overlapping
+ * events are reported as groups of events chained together by overlaps; two events in a group
+ * overlap directly or through other events in it.
+ * </p>
+ * <p>
+ * This class is non-instantiable.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class ConflictDetector {
+	private static final Comparator<Event> BY_START = Comparator.comparing(Event::getStart);
+
+	/**
+	 * Private constructor to prevent external instantiation.
+	 *
+	 * @throws AssertionError always thrown to enforce non-instantiability
+	 */
+	private ConflictDetector() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Groups the given events into sets of mutually chained overlaps.
+	 *
+	 * @param events the events to check, in any order
+	 * @return every group of two or more overlapping events, each in start order, with groups
+	 *         ordered by their first start; never null but possibly empty
+	 */
+	public static List<List<Event>> findConflicts(Collection<Event> events) {
+		ArrayList<Event> sorted = new ArrayList<Event>(events);
+		sorted.sort(BY_START);
+		return sweep(sorted);
+	}
+
+	/**
+	 * Finds the groups of overlapping events among those held by {@link DataManager}, including
+	 * occurrences of recurring events, that overlap the given range. Only the events in the range
+	 * are visited.
+	 *
+	 * @param from the start of the range, inclusive
+	 * @param to the end of the range, inclusive
+	 * @return every group of two or more overlapping events; never null but possibly empty
+	 */
+	public static List<List<Event>> findConflicts(LocalDateTime from, LocalDateTime to) {
+		return sweep(DataManager.getEventsBetween(from, to));
+	}
+
+	/**
+	 * Finds the events held by {@link DataManager} that the given event would collide with. Only
+	 * the event's neighbours in the index are examined, not the whole repository.
+	 *
+	 * @param e the event to check, which need not be stored yet
+	 * @return the stored events overlapping {@code e}, other than {@code e} itself, in start order
+	 */
+	public static List<Event> conflictsWith(Event e) {
+		ArrayList<Event> conflicts = new ArrayList<Event>();
+		for(Event other : DataManager.getEventsBetween(e.getStart(), e.getEnd())) {
+			if(other != e && other.overlaps(e)) conflicts.add(other);
+		}
+		return conflicts;
+	}
+
+	/**
+	 * Sweeps through events sorted by start, collecting the groups of overlapping events.
+	 */
+	private static List<List<Event>> sweep(List<Event> sorted) {
+		List<List<Event>> groups = new ArrayList<List<Event>>();
+		ArrayList<Event> group = new ArrayList<Event>();
+		LocalDateTime groupEnd = null;
+		for(Event e : sorted) {
+			if(groupEnd != null && e.getStart().isAfter(groupEnd)) {
+				if(group.size() > 1) groups.add(group);
+				group = new ArrayList<Event>();
+				groupEnd = null;
+			}
+			group.add(e);
+			if(groupEnd == null || e.getEnd().isAfter(groupEnd)) groupEnd = e.getEnd();
+		}
+		if(group.size() > 1) groups.add(group);
+		return groups;
+	}
+}
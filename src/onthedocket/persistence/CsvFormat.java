@@ -0,0 +1,86 @@
+package onthedocket.persistence;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import onthedocket.models.EventCategory;
+
+/**
+ * Exports reports as comma-separated values (RFC 4180) for use in a spreadsheet.
+ * <p>
+ * A category report has one row per period, giving its length, its first and last day, the
+ * hours booked by each category, the hours booked in all, and the number of events overlapping
+ * it. Hours are written with two decimals and a period as the decimal separator whatever the
+ * locale, and fields holding commas, quotes, or line breaks are quoted.
+ * </p>
+ * <p>
+ * This class is non-instantiable.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class CsvFormat {
+	private static final String LINE_END = "\r\n";
+
+	/**
+	 * Private constructor to prevent external instantiation.
+	 *
+	 * @throws AssertionError always thrown to enforce non-instantiability
+	 */
+	private CsvFormat() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Writes the given period totals to a file as a category report.
+	 *
+	 * @param path the .csv file to write; replaced if it exists
+	 * @param rows the totals of each period, in the order to write them
+	 * @param columns the categories to give a column each, typically
+	 *        {@link CategoryRollups#categoriesOf(java.util.Collection)} of {@code rows}
+	 * @return the number of periods written
+	 * @throws IOException if the file cannot be written
+	 */
+	public static int exportCategoryReport(Path path, List<CategoryRollups.Totals> rows, List<EventCategory> columns) throws IOException {
+		try(Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			StringBuilder line = new StringBuilder("Period,Start,End");
+			for(EventCategory category : columns) {
+				line.append(',').append(quote(category.getName() + " (hours)"));
+			}
+			line.append(",Total (hours),Events");
+			out.write(line.append(LINE_END).toString());
+			for(CategoryRollups.Totals row : rows) {
+				line.setLength(0);
+				line.append(row.getPeriod()).append(',').append(row.getStart()).append(',').append(row.getEnd());
+				for(EventCategory category : columns) {
+					line.append(',').append(hours(row.getMinutes(category)));
+				}
+				line.append(',').append(hours(row.getTotalMinutes())).append(',').append(row.getCount());
+				out.write(line.append(LINE_END).toString());
+			}
+		}
+		return rows.size();
+	}
+
+	/**
+	 * Formats a number of minutes as hours with two decimals.
+	 */
+	private static String hours(long minutes) {
+		return String.format(Locale.ROOT, "%.2f", minutes / 60.0);
+	}
+
+	/**
+	 * Quotes a field if it holds a comma, a quote, or a line break, doubling any quotes.
+	 */
+	private static String quote(String field) {
+		if(field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+			return field;
+		}
+		return '"' + field.replace("\"", "\"\"") + '"';
+	}
+}
@@ -0,0 +1,93 @@
+package onthedocket.persistence;
+
+import java.util.List;
+
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.models.RecurringEvent;
+import onthedocket.utils.Theme;
+
+/**
+ * Receives notifications about changes made to {@link DataManager}.
+ * <p>
+ * Notifications are delivered on the thread that made the change, after the change is visible
+ * to readers and without any DataManager lock held. Listeners that update Swing components must
+ * hand the work over to the event dispatch thread. Every specific notification defaults to
+ * calling {@link #dataChanged()}, so listeners that only care that <em>something</em> changed
+ * need to override that one method.
+ * </p>
+ *
+ * @see DataManager#addListener(DataListener)
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public interface DataListener {
+	/**
+	 * Called after events have been added.
+	 *
+	 * @param added the added events
+	 */
+	default void eventsAdded(List<Event> added) {
+		dataChanged();
+	}
+
+	/**
+	 * Called after events have been removed.
+	 *
+	 * @param removed the removed events
+	 */
+	default void eventsRemoved(List<Event> removed) {
+		dataChanged();
+	}
+
+	/**
+	 * Called after an event has been replaced by an updated version.
+	 *
+	 * @param oldEvent the event as it was before the update
+	 * @param newEvent the event that took its place
+	 */
+	default void eventUpdated(Event oldEvent, Event newEvent) {
+		dataChanged();
+	}
+
+	/**
+	 * Called after a category has been added or removed, or all categories were replaced.
+	 *
+	 * @param categories the categories now held
+	 */
+	default void categoriesChanged(List<EventCategory> categories) {
+		dataChanged();
+	}
+
+	/**
+	 * Called after a recurring event has been added, removed, or changed, or all recurring
+	 * events were replaced.
+	 *
+	 * @param recurring the recurring events now held
+	 */
+	default void recurringEventsChanged(List<RecurringEvent> recurring) {
+		dataChanged();
+	}
+
+	/**
+	 * Called after the theme has changed.
+	 *
+	 * @param theme the new theme, or {@code null}
+	 */
+	default void themeChanged(Theme theme) {
+		dataChanged();
+	}
+
+	/**
+	 * Called after every event has been replaced at once, as when saved data is loaded.
+	 */
+	default void eventsReplaced() {
+		dataChanged();
+	}
+
+	/**
+	 * Called by every other notification unless it is overridden.
+	 */
+	default void dataChanged() {
+	}
+}
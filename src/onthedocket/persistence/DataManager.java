@@ -1,10 +1,29 @@
 package onthedocket.persistence;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
+import onthedocket.models.CategoryRegistry;
 import onthedocket.models.Event;
 import onthedocket.models.EventCategory;
+import onthedocket.models.RecurrenceRule;
+import onthedocket.models.RecurringEvent;
+import onthedocket.utils.EpochMinutes;
+import onthedocket.utils.Metrics;
 import onthedocket.utils.Theme;
 
 /**
@@ -12,13 +31,51 @@ import onthedocket.utils.Theme;
  * and the application theme. Provides static methods to add, remove, and query {@link Event} and {@link EventCategory} instances,
  * as well as to get or set the current {@link Theme}. This class is non-instantiable
  * and all data is held in static collections.
+ * <p>
+ * Events are held in an immutable {@link EventIndex}, so date queries only visit the events
+ * that actually cover the requested day rather than scanning the whole repository. Alongside
+ * it, immutable {@link DayAggregates} keep per-day counts and booked minutes, and immutable
+ * {@link CategoryRollups} the minutes per category of every week, month, and year, up to date
+ * with every change, for summaries that would otherwise visit every event.
+ * </p>
+ * <p>
+ * The repository is safe to use from any thread. Writers are serialized on this class and
+ * publish new immutable versions of the events and categories; readers never lock, and
+ * {@link #snapshot()} captures a consistent view in constant time. When a {@link Journal} is
+ * attached, every mutation is also appended to it while the lock is held. Registered
+ * {@link DataListener}s are told about each change once the lock has been released.
+ * </p>
+ * <p>
+ * Recurring events are held as {@link RecurringEvent} series rather than as individual events.
+ * The date queries expand them on the fly into occurrences for the requested range only, and
+ * merge those with the stored events.
+ * </p>
  * 
  * @author Sitatunga147 (with moderate AI assistance)
  */
 public final class DataManager {
-	private static ArrayList<Event> events = new ArrayList<Event>();
-	private static ArrayList<EventCategory> categories = new ArrayList<EventCategory>();
-	private static Theme theme;
+	private static volatile EventIndex events = EventIndex.EMPTY;
+	private static volatile DayAggregates aggregates = DayAggregates.EMPTY;
+	private static volatile CategoryRollups rollups = CategoryRollups.EMPTY;
+	private static volatile List<EventCategory> categories = Collections.emptyList();
+	private static volatile List<RecurringEvent> recurring = Collections.emptyList();
+	private static volatile Theme theme;
+	private static Journal journal;
+	private static final CopyOnWriteArrayList<DataListener> listeners = new CopyOnWriteArrayList<DataListener>();
+	private static final Metrics.Timer ADD_TIMER = Metrics.timer("data", "addEvents");
+	private static final Metrics.Timer REMOVE_TIMER = Metrics.timer("data", "removeEvents");
+	private static final Metrics.Timer REMOVE_IF_TIMER = Metrics.timer("data", "removeIf");
+	private static final Metrics.Timer UPDATE_TIMER = Metrics.timer("data", "updateEvent");
+	private static final Metrics.Timer SET_EVENTS_TIMER = Metrics.timer("data", "setEvents");
+	private static final Metrics.Timer RECURRING_TIMER = Metrics.timer("data", "changeRecurringEvents");
+	private static final Metrics.Timer CATEGORY_TIMER = Metrics.timer("data", "changeCategories");
+	private static final Metrics.Timer BETWEEN_TIMER = Metrics.timer("data", "getEventsBetween");
+	private static final Metrics.Timer BY_DAY_TIMER = Metrics.timer("data", "getEventsByDay");
+	private static final Metrics.Timer DAY_TOTALS_TIMER = Metrics.timer("data", "getDayTotals");
+	private static final Metrics.Timer ROLLUP_TIMER = Metrics.timer("data", "getCategoryTotals");
+	private static final Metrics.Counter QUERIED = Metrics.counter("data.eventsQueried");
+	private static final Metrics.Counter ADDED = Metrics.counter("data.eventsAdded");
+	private static final Metrics.Counter REMOVED = Metrics.counter("data.eventsRemoved");
 
 	/**
 	 * Private constructor to prevent external instantiation.
@@ -29,13 +86,94 @@ public final class DataManager {
 		throw new AssertionError();
 	}
 	
+	/**
+	 * A consistent, immutable view of the repository at one instant.
+	 */
+	public static final class Snapshot {
+		private final EventIndex events;
+		private final DayAggregates aggregates;
+		private final CategoryRollups rollups;
+		private final List<EventCategory> categories;
+		private final List<RecurringEvent> recurring;
+		private final Theme theme;
+
+		private Snapshot(EventIndex events, DayAggregates aggregates, CategoryRollups rollups, List<EventCategory> categories, List<RecurringEvent> recurring, Theme theme) {
+			this.events = events;
+			this.aggregates = aggregates;
+			this.rollups = rollups;
+			this.categories = categories;
+			this.recurring = recurring;
+			this.theme = theme;
+		}
+
+		public EventIndex getEvents() {
+			return events;
+		}
+
+		public DayAggregates getDayAggregates() {
+			return aggregates;
+		}
+
+		public CategoryRollups getCategoryRollups() {
+			return rollups;
+		}
+
+		public List<EventCategory> getCategories() {
+			return categories;
+		}
+
+		public List<RecurringEvent> getRecurringEvents() {
+			return recurring;
+		}
+
+		public Theme getTheme() {
+			return theme;
+		}
+	}
+
 	/**
 	 * Adds the given event to the repository.
 	 * 
 	 * @param e the {@link Event} to add; must not be null
 	 */
 	public static void addEvent(Event e) {
-		events.add(e);
+		try(Metrics.Span span = ADD_TIMER.start()) {
+			span.setItems(1);
+			synchronized(DataManager.class) {
+				events = events.with(e);
+				aggregates = aggregates.with(e);
+				rollups = rollups.with(e);
+				if(journal != null) journal.recordAddEvent(e);
+			}
+		}
+		ADDED.increment();
+		fire(l -> l.eventsAdded(Collections.singletonList(e)));
+	}
+
+	/**
+	 * Adds all of the given events to the repository in one step. The index is updated once,
+	 * and listeners are told about the whole batch in a single notification, so this is much
+	 * cheaper than calling {@link #addEvent(Event)} for each event of a large import.
+	 *
+	 * @param added the events to add; none may be null
+	 */
+	public static void addEvents(Collection<? extends Event> added) {
+		if(added.isEmpty()) return;
+		List<Event> batch;
+		try(Metrics.Span span = ADD_TIMER.start()) {
+			span.setItems(added.size());
+			batch = Collections.unmodifiableList(new ArrayList<Event>(added));
+			synchronized(DataManager.class) {
+				events = events.withAll(batch);
+				aggregates = aggregates.withAll(batch);
+				rollups = rollups.withAll(batch);
+				if(journal != null) {
+					for(Event e : batch) journal.recordAddEvent(e);
+				}
+			}
+		}
+		ADDED.add(batch.size());
+		fire(l -> l.eventsAdded(batch));
 	}
 	
 	/**
@@ -44,59 +182,604 @@ public final class DataManager {
 	 * @param c the {@link EventCategory} to add; must not be null
 	 */
 	public static void addCategory(EventCategory c) {
-		categories.add(c);
+		List<EventCategory> updated;
+		try(Metrics.Span span = CATEGORY_TIMER.start()) {
+			span.setItems(1);
+			synchronized(DataManager.class) {
+				ArrayList<EventCategory> copy = new ArrayList<EventCategory>(categories);
+				copy.add(c);
+				updated = categories = Collections.unmodifiableList(copy);
+				if(journal != null) journal.recordAddCategory(c);
+			}
+		}
+		fire(l -> l.categoriesChanged(updated));
 	}
 	
 	/**
-     * Removes the given event from the repository.
+	 * Adds the given recurring event to the repository.
+	 *
+	 * @param r the {@link RecurringEvent} to add; must not be null
+	 */
+	public static void addRecurringEvent(RecurringEvent r) {
+		List<RecurringEvent> updated;
+		try(Metrics.Span span = RECURRING_TIMER.start()) {
+			span.setItems(1);
+			synchronized(DataManager.class) {
+				ArrayList<RecurringEvent> copy = new ArrayList<RecurringEvent>(recurring);
+				copy.add(r);
+				updated = recurring = Collections.unmodifiableList(copy);
+				if(journal != null) journal.recordAddRecurring(r);
+			}
+		}
+		fire(l -> l.recurringEventsChanged(updated));
+	}
+
+	/**
+	 * Adds all of the given recurring events to the repository in one step, copying the list of
+	 * recurring events once and notifying listeners once for the whole batch.
+	 *
+	 * @param added the recurring events to add; none may be null
+	 */
+	public static void addRecurringEvents(Collection<? extends RecurringEvent> added) {
+		if(added.isEmpty()) return;
+		List<RecurringEvent> updated;
+		try(Metrics.Span span = RECURRING_TIMER.start()) {
+			span.setItems(added.size());
+			synchronized(DataManager.class) {
+				ArrayList<RecurringEvent> copy = new ArrayList<RecurringEvent>(recurring.size() + added.size());
+				copy.addAll(recurring);
+				copy.addAll(added);
+				updated = recurring = Collections.unmodifiableList(copy);
+				if(journal != null) {
+					for(RecurringEvent r : added) journal.recordAddRecurring(r);
+				}
+			}
+		}
+		fire(l -> l.recurringEventsChanged(updated));
+	}
+
+	/**
+     * Removes the given recurring event, and with it all of its occurrences, from the repository.
+     *
+     * @param r the {@link RecurringEvent} to remove
+     * @return {@code true} if the recurring event was present and removed; {@code false} otherwise
+     */
+	public static boolean removeRecurringEvent(RecurringEvent r) {
+		return replaceRecurringEvent(r, null);
+	}
+
+	/**
+     * Replaces a recurring event with another, or removes it if the replacement is {@code null}.
+     */
+	private static boolean replaceRecurringEvent(RecurringEvent old, RecurringEvent replacement) {
+		List<RecurringEvent> updated;
+		try(Metrics.Span span = RECURRING_TIMER.start()) {
+			span.setItems(1);
+			synchronized(DataManager.class) {
+				ArrayList<RecurringEvent> copy = new ArrayList<RecurringEvent>(recurring);
+				int index = copy.indexOf(old);
+				if(index < 0) return false;
+				if(replacement == null) {
+					copy.remove(index);
+				} else {
+					copy.set(index, replacement);
+				}
+				updated = recurring = Collections.unmodifiableList(copy);
+				if(journal != null) {
+					journal.recordRemoveRecurring(old);
+					if(replacement != null) journal.recordAddRecurring(replacement);
+				}
+			}
+		}
+		fire(l -> l.recurringEventsChanged(updated));
+		return true;
+	}
+
+	/**
+     * Removes the given event from the repository. If the event is an occurrence of a
+     * recurring event, its date is added to the series' exceptions instead.
      *
      * @param e the {@link Event} to remove
      * @return {@code true} if the event was present and removed; {@code false} otherwise
      */
 	public static boolean removeEvent(Event e) {
-		return events.remove(e);
+		if(e instanceof RecurringEvent.Occurrence) {
+			RecurringEvent series = ((RecurringEvent.Occurrence) e).getSeries();
+			if(!replaceRecurringEvent(series, series.withRule(series.getRule().withException(e.getStart().toLocalDate())))) return false;
+			REMOVED.increment();
+			return true;
+		}
+		try(Metrics.Span span = REMOVE_TIMER.start()) {
+			span.setItems(1);
+			synchronized(DataManager.class) {
+				EventIndex updated = events.without(e);
+				if(updated == events) return false;
+				events = updated;
+				aggregates = aggregates.without(e);
+				rollups = rollups.without(e);
+				if(journal != null) journal.recordRemoveEvent(e);
+			}
+		}
+		REMOVED.increment();
+		fire(l -> l.eventsRemoved(Collections.singletonList(e)));
+		return true;
+	}
+
+	/**
+     * Removes all of the given events from the repository in one step. Stored events are taken
+     * out of the index together, and occurrences of recurring events become exceptions of their
+     * series, with each series updated once however many of its occurrences are removed.
+     * Listeners receive one notification for the stored events and one for the series.
+     *
+     * @param toRemove the events to remove
+     * @return the events that were present and removed, in no particular order
+     */
+	public static List<Event> removeEvents(Collection<? extends Event> toRemove) {
+		ArrayList<Event> removedStored = new ArrayList<Event>();
+		ArrayList<Event> removed = new ArrayList<Event>();
+		List<RecurringEvent> updatedSeries = null;
+		try(Metrics.Span span = REMOVE_TIMER.start()) {
+			span.setItems(toRemove.size());
+			ArrayList<Event> stored = new ArrayList<Event>();
+			LinkedHashMap<RecurringEvent, List<Event>> occurrences = new LinkedHashMap<RecurringEvent, List<Event>>();
+			for(Event e : toRemove) {
+				if(e instanceof RecurringEvent.Occurrence) {
+					occurrences.computeIfAbsent(((RecurringEvent.Occurrence) e).getSeries(), r -> new ArrayList<Event>()).add(e);
+				} else {
+					stored.add(e);
+				}
+			}
+			synchronized(DataManager.class) {
+				if(!stored.isEmpty()) {
+					events = without(events, stored, removedStored);
+					aggregates = aggregates.withoutAll(removedStored);
+					rollups = rollups.withoutAll(removedStored);
+					if(journal != null) {
+						for(Event e : removedStored) journal.recordRemoveEvent(e);
+					}
+				}
+				if(!occurrences.isEmpty()) {
+					ArrayList<RecurringEvent> copy = new ArrayList<RecurringEvent>(recurring);
+					for(Map.Entry<RecurringEvent, List<Event>> entry : occurrences.entrySet()) {
+						RecurringEvent series = entry.getKey();
+						int index = copy.indexOf(series);
+						if(index < 0) continue;
+						RecurrenceRule rule = series.getRule();
+						for(Event e : entry.getValue()) rule = rule.withException(e.getStart().toLocalDate());
+						RecurringEvent replacement = series.withRule(rule);
+						copy.set(index, replacement);
+						removed.addAll(entry.getValue());
+						if(journal != null) {
+							journal.recordRemoveRecurring(series);
+							journal.recordAddRecurring(replacement);
+						}
+					}
+					if(!removed.isEmpty()) updatedSeries = recurring = Collections.unmodifiableList(copy);
+				}
+			}
+		}
+		if(!removedStored.isEmpty()) {
+			List<Event> batch = Collections.unmodifiableList(removedStored);
+			fire(l -> l.eventsRemoved(batch));
+		}
+		if(updatedSeries != null) {
+			List<RecurringEvent> series = updatedSeries;
+			fire(l -> l.recurringEventsChanged(series));
+		}
+		removed.addAll(removedStored);
+		REMOVED.add(removed.size());
+		return removed;
+	}
+
+	/**
+     * Removes every stored event matching the given filter in a single pass over the index.
+     * Occurrences of recurring events are not visited. The filter runs while the repository
+     * is locked, so it must be quick and must not call back into this class.
+     *
+     * @param filter decides which events to remove
+     * @return the events removed, in start order
+     */
+	public static List<Event> removeIf(Predicate<? super Event> filter) {
+		ArrayList<Event> removed = new ArrayList<Event>();
+		try(Metrics.Span span = REMOVE_IF_TIMER.start()) {
+			synchronized(DataManager.class) {
+				EventIndex updated = events.withoutIf(e -> {
+					if(!filter.test(e)) return false;
+					removed.add(e);
+					return true;
+				});
+				if(updated == events) return removed;
+				events = updated;
+				aggregates = aggregates.withoutAll(removed);
+				rollups = rollups.withoutAll(removed);
+				if(journal != null) {
+					for(Event e : removed) journal.recordRemoveEvent(e);
+				}
+			}
+			span.setItems(removed.size());
+		}
+		List<Event> batch = Collections.unmodifiableList(removed);
+		REMOVED.add(removed.size());
+		fire(l -> l.eventsRemoved(batch));
+		return removed;
+	}
+
+	/**
+     * Returns {@code index} without one occurrence of each of the given events, adding those
+     * actually found to {@code removed}. A few events are removed one at a time; larger batches
+     * are matched against a count of each event in one pass that rebuilds the index.
+     */
+	private static EventIndex without(EventIndex index, List<Event> toRemove, List<Event> removed) {
+		if(toRemove.size() <= index.size() / 16) {
+			for(Event e : toRemove) {
+				EventIndex updated = index.without(e);
+				if(updated != index) {
+					removed.add(e);
+					index = updated;
+				}
+			}
+			return index;
+		}
+		HashMap<Event, Integer> pending = new HashMap<Event, Integer>();
+		for(Event e : toRemove) pending.merge(e, 1, Integer::sum);
+		return index.withoutIf(e -> {
+			Integer count = pending.get(e);
+			if(count == null) return false;
+			if(count == 1) pending.remove(e);
+			else pending.put(e, count - 1);
+			removed.add(e);
+			return true;
+		});
+	}
+
+	/**
+     * Replaces an event with an updated version in a single step, so that no reader ever
+     * sees both or neither of them.
+     *
+     * @param oldEvent the event to replace
+     * @param newEvent the event to put in its place; must not be null
+     * @return {@code true} if {@code oldEvent} was present and replaced; {@code false} otherwise
+     */
+	public static boolean updateEvent(Event oldEvent, Event newEvent) {
+		try(Metrics.Span span = UPDATE_TIMER.start()) {
+			span.setItems(1);
+			synchronized(DataManager.class) {
+				EventIndex updated = events.without(oldEvent);
+				if(updated == events) return false;
+				events = updated.with(newEvent);
+				aggregates = aggregates.without(oldEvent).with(newEvent);
+				rollups = rollups.without(oldEvent).with(newEvent);
+				if(journal != null) {
+					journal.recordRemoveEvent(oldEvent);
+					journal.recordAddEvent(newEvent);
+				}
+			}
+		}
+		fire(l -> l.eventUpdated(oldEvent, newEvent));
+		return true;
 	}
 	
 	/**
-     * Removes the given category from the repository.
+     * Removes the given category from the repository and {@link CategoryRegistry#unregister(EventCategory)
+     * unregisters} it, so that deleted categories do not accumulate in the registry.
      *
      * @param c the {@link EventCategory} to remove
      * @return {@code true} if the category was present and removed; {@code false} otherwise
      */
 	public static boolean removeCategory(EventCategory c) {
-		return categories.remove(c);
+		List<EventCategory> updated;
+		try(Metrics.Span span = CATEGORY_TIMER.start()) {
+			span.setItems(1);
+			synchronized(DataManager.class) {
+				ArrayList<EventCategory> copy = new ArrayList<EventCategory>(categories);
+				if(!copy.remove(c)) return false;
+				updated = categories = Collections.unmodifiableList(copy);
+				if(journal != null) journal.recordRemoveCategory(c);
+			}
+			CategoryRegistry.unregister(c);
+		}
+		fire(l -> l.categoriesChanged(updated));
+		return true;
 	}
 	
 	/**
-     * Retrieves all events that start on the specified date.
+     * Replaces every event in the repository with the given events. This is intended for
+     * loading saved data and is not recorded in the journal. The new index, day totals, and
+     * category rollups are built before the lock is taken, so readers on other threads are
+     * not held up while they are filled.
+     *
+     * @param newEvents the events to hold from now on; must not be null
+     */
+	public static void setEvents(Collection<Event> newEvents) {
+		try(Metrics.Span span = SET_EVENTS_TIMER.start()) {
+			span.setItems(newEvents.size());
+			EventIndex index = EventIndex.of(newEvents);
+			DayAggregates totals = DayAggregates.of(newEvents);
+			CategoryRollups periods = CategoryRollups.of(newEvents);
+			synchronized(DataManager.class) {
+				events = index;
+				aggregates = totals;
+				rollups = periods;
+			}
+		}
+		fire(DataListener::eventsReplaced);
+	}
+
+	/**
+     * Replaces every category in the repository with the given categories. This is intended
+     * for loading saved data and is not recorded in the journal.
+     *
+     * @param newCategories the categories to hold from now on; must not be null
+     */
+	public static void setCategories(Collection<EventCategory> newCategories) {
+		List<EventCategory> updated = Collections.unmodifiableList(new ArrayList<EventCategory>(newCategories));
+		synchronized(DataManager.class) {
+			categories = updated;
+		}
+		fire(l -> l.categoriesChanged(updated));
+	}
+
+	/**
+     * Replaces every recurring event in the repository with the given ones. This is intended
+     * for loading saved data and is not recorded in the journal.
+     *
+     * @param newRecurring the recurring events to hold from now on; must not be null
+     */
+	public static void setRecurringEvents(Collection<RecurringEvent> newRecurring) {
+		List<RecurringEvent> updated = Collections.unmodifiableList(new ArrayList<RecurringEvent>(newRecurring));
+		synchronized(DataManager.class) {
+			recurring = updated;
+		}
+		fire(l -> l.recurringEventsChanged(updated));
+	}
+
+	/**
+     * Captures the events, categories, and theme as they are at this instant. This takes
+     * constant time, and the snapshot never changes afterwards.
+     *
+     * @return a consistent, immutable {@link Snapshot} of the repository
+     */
+	public static synchronized Snapshot snapshot() {
+		return new Snapshot(events, aggregates, rollups, categories, recurring, theme);
+	}
+
+	/**
+     * Retrieves all events that cover the specified date, including multi-day events
+     * that start before or end after it.
      *
      * @param date the {@link LocalDate} on which to filter events; must not be null
-     * @return an {@link ArrayList} of {@link Event} instances whose start date equals the given date;
-     *         never null but possibly empty
+     * @return an {@link ArrayList} of {@link Event} instances spanning the given date, ordered
+     *         by start time; never null but possibly empty
      */
 	public static ArrayList<Event> getEventsOn(LocalDate date) {
-		ArrayList<Event> eventsOnDate = new ArrayList<Event>();
-		for(Event e : events) {
-			if(e.getStart().toLocalDate().equals(date)) {
-				eventsOnDate.add(e);
+		return getEventsBetween(date.atStartOfDay(), date.atTime(23, 59));
+	}
+
+	/**
+     * Retrieves all events that overlap the given time range, inclusive at both ends.
+     *
+     * @param from the start of the range; must not be null
+     * @param to the end of the range; must not be null
+     * @return an {@link ArrayList} of overlapping {@link Event} instances, ordered by start time;
+     *         never null but possibly empty
+     */
+	public static ArrayList<Event> getEventsBetween(LocalDateTime from, LocalDateTime to) {
+		try(Metrics.Span span = BETWEEN_TIMER.start()) {
+			ArrayList<Event> result = events.query(EpochMinutes.of(from), EpochMinutes.of(to));
+			List<RecurringEvent> series = recurring;
+			if(!series.isEmpty()) {
+				for(RecurringEvent r : series) r.forEachOccurrence(from, to, result::add);
+				result.sort(Comparator.comparing(Event::getStart));
+			}
+			span.setItems(result.size());
+			QUERIED.add(result.size());
+			return result;
+		}
+	}
+
+	/**
+     * Groups the events covering each date from {@code first} to {@code last} (inclusive) by day,
+     * in a single pass over the overlapping events. Multi-day events appear under every date
+     * they span within the range.
+     *
+     * @param first the first date of the range; must not be null
+     * @param last the last date of the range; must not be null
+     * @return a map from each date that has events to those events in start order;
+     *         dates without events are absent
+     */
+	public static TreeMap<LocalDate, ArrayList<Event>> getEventsByDay(LocalDate first, LocalDate last) {
+		try(Metrics.Span span = BY_DAY_TIMER.start()) {
+			TreeMap<LocalDate, ArrayList<Event>> byDay = new TreeMap<LocalDate, ArrayList<Event>>();
+			Consumer<Event> bucket = e -> {
+				LocalDate start = e.getStart().toLocalDate();
+				LocalDate end = e.getEnd().toLocalDate();
+				LocalDate day = start.isBefore(first) ? first : start;
+				LocalDate stop = end.isAfter(last) ? last : end;
+				for(; !day.isAfter(stop); day = day.plusDays(1)) {
+					byDay.computeIfAbsent(day, d -> new ArrayList<Event>()).add(e);
+				}
+			};
+			events.forEachOverlapping(EpochMinutes.startOf(first), EpochMinutes.endOf(last), bucket);
+			List<RecurringEvent> series = recurring;
+			if(!series.isEmpty()) {
+				for(RecurringEvent r : series) r.forEachOccurrence(first.atStartOfDay(), last.atTime(23, 59), bucket);
+				for(ArrayList<Event> day : byDay.values()) day.sort(Comparator.comparing(Event::getStart));
+			}
+			span.setItems(byDay.size());
+			return byDay;
+		}
+	}
+
+	/**
+     * Returns the per-day totals of every day from {@code first} to {@code last} (inclusive).
+     * Stored events are read from the maintained {@link DayAggregates} in constant time per day;
+     * only occurrences of recurring events within the range are expanded and totaled.
+     *
+     * @param first the first date of the range; must not be null
+     * @param last the last date of the range; must not be null
+     * @return the totals of each date, indexed by days since {@code first}; days without
+     *         events hold {@link DayAggregates.Totals#EMPTY}
+     */
+	public static DayAggregates.Totals[] getDayTotals(LocalDate first, LocalDate last) {
+		try(Metrics.Span span = DAY_TOTALS_TIMER.start()) {
+			DayAggregates stored = aggregates;
+			List<RecurringEvent> series = recurring;
+			DayAggregates occurrences = DayAggregates.EMPTY;
+			if(!series.isEmpty()) {
+				ArrayList<Event> expanded = new ArrayList<Event>();
+				for(RecurringEvent r : series) r.forEachOccurrence(first.atStartOfDay(), last.atTime(23, 59), expanded::add);
+				occurrences = DayAggregates.of(expanded);
+			}
+			int days = (int) ChronoUnit.DAYS.between(first, last) + 1;
+			DayAggregates.Totals[] totals = new DayAggregates.Totals[Math.max(0, days)];
+			LocalDate date = first;
+			for(int i = 0; i < totals.length; i++, date = date.plusDays(1)) {
+				totals[i] = stored.get(date).plus(occurrences.get(date));
 			}
+			span.setItems(totals.length);
+			return totals;
 		}
-		return eventsOnDate;
 	}
 
+	/**
+     * Returns the time booked per category in every period from the one containing
+     * {@code first} to the one containing {@code last}. Stored events are read from the
+     * maintained {@link CategoryRollups} with one lookup per period; only occurrences of
+     * recurring events within those periods are expanded and totaled.
+     * <p>
+     * Recurring events are not rolled up, so their share costs time in proportion to the
+     * number of occurrences in the whole range: a daily series adds about 3,650 occurrences
+     * to a ten-year report. That is acceptable for a report opened on demand, but callers
+     * that query long ranges repeatedly should not assume a cost per period only.
+     * </p>
+     *
+     * @param period the length of the periods to report
+     * @param first a date within the first period; must not be null
+     * @param last a date within the last period; must not be null
+     * @return the totals of each period in order, including periods without events
+     */
+	public static List<CategoryRollups.Totals> getCategoryTotals(CategoryRollups.Period period, LocalDate first, LocalDate last) {
+		try(Metrics.Span span = ROLLUP_TIMER.start()) {
+			List<CategoryRollups.Totals> totals = rollups.query(period, first, last);
+			List<RecurringEvent> series = recurring;
+			if(!series.isEmpty() && !totals.isEmpty()) {
+				LocalDate from = totals.get(0).getStart();
+				LocalDate to = totals.get(totals.size() - 1).getEnd();
+				ArrayList<Event> expanded = new ArrayList<Event>();
+				for(RecurringEvent r : series) r.forEachOccurrence(from.atStartOfDay(), to.atTime(23, 59), expanded::add);
+				List<CategoryRollups.Totals> occurrences = CategoryRollups.of(expanded).query(period, first, last);
+				for(int i = 0; i < totals.size(); i++) {
+					totals.set(i, totals.get(i).plus(occurrences.get(i)));
+				}
+			}
+			span.setItems(totals.size());
+			return totals;
+		}
+	}
+
+	/**
+     * Determines whether any event, including occurrences of recurring events, covers a day of
+     * the given month. Stored events are checked in constant time.
+     *
+     * @param month the month to check; must not be null
+     * @return {@code true} if at least one event falls in {@code month}
+     */
+	public static boolean hasEvents(YearMonth month) {
+		if(aggregates.hasEvents(month)) return true;
+		boolean[] found = new boolean[1];
+		for(RecurringEvent r : recurring) {
+			r.forEachOccurrence(month.atDay(1).atStartOfDay(), month.atEndOfMonth().atTime(23, 59), o -> found[0] = true);
+			if(found[0]) return true;
+		}
+		return false;
+	}
+
+	/**
+     * Returns every stored event in the repository, ordered by start time. Occurrences of
+     * recurring events are not included; see {@link #getRecurringEvents()}. The returned list
+     * is a copy; use {@link #addEvent(Event)} and {@link #removeEvent(Event)} to make changes.
+     * For repeated reads, prefer {@link #snapshot()}, which does not copy.
+     *
+     * @return a new {@link ArrayList} of all events
+     */
 	public static ArrayList<Event> getEvents() {
-		return events;
+		return events.toList();
 	}
 
-	public static ArrayList<EventCategory> getCategories() {
+	/**
+     * Returns the categories held in the repository.
+     *
+     * @return an unmodifiable list of categories, which does not change afterwards
+     */
+	public static List<EventCategory> getCategories() {
 		return categories;
 	}
+
+	/**
+     * Returns the recurring events held in the repository.
+     *
+     * @return an unmodifiable list of recurring events, which does not change afterwards
+     */
+	public static List<RecurringEvent> getRecurringEvents() {
+		return recurring;
+	}
 	
 	public static Theme getTheme() {
 		return theme;
 	}
 	
 	public static void setTheme(Theme theme) {
-		DataManager.theme = theme;
+		synchronized(DataManager.class) {
+			DataManager.theme = theme;
+			if(journal != null) journal.recordSetTheme(theme);
+		}
+		fire(l -> l.themeChanged(theme));
+	}
+
+	/**
+	 * Attaches the journal that records subsequent mutations, or detaches it if {@code null}.
+	 *
+	 * @param journal the journal to append to, or {@code null}
+	 */
+	static synchronized void setJournal(Journal journal) {
+		DataManager.journal = journal;
+	}
+
+	/**
+	 * Registers a listener to be notified of every change to the repository.
+	 *
+	 * @param listener the listener to add
+	 */
+	public static void addListener(DataListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Registers a listener and captures the snapshot its notifications follow on from, in one
+	 * step. Every change made after the snapshot reaches the listener. A change made just before
+	 * it may reach the listener too, since listeners are notified after the lock is released, so
+	 * the listener must tolerate hearing about a change the snapshot already holds.
+	 *
+	 * @param listener the listener to add
+	 * @return the repository as it was when the listener was added
+	 */
+	public static synchronized Snapshot addListenerWithSnapshot(DataListener listener) {
+		listeners.add(listener);
+		return snapshot();
+	}
+
+	/**
+	 * Unregisters a listener added with {@link #addListener(DataListener)}.
+	 *
+	 * @param listener the listener to remove
+	 */
+	public static void removeListener(DataListener listener) {
+		listeners.remove(listener);
+	}
+
+	private static void fire(Consumer<DataListener> notification) {
+		for(DataListener listener : listeners) {
+			notification.accept(listener);
+		}
 	}
 }
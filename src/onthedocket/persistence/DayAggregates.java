@@ -0,0 +1,295 @@
+package onthedocket.persistence;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.utils.EpochMinutes;
+
+/**
+ * Immutable per-day totals over a set of events: for every date, how many events cover it, how
+ * many minutes of events fall on it, and how those minutes divide among {@link EventCategory}s.
+ * An event spanning several days counts on each day it covers, as the month grid shows it, and
+ * contributes to each day only the minutes falling within that day.
+ * <p>
+ * Like {@link EventIndex}, an instance is never modified: {@link #withAll(Collection)} and
+ * {@link #withoutAll(Collection)} return a new version that shares every untouched month with
+ * the old one. Months are grouped by year, so a change copies the small map of years, the
+ * twelve month slots of each year it touches, and the months the changed events cover, never
+ * the months of other years. {@link DataManager} keeps a
+ * version in step with its events, so views summarizing a year read 365 sets of counters rather
+ * than visiting every event, and whether a month holds any events is a single lookup.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class DayAggregates {
+	/**
+	 * Totals over no events.
+	 */
+	public static final DayAggregates EMPTY = new DayAggregates(Collections.<Integer, MonthTotals[]>emptyMap());
+	private static final int MINUTES_PER_DAY = (int) EpochMinutes.MINUTES_PER_DAY;
+
+	private final Map<Integer, MonthTotals[]> years;
+
+	private DayAggregates(Map<Integer, MonthTotals[]> years) {
+		this.years = years;
+	}
+
+	/**
+	 * The totals of a single day.
+	 */
+	public static final class Totals {
+		/**
+		 * The totals of a day without events.
+		 */
+		public static final Totals EMPTY = new Totals(0, 0, Collections.<EventCategory, Long>emptyMap());
+
+		private final int count;
+		private final long minutes;
+		private final Map<EventCategory, Long> categoryMinutes;
+
+		private Totals(int count, long minutes, Map<EventCategory, Long> categoryMinutes) {
+			this.count = count;
+			this.minutes = minutes;
+			this.categoryMinutes = categoryMinutes;
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+		public long getMinutes() {
+			return minutes;
+		}
+
+		/**
+		 * Returns the minutes of the day booked by events of each category.
+		 *
+		 * @return an unmodifiable map from category to minutes, holding only categories with
+		 *         a positive number of minutes
+		 */
+		public Map<EventCategory, Long> getCategoryMinutes() {
+			return categoryMinutes;
+		}
+
+		/**
+		 * Adds the totals of another set of events on the same day.
+		 *
+		 * @param other the totals to add
+		 * @return the combined totals
+		 */
+		public Totals plus(Totals other) {
+			if(other.count == 0) return this;
+			if(count == 0) return other;
+			HashMap<EventCategory, Long> combined = new HashMap<EventCategory, Long>(categoryMinutes);
+			for(Map.Entry<EventCategory, Long> entry : other.categoryMinutes.entrySet()) {
+				combined.merge(entry.getKey(), entry.getValue(), Long::sum);
+			}
+			return new Totals(count + other.count, minutes + other.minutes, Collections.unmodifiableMap(combined));
+		}
+	}
+
+	/**
+	 * Computes the totals of the given events.
+	 *
+	 * @param events the events to total
+	 * @return the totals of {@code events}
+	 */
+	public static DayAggregates of(Collection<? extends Event> events) {
+		return EMPTY.withAll(events);
+	}
+
+	/**
+	 * Returns totals that also count the given event.
+	 *
+	 * @param e the event to add; must not be null
+	 * @return the new totals
+	 */
+	public DayAggregates with(Event e) {
+		return apply(Collections.singletonList(e), 1);
+	}
+
+	/**
+	 * Returns totals that also count all of the given events. Each month the batch touches is
+	 * copied once however many of its events fall in it.
+	 *
+	 * @param added the events to add; none may be null
+	 * @return the new totals, or these totals if {@code added} is empty
+	 */
+	public DayAggregates withAll(Collection<? extends Event> added) {
+		return apply(added, 1);
+	}
+
+	/**
+	 * Returns totals that no longer count the given event, which must have been counted.
+	 *
+	 * @param e the event to remove
+	 * @return the new totals
+	 */
+	public DayAggregates without(Event e) {
+		return apply(Collections.singletonList(e), -1);
+	}
+
+	/**
+	 * Returns totals that no longer count the given events, all of which must have been counted.
+	 *
+	 * @param removed the events to remove
+	 * @return the new totals, or these totals if {@code removed} is empty
+	 */
+	public DayAggregates withoutAll(Collection<? extends Event> removed) {
+		return apply(removed, -1);
+	}
+
+	/**
+	 * Returns the totals of a single day.
+	 *
+	 * @param date the day
+	 * @return the day's totals; {@link Totals#EMPTY} if no event covers it
+	 */
+	public Totals get(LocalDate date) {
+		MonthTotals month = month(date.getYear(), date.getMonthValue());
+		return month == null ? Totals.EMPTY : month.get(date.getDayOfMonth() - 1);
+	}
+
+	/**
+	 * Returns the number of events covering a day.
+	 *
+	 * @param date the day
+	 * @return the number of events covering {@code date}
+	 */
+	public int getCount(LocalDate date) {
+		MonthTotals month = month(date.getYear(), date.getMonthValue());
+		return month == null ? 0 : month.counts[date.getDayOfMonth() - 1];
+	}
+
+	/**
+	 * Returns the number of minutes of events falling on a day, summed over the events, so
+	 * overlapping events may book more minutes than the day has.
+	 *
+	 * @param date the day
+	 * @return the booked minutes of {@code date}
+	 */
+	public long getMinutes(LocalDate date) {
+		MonthTotals month = month(date.getYear(), date.getMonthValue());
+		return month == null ? 0 : month.minutes[date.getDayOfMonth() - 1];
+	}
+
+	/**
+	 * Determines whether any event covers a day of the given month, in constant time.
+	 *
+	 * @param month the month to check
+	 * @return {@code true} if at least one event covers a day of {@code month}
+	 */
+	public boolean hasEvents(YearMonth month) {
+		return month(month.getYear(), month.getMonthValue()) != null;
+	}
+
+	private MonthTotals month(int year, int month) {
+		MonthTotals[] months = years.get(year);
+		return months == null ? null : months[month - 1];
+	}
+
+	/**
+	 * Adds ({@code sign} 1) or removes ({@code sign} -1) the given events, copying each touched
+	 * year's month slots and each touched month once, and dropping months and years left
+	 * without events.
+	 */
+	private DayAggregates apply(Collection<? extends Event> changed, int sign) {
+		if(changed.isEmpty()) return this;
+		HashMap<Integer, MonthTotals[]> updated = new HashMap<Integer, MonthTotals[]>(years);
+		HashSet<Integer> copiedYears = new HashSet<Integer>();
+		HashSet<Integer> copiedMonths = new HashSet<Integer>();
+		for(Event e : changed) {
+			long start = EpochMinutes.of(e.getStart());
+			long end = EpochMinutes.of(e.getEnd());
+			long firstDay = Math.floorDiv(start, MINUTES_PER_DAY);
+			long lastDay = Math.floorDiv(end, MINUTES_PER_DAY);
+			LocalDate date = LocalDate.ofEpochDay(firstDay);
+			for(long day = firstDay; day <= lastDay; day++, date = date.plusDays(1)) {
+				long dayStart = day * MINUTES_PER_DAY;
+				long minutes = Math.min(end, dayStart + MINUTES_PER_DAY) - Math.max(start, dayStart);
+				Integer year = date.getYear();
+				MonthTotals[] months = updated.get(year);
+				if(copiedYears.add(year)) {
+					months = months == null ? new MonthTotals[12] : months.clone();
+					updated.put(year, months);
+				}
+				int month = date.getMonthValue() - 1;
+				if(copiedMonths.add(monthKey(date.getYear(), date.getMonthValue()))) {
+					months[month] = months[month] == null ? new MonthTotals() : months[month].copy();
+				}
+				months[month].add(date.getDayOfMonth() - 1, sign, sign * minutes, e.getCategory());
+			}
+		}
+		for(Integer year : copiedYears) {
+			MonthTotals[] months = updated.get(year);
+			boolean empty = true;
+			for(int month = 0; month < months.length; month++) {
+				if(months[month] != null && months[month].events == 0) months[month] = null;
+				if(months[month] != null) empty = false;
+			}
+			if(empty) updated.remove(year);
+		}
+		return new DayAggregates(updated);
+	}
+
+	private static int monthKey(int year, int month) {
+		return year * 12 + month - 1;
+	}
+
+	/**
+	 * The counters of one month. A month is only modified while a new version is being
+	 * built, before it is published.
+	 */
+	private static final class MonthTotals {
+		private final int[] counts;
+		private final long[] minutes;
+		private final HashMap<EventCategory, long[]> categoryMinutes;
+		private int events;
+
+		MonthTotals() {
+			this(new int[31], new long[31], new HashMap<EventCategory, long[]>(), 0);
+		}
+
+		private MonthTotals(int[] counts, long[] minutes, HashMap<EventCategory, long[]> categoryMinutes, int events) {
+			this.counts = counts;
+			this.minutes = minutes;
+			this.categoryMinutes = categoryMinutes;
+			this.events = events;
+		}
+
+		MonthTotals copy() {
+			HashMap<EventCategory, long[]> categories = new HashMap<EventCategory, long[]>();
+			for(Map.Entry<EventCategory, long[]> entry : categoryMinutes.entrySet()) {
+				categories.put(entry.getKey(), entry.getValue().clone());
+			}
+			return new MonthTotals(counts.clone(), minutes.clone(), categories, events);
+		}
+
+		void add(int day, int count, long dayMinutes, EventCategory category) {
+			counts[day] += count;
+			minutes[day] += dayMinutes;
+			events += count;
+			if(dayMinutes != 0) {
+				categoryMinutes.computeIfAbsent(category, c -> new long[31])[day] += dayMinutes;
+			}
+		}
+
+		Totals get(int day) {
+			if(counts[day] == 0) return Totals.EMPTY;
+			HashMap<EventCategory, Long> categories = new HashMap<EventCategory, Long>();
+			for(Map.Entry<EventCategory, long[]> entry : categoryMinutes.entrySet()) {
+				long booked = entry.getValue()[day];
+				if(booked > 0) categories.put(entry.getKey(), booked);
+			}
+			return new Totals(counts[day], minutes[day], Collections.unmodifiableMap(categories));
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package onthedocket.persistence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Helpers for making file system changes survive a crash.
+ * <p>
+ * Forcing a file's channel only persists its contents. Creating, renaming, or deleting a file
+ * changes its directory, which POSIX file systems persist only when the directory itself is
+ * synced. This class is non-instantiable.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+final class Durability {
+	private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+
+	/**
+	 * Private constructor to prevent external instantiation.
+	 *
+	 * @throws AssertionError always thrown to enforce non-instantiability
+	 */
+	private Durability() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Forces the directory holding the given file to the storage device, so that a file
+	 * created, moved, or deleted there is still so after a crash. Windows cannot open a
+	 * directory as a channel, and NTFS journals such changes itself, so nothing is done there.
+	 *
+	 * @param file a file whose directory entry has changed
+	 * @throws IOException if the directory cannot be opened or synced
+	 */
+	static void forceDirectoryOf(Path file) throws IOException {
+		if(WINDOWS) return;
+		Path directory = file.toAbsolutePath().getParent();
+		if(directory == null) return;
+		try(FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		}
+	}
+}
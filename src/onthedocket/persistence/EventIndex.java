@@ -0,0 +1,311 @@
+package onthedocket.persistence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import onthedocket.models.Event;
+import onthedocket.utils.EpochMinutes;
+
+/**
+ * An immutable interval tree over {@link Event} instances, keyed by each event's start and end
+ * in epoch minutes. The tree is a self-balancing AVL tree ordered by start time, where
+ * every node also records the latest end time found in its subtree. This lets overlap
+ * queries skip whole subtrees that end before the queried interval, so a query costs
+ * O(log n + k) for k matching events.
+ * <p>
+ * An index is never modified: {@link #with(Event)} and {@link #without(Event)} return a new
+ * index that shares all untouched nodes with the old one, copying only the O(log n) nodes on
+ * the changed path. Holding on to an index therefore gives a free, consistent snapshot that
+ * can be read from any thread while newer versions are being made.
+ * </p>
+ * <p>
+ * Intervals are inclusive at both ends, matching {@link Event#overlaps(Event)}. Events are
+ * always reported in order of their start time. An event's times are read once when it is
+ * added, so an event must not be modified while it is held in the index.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class EventIndex {
+	/**
+	 * An index holding no events.
+	 */
+	public static final EventIndex EMPTY = new EventIndex(null);
+	private static final AtomicLong nextSequence = new AtomicLong();
+
+	private final Node root;
+
+	private EventIndex(Node root) {
+		this.root = root;
+	}
+
+	/**
+	 * Builds a balanced index holding the given events in O(n log n) time.
+	 *
+	 * @param events the events to index; equal events may appear more than once
+	 * @return a new index holding exactly the given events
+	 */
+	public static EventIndex of(Collection<Event> events) {
+		Node[] leaves = new Node[events.size()];
+		int i = 0;
+		for(Event e : events) {
+			leaves[i++] = new Node(e, EpochMinutes.of(e.getStart()), EpochMinutes.of(e.getEnd()), 0, null, null);
+		}
+		Arrays.sort(leaves, Comparator.comparingLong((Node n) -> n.start));
+		long firstSequence = nextSequence.getAndAdd(leaves.length);
+		for(i = 0; i < leaves.length; i++) {
+			Node n = leaves[i];
+			leaves[i] = new Node(n.event, n.start, n.end, firstSequence + i, null, null);
+		}
+		return new EventIndex(build(leaves, 0, leaves.length - 1));
+	}
+
+	/**
+	 * Returns an index that also holds the given event. Equal events may be added more than once.
+	 *
+	 * @param e the {@link Event} to add; must not be null
+	 * @return the new index
+	 */
+	public EventIndex with(Event e) {
+		Node node = new Node(e, EpochMinutes.of(e.getStart()), EpochMinutes.of(e.getEnd()), nextSequence.getAndIncrement(), null, null);
+		return new EventIndex(insert(root, node));
+	}
+
+	/**
+	 * Returns an index that also holds all of the given events. A batch that is large compared
+	 * with the index is merged by rebuilding it in one pass rather than inserted event by event.
+	 *
+	 * @param added the events to add; none may be null
+	 * @return the new index, or this index if {@code added} is empty
+	 */
+	public EventIndex withAll(Collection<Event> added) {
+		if(added.isEmpty()) return this;
+		if(added.size() > size() / 4) {
+			ArrayList<Event> merged = toList();
+			merged.addAll(added);
+			return of(merged);
+		}
+		Node updated = root;
+		for(Event e : added) {
+			updated = insert(updated, new Node(e, EpochMinutes.of(e.getStart()), EpochMinutes.of(e.getEnd()), nextSequence.getAndIncrement(), null, null));
+		}
+		return new EventIndex(updated);
+	}
+
+	/**
+	 * Returns an index without one occurrence of the given event.
+	 *
+	 * @param e the {@link Event} to remove
+	 * @return the new index, or this index if the event was not present
+	 */
+	public EventIndex without(Event e) {
+		Node match = find(root, EpochMinutes.of(e.getStart()), e);
+		if(match == null) return this;
+		return new EventIndex(delete(root, match.start, match.sequence));
+	}
+
+	/**
+	 * Returns an index without the events matching the given filter, built in a single pass
+	 * over the events in start order. The filter is called once for every event.
+	 *
+	 * @param filter decides which events to leave out
+	 * @return the new index, or this index if no event matched
+	 */
+	public EventIndex withoutIf(Predicate<? super Event> filter) {
+		ArrayList<Event> kept = new ArrayList<Event>(size());
+		forEachOverlapping(Long.MIN_VALUE, Long.MAX_VALUE, e -> {
+			if(!filter.test(e)) kept.add(e);
+		});
+		return kept.size() == size() ? this : of(kept);
+	}
+
+	/**
+	 * Determines whether the index holds an event equal to the given one.
+	 *
+	 * @param e the event to look for
+	 * @return {@code true} if an equal event is present; {@code false} otherwise
+	 */
+	public boolean contains(Event e) {
+		return find(root, EpochMinutes.of(e.getStart()), e) != null;
+	}
+
+	/**
+	 * Returns the number of events held in the index.
+	 *
+	 * @return the event count
+	 */
+	public int size() {
+		return size(root);
+	}
+
+	/**
+	 * Retrieves all events whose interval intersects {@code [from, to]}, both inclusive.
+	 *
+	 * @param from the first epoch minute of the queried interval
+	 * @param to the last epoch minute of the queried interval
+	 * @return the overlapping events in start order; never null but possibly empty
+	 */
+	public ArrayList<Event> query(long from, long to) {
+		ArrayList<Event> result = new ArrayList<Event>();
+		forEachOverlapping(from, to, result::add);
+		return result;
+	}
+
+	/**
+	 * Passes every event whose interval intersects {@code [from, to]} to the given action,
+	 * in start order, without building an intermediate list.
+	 *
+	 * @param from the first epoch minute of the queried interval
+	 * @param to the last epoch minute of the queried interval
+	 * @param action the action to perform on each overlapping event
+	 */
+	public void forEachOverlapping(long from, long to, Consumer<Event> action) {
+		collect(root, from, to, action);
+	}
+
+	/**
+	 * Returns every event in the index, ordered by start time.
+	 *
+	 * @return a new list holding all indexed events
+	 */
+	public ArrayList<Event> toList() {
+		ArrayList<Event> result = new ArrayList<Event>(size());
+		forEachOverlapping(Long.MIN_VALUE, Long.MAX_VALUE, result::add);
+		return result;
+	}
+
+	/**
+	 * In-order walk that prunes subtrees ending before {@code from} and stops
+	 * once nodes start after {@code to}.
+	 */
+	private static void collect(Node n, long from, long to, Consumer<Event> action) {
+		if(n == null || n.maxEnd < from) return;
+		collect(n.left, from, to, action);
+		if(n.start > to) return;
+		if(n.end >= from) action.accept(n.event);
+		collect(n.right, from, to, action);
+	}
+
+	/**
+	 * Finds a node holding an event equal to {@code e}. Nodes sharing a start time may
+	 * sit on either side of one another after rotations, so both subtrees are searched
+	 * once the start time matches.
+	 */
+	private static Node find(Node n, long start, Event e) {
+		if(n == null) return null;
+		if(start < n.start) return find(n.left, start, e);
+		if(start > n.start) return find(n.right, start, e);
+		if(n.event.equals(e)) return n;
+		Node match = find(n.left, start, e);
+		return match != null ? match : find(n.right, start, e);
+	}
+
+	private static Node build(Node[] sorted, int lo, int hi) {
+		if(lo > hi) return null;
+		int mid = (lo + hi) >>> 1;
+		return copy(sorted[mid], build(sorted, lo, mid - 1), build(sorted, mid + 1, hi));
+	}
+
+	private static int compare(long start, long sequence, Node n) {
+		int c = Long.compare(start, n.start);
+		return c != 0 ? c : Long.compare(sequence, n.sequence);
+	}
+
+	private static Node insert(Node n, Node node) {
+		if(n == null) return node;
+		if(compare(node.start, node.sequence, n) < 0) {
+			return balance(n, insert(n.left, node), n.right);
+		}
+		return balance(n, n.left, insert(n.right, node));
+	}
+
+	private static Node delete(Node n, long start, long sequence) {
+		int c = compare(start, sequence, n);
+		if(c < 0) return balance(n, delete(n.left, start, sequence), n.right);
+		if(c > 0) return balance(n, n.left, delete(n.right, start, sequence));
+		if(n.left == null) return n.right;
+		if(n.right == null) return n.left;
+		Node successor = n.right;
+		while(successor.left != null) successor = successor.left;
+		return balance(successor, n.left, deleteMin(n.right));
+	}
+
+	private static Node deleteMin(Node n) {
+		if(n.left == null) return n.right;
+		return balance(n, deleteMin(n.left), n.right);
+	}
+
+	private static int height(Node n) {
+		return n == null ? 0 : n.height;
+	}
+
+	private static int size(Node n) {
+		return n == null ? 0 : n.size;
+	}
+
+	/**
+	 * Returns a copy of {@code n} with the given children.
+	 */
+	private static Node copy(Node n, Node left, Node right) {
+		return new Node(n.event, n.start, n.end, n.sequence, left, right);
+	}
+
+	/**
+	 * Returns a copy of {@code n} with the given children, rotated as needed to restore
+	 * the AVL balance. Both children must already be balanced.
+	 */
+	private static Node balance(Node n, Node left, Node right) {
+		int balance = height(left) - height(right);
+		if(balance > 1) {
+			if(height(left.left) >= height(left.right)) {
+				return copy(left, left.left, copy(n, left.right, right));
+			}
+			Node pivot = left.right;
+			return copy(pivot, copy(left, left.left, pivot.left), copy(n, pivot.right, right));
+		}
+		if(balance < -1) {
+			if(height(right.right) >= height(right.left)) {
+				return copy(right, copy(n, left, right.left), right.right);
+			}
+			Node pivot = right.left;
+			return copy(pivot, copy(n, left, pivot.left), copy(right, pivot.right, right.right));
+		}
+		return copy(n, left, right);
+	}
+
+	/**
+	 * An immutable tree node holding one event, the cached bounds of its interval, and
+	 * summary values for its subtree. The sequence number breaks ties between events
+	 * with the same start.
+	 */
+	private static final class Node {
+		final Event event;
+		final long start;
+		final long end;
+		final long sequence;
+		final Node left, right;
+		final long maxEnd;
+		final int height;
+		final int size;
+
+		Node(Event event, long start, long end, long sequence, Node left, Node right) {
+			this.event = event;
+			this.start = start;
+			this.end = end;
+			this.sequence = sequence;
+			this.left = left;
+			this.right = right;
+			long max = end;
+			if(left != null) max = Math.max(max, left.maxEnd);
+			if(right != null) max = Math.max(max, right.maxEnd);
+			this.maxEnd = max;
+			this.height = Math.max(height(left), height(right)) + 1;
+			this.size = size(left) + size(right) + 1;
+		}
+	}
+}
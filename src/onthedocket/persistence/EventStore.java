@@ -0,0 +1,293 @@
+package onthedocket.persistence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.function.IntConsumer;
+
+import onthedocket.models.CategoryRegistry;
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.utils.EpochMinutes;
+
+/**
+ * A compact, array-backed store for very large numbers of events, such as archived years.
+ * <p>
+ * Rather than holding one {@link Event} object per entry, each with its own name and two
+ * {@link java.time.LocalDateTime} objects, the store keeps every field in a parallel primitive
+ * array: start and end as epoch minutes in {@code long[]}s, and the category and the name as
+ * ids into the store's own category and name tables. Repeated names, which are common for
+ * recurring meetings and classes, are stored only once. The store's category ids are its own
+ * rather than {@link CategoryRegistry} ids, so it keeps working for categories that have
+ * since been deleted and unregistered. An entry
+ * costs about 24 bytes plus its share of the name table, a fraction of a materialized event,
+ * and range scans run over contiguous memory.
+ * </p>
+ * <p>
+ * Entries are addressed by position, from {@code 0} to {@code size() - 1}. Fields can
+ * be read without allocating, and {@link #get(int)} builds an {@link Event} on demand when a full
+ * object is needed. The store is not thread-safe.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class EventStore {
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private long[] starts;
+	private long[] ends;
+	private int[] categoryIds;
+	private int[] nameIds;
+	private int size;
+
+	private final ArrayList<String> names = new ArrayList<String>();
+	private final HashMap<String, Integer> nameTable = new HashMap<String, Integer>();
+	private final ArrayList<EventCategory> categories = new ArrayList<EventCategory>();
+	private final HashMap<EventCategory, Integer> categoryTable = new HashMap<EventCategory, Integer>();
+
+	/**
+	 * Creates an empty store.
+	 */
+	public EventStore() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty store with room for the given number of events before it has to grow.
+	 *
+	 * @param capacity the initial capacity
+	 */
+	public EventStore(int capacity) {
+		capacity = Math.max(capacity, 1);
+		starts = new long[capacity];
+		ends = new long[capacity];
+		categoryIds = new int[capacity];
+		nameIds = new int[capacity];
+	}
+
+	/**
+	 * Creates a store holding the given events.
+	 *
+	 * @param events the events to store
+	 * @return a new store holding the events in iteration order
+	 */
+	public static EventStore of(Collection<Event> events) {
+		EventStore store = new EventStore(events.size());
+		for(Event e : events) store.add(e);
+		return store;
+	}
+
+	/**
+	 * Appends the given event. Only its current field values are kept; later changes to
+	 * the event are not seen by the store.
+	 *
+	 * @param e the {@link Event} to store; must not be null
+	 * @return the position of the new entry
+	 */
+	public int add(Event e) {
+		return add(e.getName(), EpochMinutes.of(e.getStart()), EpochMinutes.of(e.getEnd()), e.getCategory());
+	}
+
+	/**
+	 * Appends an event given by its fields, without materializing an {@link Event}.
+	 *
+	 * @param name the event name; must not be null
+	 * @param start the start, in epoch minutes
+	 * @param end the end, in epoch minutes
+	 * @param category the event category; must not be null
+	 * @return the position of the new entry
+	 */
+	public int add(String name, long start, long end, EventCategory category) {
+		if(size == starts.length) grow();
+		starts[size] = start;
+		ends[size] = end;
+		categoryIds[size] = internCategory(category);
+		nameIds[size] = intern(name);
+		return size++;
+	}
+
+	/**
+	 * Removes the entry at the given position by moving the last entry into its place,
+	 * so removal takes constant time but does not preserve order.
+	 *
+	 * @param index the position of the entry to remove
+	 * @throws IndexOutOfBoundsException if {@code index} is out of range
+	 */
+	public void remove(int index) {
+		checkIndex(index);
+		int last = --size;
+		starts[index] = starts[last];
+		ends[index] = ends[last];
+		categoryIds[index] = categoryIds[last];
+		nameIds[index] = nameIds[last];
+	}
+
+	/**
+	 * Finds the position of an entry equal to the given event.
+	 *
+	 * @param e the event to look for
+	 * @return the position of a matching entry, or {@code -1} if there is none
+	 */
+	public int indexOf(Event e) {
+		Integer nameId = nameTable.get(e.getName());
+		Integer categoryId = categoryTable.get(e.getCategory());
+		if(nameId == null || categoryId == null) return -1;
+		long start = EpochMinutes.of(e.getStart());
+		long end = EpochMinutes.of(e.getEnd());
+		for(int i = 0; i < size; i++) {
+			if(starts[i] == start && ends[i] == end && nameIds[i] == nameId && categoryIds[i] == categoryId) return i;
+		}
+		return -1;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the start of the entry at the given position.
+	 *
+	 * @param index the position of the entry
+	 * @return the start, in epoch minutes
+	 */
+	public long getStart(int index) {
+		checkIndex(index);
+		return starts[index];
+	}
+
+	/**
+	 * Returns the end of the entry at the given position.
+	 *
+	 * @param index the position of the entry
+	 * @return the end, in epoch minutes
+	 */
+	public long getEnd(int index) {
+		checkIndex(index);
+		return ends[index];
+	}
+
+	/**
+	 * Returns the name of the entry at the given position. Equal names share one instance.
+	 *
+	 * @param index the position of the entry
+	 * @return the event name
+	 */
+	public String getName(int index) {
+		checkIndex(index);
+		return names.get(nameIds[index]);
+	}
+
+	/**
+	 * Returns the category of the entry at the given position.
+	 *
+	 * @param index the position of the entry
+	 * @return the event category
+	 */
+	public EventCategory getCategory(int index) {
+		checkIndex(index);
+		return categories.get(categoryIds[index]);
+	}
+
+	/**
+	 * Materializes the entry at the given position as a new {@link Event}. Changes to the
+	 * returned event are not written back to the store.
+	 *
+	 * @param index the position of the entry
+	 * @return a new event with the entry's fields
+	 */
+	public Event get(int index) {
+		checkIndex(index);
+		return new Event(names.get(nameIds[index]), EpochMinutes.toDateTime(starts[index]),
+				EpochMinutes.toDateTime(ends[index]), categories.get(categoryIds[index]));
+	}
+
+	/**
+	 * Passes the position of every entry whose interval intersects {@code [from, to]}, both
+	 * inclusive, to the given action. The scan reads only the two time arrays and allocates nothing.
+	 *
+	 * @param from the first epoch minute of the queried interval
+	 * @param to the last epoch minute of the queried interval
+	 * @param action the action to perform on each matching position
+	 */
+	public void forEachOverlapping(long from, long to, IntConsumer action) {
+		for(int i = 0; i < size; i++) {
+			if(starts[i] <= to && ends[i] >= from) action.accept(i);
+		}
+	}
+
+	/**
+	 * Materializes every entry whose interval intersects {@code [from, to]}, both inclusive.
+	 *
+	 * @param from the first epoch minute of the queried interval
+	 * @param to the last epoch minute of the queried interval
+	 * @return the matching events in storage order; never null but possibly empty
+	 */
+	public ArrayList<Event> query(long from, long to) {
+		ArrayList<Event> result = new ArrayList<Event>();
+		forEachOverlapping(from, to, i -> result.add(get(i)));
+		return result;
+	}
+
+	/**
+	 * Materializes every entry.
+	 *
+	 * @return a new list of all events in storage order
+	 */
+	public ArrayList<Event> toList() {
+		ArrayList<Event> result = new ArrayList<Event>(size);
+		for(int i = 0; i < size; i++) result.add(get(i));
+		return result;
+	}
+
+	/**
+	 * Shrinks the arrays to the number of stored entries, releasing any spare capacity.
+	 */
+	public void trimToSize() {
+		if(size == starts.length) return;
+		int capacity = Math.max(size, 1);
+		starts = Arrays.copyOf(starts, capacity);
+		ends = Arrays.copyOf(ends, capacity);
+		categoryIds = Arrays.copyOf(categoryIds, capacity);
+		nameIds = Arrays.copyOf(nameIds, capacity);
+		names.trimToSize();
+	}
+
+	private void grow() {
+		int capacity = starts.length + (starts.length >> 1) + 1;
+		starts = Arrays.copyOf(starts, capacity);
+		ends = Arrays.copyOf(ends, capacity);
+		categoryIds = Arrays.copyOf(categoryIds, capacity);
+		nameIds = Arrays.copyOf(nameIds, capacity);
+	}
+
+	private void checkIndex(int index) {
+		if(index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+	}
+
+	/**
+	 * Returns the id of the given name in the name table, adding it if it is new.
+	 */
+	private int intern(String name) {
+		Integer id = nameTable.get(name);
+		if(id == null) {
+			id = names.size();
+			names.add(name);
+			nameTable.put(name, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the id of the given category in the category table, adding it if it is new.
+	 */
+	private int internCategory(EventCategory category) {
+		Integer id = categoryTable.get(category);
+		if(id == null) {
+			id = categories.size();
+			categories.add(category);
+			categoryTable.put(category, id);
+		}
+		return id;
+	}
+}
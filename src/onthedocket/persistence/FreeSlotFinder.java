@@ -0,0 +1,174 @@
+package onthedocket.persistence;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+
+/**
+ * Searches {@link DataManager} for free time: gaps between events that are at least a given
+ * length, optionally restricted to certain days of the week and hours of the day, and optionally
+ * treating events of some categories as not blocking.
+ * <p>
+ * The search runs one day at a time from the start of the requested window, asking the event
+ * index only for the events overlapping that day's searchable hours and merging them into busy
+ * intervals as it goes. It stops as soon as enough gaps are found, so its cost depends on how
+ * far it has to look rather than on the size of the calendar. Events block the time from their
+ * start up to their end, so a gap may begin exactly when an event ends. Without an hours
+ * restriction, gaps run on across midnight.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public class FreeSlotFinder {
+	private final Duration minimumLength;
+	private LocalTime dayStart = LocalTime.MIDNIGHT;
+	private LocalTime dayEnd = LocalTime.MIDNIGHT;
+	private Set<DayOfWeek> days = EnumSet.allOf(DayOfWeek.class);
+	private Set<EventCategory> ignoredCategories = Collections.emptySet();
+
+	/**
+	 * A gap in the calendar, from its start (inclusive) to its end (exclusive).
+	 */
+	public static final class Slot {
+		private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("EEE yyyy-MM-dd HH:mm");
+
+		private final LocalDateTime start;
+		private final LocalDateTime end;
+
+		private Slot(LocalDateTime start, LocalDateTime end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		public LocalDateTime getStart() {
+			return start;
+		}
+
+		public LocalDateTime getEnd() {
+			return end;
+		}
+
+		public Duration getDuration() {
+			return Duration.between(start, end);
+		}
+
+		/**
+		 * Returns a String representation of this slot in the format:
+		 * <pre>
+		 * EEE yyyy-MM-dd HH:mm - EEE yyyy-MM-dd HH:mm
+		 * </pre>
+		 *
+		 * @return a formatted String describing this slot
+		 */
+		@Override
+		public String toString() {
+			return start.format(FORMAT) + " - " + end.format(FORMAT);
+		}
+	}
+
+	/**
+	 * Constructs a finder for gaps of at least the given length, on any day and at any hour.
+	 *
+	 * @param minimumLength the shortest gap worth reporting; must be positive
+	 * @throws IllegalArgumentException if {@code minimumLength} is zero or negative
+	 */
+	public FreeSlotFinder(Duration minimumLength) {
+		if(minimumLength.isZero() || minimumLength.isNegative()) throw new IllegalArgumentException("Length must be positive: " + minimumLength);
+		this.minimumLength = minimumLength;
+	}
+
+	/**
+	 * Restricts the search to the given hours of each day. An end of midnight stands for the end
+	 * of the day, so midnight and midnight searches whole days.
+	 *
+	 * @param start the earliest time of day a gap may start
+	 * @param end the latest time of day a gap may end
+	 * @throws IllegalArgumentException if {@code end} is not after {@code start} and not midnight
+	 */
+	public void setHours(LocalTime start, LocalTime end) {
+		if(!end.isAfter(start) && !end.equals(LocalTime.MIDNIGHT)) throw new IllegalArgumentException("End is not after start: " + start + " -> " + end);
+		this.dayStart = Objects.requireNonNull(start);
+		this.dayEnd = Objects.requireNonNull(end);
+	}
+
+	/**
+	 * Restricts the search to the given days of the week.
+	 *
+	 * @param days the days to search
+	 */
+	public void setDays(Collection<DayOfWeek> days) {
+		this.days = days.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(days);
+	}
+
+	/**
+	 * Makes events of the given categories count as free time.
+	 *
+	 * @param categories the categories whose events do not block a slot
+	 */
+	public void setIgnoredCategories(Collection<EventCategory> categories) {
+		this.ignoredCategories = new HashSet<EventCategory>(categories);
+	}
+
+	/**
+	 * Finds the first gaps in the given window that are long enough.
+	 *
+	 * @param from the start of the window to search
+	 * @param to the end of the window to search
+	 * @param limit the maximum number of gaps to return
+	 * @return up to {@code limit} gaps in chronological order; never null but possibly empty
+	 */
+	public List<Slot> find(LocalDateTime from, LocalDateTime to, int limit) {
+		List<Slot> slots = new ArrayList<Slot>();
+		LocalDateTime freeFrom = null;
+		LocalDateTime previousEnd = null;
+		for(LocalDate day = from.toLocalDate(); slots.size() < limit && !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+			if(!days.contains(day.getDayOfWeek())) continue;
+			LocalDateTime segmentStart = max(day.atTime(dayStart), from);
+			LocalDateTime segmentEnd = dayEnd.equals(LocalTime.MIDNIGHT) ? day.plusDays(1).atStartOfDay() : day.atTime(dayEnd);
+			if(segmentEnd.isAfter(to)) segmentEnd = to;
+			if(!segmentEnd.isAfter(segmentStart)) continue;
+
+			// A segment that does not continue the previous one closes any free run still open.
+			if(freeFrom == null || !segmentStart.equals(previousEnd)) {
+				if(freeFrom != null) offer(slots, freeFrom, previousEnd);
+				freeFrom = segmentStart;
+			}
+			for(Event e : DataManager.getEventsBetween(segmentStart, segmentEnd)) {
+				if(slots.size() >= limit) break;
+				if(ignoredCategories.contains(e.getCategory())) continue;
+				if(e.getStart().isAfter(freeFrom)) offer(slots, freeFrom, e.getStart());
+				freeFrom = max(freeFrom, e.getEnd());
+			}
+			previousEnd = segmentEnd;
+		}
+		if(freeFrom != null && slots.size() < limit) offer(slots, freeFrom, previousEnd);
+		return slots;
+	}
+
+	/**
+	 * Adds the gap from {@code start} to {@code end} if it is long enough.
+	 */
+	private void offer(List<Slot> slots, LocalDateTime start, LocalDateTime end) {
+		if(end.isAfter(start) && Duration.between(start, end).compareTo(minimumLength) >= 0) {
+			slots.add(new Slot(start, end));
+		}
+	}
+
+	private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+		return a.isAfter(b) ? a : b;
+	}
+}
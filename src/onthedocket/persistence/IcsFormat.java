@@ -0,0 +1,658 @@
+package onthedocket.persistence;
+
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
+import onthedocket.models.CategoryRegistry;
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.models.RecurrenceRule;
+import onthedocket.models.RecurringEvent;
+
+/**
+ * Imports and exports calendars in the iCalendar format (RFC 5545) used by .ics files.
+ * <p>
+ * Both directions stream. The importer reads one line at a time, unfolding continuation lines
+ * as it goes, and holds only the properties of the event being read, one batch of finished
+ * events, and a reference to each event added so far, so that a failed import can be undone.
+ * Each full batch goes to {@link DataManager#addEvents(Collection)}, so the index is updated
+ * and listeners are notified once per batch rather than once per event. The exporter
+ * walks a {@link DataManager#snapshot() snapshot} of the event index and writes each event as
+ * it is visited, without copying the events into a list first.
+ * </p>
+ * <p>
+ * Each VEVENT becomes an {@link Event}: SUMMARY gives its name, DTSTART and DTEND (or DURATION)
+ * its times, and the first entry of CATEGORIES its category, matched by name against the known
+ * categories or created if new. Times in UTC or with a TZID are converted to the local time
+ * zone, and all-day events run from midnight to 23:59 on their last day. An event whose RRULE
+ * can be expressed as a {@link RecurrenceRule} becomes a {@link RecurringEvent}, with its EXDATEs
+ * as exceptions; other rules keep only their first occurrence. Exported categories carry their
+ * color in a non-standard X-ONTHEDOCKET-COLOR property, so that they round-trip exactly.
+ * </p>
+ * <p>
+ * This class is non-instantiable.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class IcsFormat {
+	private static final int BATCH_SIZE = 1000;
+	private static final int MAX_LINE_LENGTH = 1 << 16;
+	private static final int FOLD_OCTETS = 75;
+	private static final String COLOR_PROPERTY = "X-ONTHEDOCKET-COLOR";
+	private static final String UNTITLED = "Untitled";
+	private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+	private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+	private static final String[] DAY_CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+
+	/**
+	 * Private constructor to prevent external instantiation.
+	 *
+	 * @throws AssertionError always thrown to enforce non-instantiability
+	 */
+	private IcsFormat() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Counts of what an import brought in.
+	 */
+	public static final class Summary {
+		private int events;
+		private int recurring;
+		private int simplified;
+		private int skipped;
+
+		public int getEvents() {
+			return events;
+		}
+
+		public int getRecurringEvents() {
+			return recurring;
+		}
+
+		public int getSimplified() {
+			return simplified;
+		}
+
+		public int getSkipped() {
+			return skipped;
+		}
+
+		/**
+		 * Returns a one-line description of the import, suitable for a status message.
+		 *
+		 * @return a formatted String listing the counts
+		 */
+		@Override
+		public String toString() {
+			String text = "Imported " + events + " events and " + recurring + " recurring events";
+			if(simplified > 0) text += "; " + simplified + " repeat rules were not supported, so only their first occurrence was kept";
+			if(skipped > 0) text += "; skipped " + skipped + " invalid events";
+			return text;
+		}
+	}
+
+	/**
+	 * Reads the calendar in the given file and adds its events to {@link DataManager}. Events that
+	 * cannot be understood are skipped rather than failing the whole import. If the file cannot be
+	 * read to the end, the events already added from it are removed again, so a failed import
+	 * leaves no events behind; categories it created are kept.
+	 *
+	 * @param path the .ics file to read
+	 * @return counts of the events imported and skipped
+	 * @throws IOException if the file cannot be read
+	 */
+	public static Summary importFrom(Path path) throws IOException {
+		Importer importer = new Importer();
+		try(BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			LineReader lines = new LineReader(reader);
+			String pending = lines.readLine();
+			while(pending != null) {
+				StringBuilder line = new StringBuilder(pending);
+				String next;
+				while((next = lines.readLine()) != null && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+					// Only short properties are used, so overlong ones such as inline attachments are cut off.
+					if(line.length() < MAX_LINE_LENGTH) line.append(next, 1, next.length());
+				}
+				importer.accept(line.toString());
+				pending = next;
+			}
+		} catch(IOException | RuntimeException e) {
+			importer.undo();
+			throw e;
+		}
+		importer.finish();
+		return importer.summary;
+	}
+
+	/**
+	 * Writes every stored event and recurring event held by {@link DataManager} to the given file
+	 * as an iCalendar. Times are written as local times without a time zone.
+	 *
+	 * The calendar is written to a temporary sibling file that is then moved over the target, so a
+	 * failed export never leaves a truncated file in place of an earlier one.
+	 *
+	 * @param path the .ics file to write; replaced if it exists
+	 * @return the number of events and recurring events written
+	 * @throws IOException if the file cannot be written
+	 */
+	public static int exportTo(Path path) throws IOException {
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try {
+			int written = write(temp);
+			Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			return written;
+		} catch(IOException | RuntimeException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes the calendar to the given file, returning the number of events written.
+	 */
+	private static int write(Path path) throws IOException {
+		DataManager.Snapshot snapshot = DataManager.snapshot();
+		String stamp = LocalDateTime.now(ZoneOffset.UTC).format(DATE_TIME) + "Z";
+		int[] written = {0};
+		try(Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			writeLine(out, "BEGIN:VCALENDAR");
+			writeLine(out, "VERSION:2.0");
+			writeLine(out, "PRODID:-//Sitatunga147//OnTheDocket//EN");
+			writeLine(out, "CALSCALE:GREGORIAN");
+			try {
+				snapshot.getEvents().forEachOverlapping(Long.MIN_VALUE, Long.MAX_VALUE, e -> {
+					try {
+						writeEvent(out, e.getName(), e.getStart(), e.getEnd(), e.getCategory(), null, stamp, ++written[0]);
+					} catch(IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+				});
+			} catch(UncheckedIOException ex) {
+				throw ex.getCause();
+			}
+			for(RecurringEvent r : snapshot.getRecurringEvents()) {
+				writeEvent(out, r.getName(), r.getStart(), r.getEnd(), r.getCategory(), r.getRule(), stamp, ++written[0]);
+			}
+			writeLine(out, "END:VCALENDAR");
+		}
+		return written[0];
+	}
+
+	private static void writeEvent(Writer out, String name, LocalDateTime start, LocalDateTime end, EventCategory category,
+			RecurrenceRule rule, String stamp, int number) throws IOException {
+		writeLine(out, "BEGIN:VEVENT");
+		writeLine(out, "UID:" + number + "-" + stamp + "@onthedocket");
+		writeLine(out, "DTSTAMP:" + stamp);
+		writeLine(out, "DTSTART:" + start.format(DATE_TIME));
+		writeLine(out, "DTEND:" + end.format(DATE_TIME));
+		writeLine(out, "SUMMARY:" + escape(name));
+		writeLine(out, "CATEGORIES:" + escape(category.getName()));
+		writeLine(out, COLOR_PROPERTY + ":" + String.format("#%06X", category.getColor().getRGB() & 0xFFFFFF));
+		if(rule != null) {
+			StringBuilder rrule = new StringBuilder("RRULE:FREQ=").append(rule.getFrequency());
+			if(rule.getInterval() > 1) rrule.append(";INTERVAL=").append(rule.getInterval());
+			if(!rule.getByDay().isEmpty()) {
+				rrule.append(";BYDAY=");
+				String separator = "";
+				for(DayOfWeek day : rule.getByDay()) {
+					rrule.append(separator).append(DAY_CODES[day.ordinal()]);
+					separator = ",";
+				}
+			}
+			if(rule.getUntil() != null) rrule.append(";UNTIL=").append(rule.getUntil().atTime(23, 59, 59).format(DATE_TIME));
+			if(rule.getCount() > 0) rrule.append(";COUNT=").append(rule.getCount());
+			writeLine(out, rrule.toString());
+			for(LocalDate exception : rule.getExceptions()) {
+				writeLine(out, "EXDATE:" + exception.atTime(start.toLocalTime()).format(DATE_TIME));
+			}
+		}
+		writeLine(out, "END:VEVENT");
+	}
+
+	/**
+	 * Writes one content line, folding it so that no physical line exceeds 75 octets of UTF-8.
+	 */
+	private static void writeLine(Writer out, String line) throws IOException {
+		int octets = 0;
+		int segment = 0;
+		for(int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			boolean pair = Character.isHighSurrogate(c) && i + 1 < line.length();
+			int size = c < 0x80 ? 1 : c < 0x800 ? 2 : pair ? 4 : 3;
+			if(octets + size > FOLD_OCTETS) {
+				out.write(line, segment, i - segment);
+				out.write("\r\n ");
+				segment = i;
+				octets = 1;
+			}
+			if(pair) i++;
+			octets += size;
+		}
+		out.write(line, segment, line.length() - segment);
+		out.write("\r\n");
+	}
+
+	private static String escape(String text) {
+		StringBuilder escaped = new StringBuilder(text.length() + 8);
+		for(int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch(c) {
+			case '\\': escaped.append("\\\\"); break;
+			case ';': escaped.append("\\;"); break;
+			case ',': escaped.append("\\,"); break;
+			case '\n': escaped.append("\\n"); break;
+			case '\r': break;
+			default: escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+
+	private static String unescape(String text) {
+		if(text.indexOf('\\') < 0) return text;
+		StringBuilder plain = new StringBuilder(text.length());
+		for(int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if(c == '\\' && i + 1 < text.length()) {
+				char next = text.charAt(++i);
+				plain.append(next == 'n' || next == 'N' ? '\n' : next);
+			} else {
+				plain.append(c);
+			}
+		}
+		return plain.toString();
+	}
+
+	/**
+	 * Returns the first entry of a comma-separated text list, honoring escaped commas.
+	 */
+	private static String firstOf(String list) {
+		for(int i = 0; i < list.length(); i++) {
+			char c = list.charAt(i);
+			if(c == '\\') i++;
+			else if(c == ',') return list.substring(0, i);
+		}
+		return list;
+	}
+
+	/**
+	 * Parses a DATE or DATE-TIME value into local time. UTC times and times with a known TZID are
+	 * converted to the system time zone; floating times are taken as they are.
+	 */
+	private static LocalDateTime parseTime(String value, String tzid) {
+		value = value.trim();
+		if(value.length() == 8) return LocalDate.parse(value, DATE).atStartOfDay();
+		boolean utc = value.endsWith("Z");
+		LocalDateTime time = LocalDateTime.parse(utc ? value.substring(0, value.length() - 1) : value, DATE_TIME);
+		ZoneId zone = utc ? ZoneOffset.UTC : zoneOf(tzid);
+		if(zone == null) return time;
+		return time.atZone(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+	}
+
+	private static ZoneId zoneOf(String tzid) {
+		if(tzid == null) return null;
+		try {
+			return ZoneId.of(tzid);
+		} catch(DateTimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Parses a DURATION value, including the week form that {@link Duration#parse} rejects.
+	 */
+	private static Duration parseDuration(String value) {
+		String text = value.trim();
+		boolean negative = text.startsWith("-");
+		if(negative || text.startsWith("+")) text = text.substring(1);
+		Duration duration = text.endsWith("W") ? Duration.ofDays(7 * Long.parseLong(text.substring(1, text.length() - 1))) : Duration.parse(text);
+		return negative ? duration.negated() : duration;
+	}
+
+	/**
+	 * Translates an RRULE value into a {@link RecurrenceRule}.
+	 *
+	 * @return the rule, or {@code null} if it uses parts that {@link RecurrenceRule} cannot express
+	 */
+	private static RecurrenceRule parseRule(String value, Collection<LocalDate> exceptions) {
+		RecurrenceRule.Frequency frequency = null;
+		int interval = 1;
+		int count = 0;
+		LocalDate until = null;
+		EnumSet<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+		try {
+			for(String part : value.split(";")) {
+				int eq = part.indexOf('=');
+				if(eq < 0) return null;
+				String key = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+				String argument = part.substring(eq + 1).trim().toUpperCase(Locale.ROOT);
+				switch(key) {
+				case "FREQ": frequency = RecurrenceRule.Frequency.valueOf(argument); break;
+				case "INTERVAL": interval = Integer.parseInt(argument); break;
+				case "COUNT": count = Integer.parseInt(argument); break;
+				case "UNTIL": until = parseTime(argument, null).toLocalDate(); break;
+				case "BYDAY":
+					for(String code : argument.split(",")) {
+						int day = List.of(DAY_CODES).indexOf(code);
+						if(day < 0) return null;
+						byDay.add(DayOfWeek.of(day + 1));
+					}
+					break;
+				case "WKST": break;
+				default: return null;
+				}
+			}
+			if(frequency == null || (!byDay.isEmpty() && frequency != RecurrenceRule.Frequency.WEEKLY)) return null;
+			return new RecurrenceRule(frequency, interval, byDay, until, count, exceptions);
+		} catch(IllegalArgumentException | DateTimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Picks a stable color for a category that arrives without one.
+	 */
+	private static Color colorFor(String name) {
+		return Color.getHSBColor((name.hashCode() & 0xFFFF) / 65536f, 0.6f, 0.8f);
+	}
+
+	/**
+	 * The properties of the VEVENT being read.
+	 */
+	private static final class PendingEvent {
+		String uid;
+		String summary;
+		String start;
+		String startZone;
+		String end;
+		String endZone;
+		String duration;
+		String category;
+		String color;
+		String rule;
+		String recurrenceId;
+		String recurrenceZone;
+		final ArrayList<LocalDate> exceptions = new ArrayList<LocalDate>();
+	}
+
+	/**
+	 * Splits a character stream into physical lines of bounded length.
+	 */
+	private static final class LineReader {
+		private final Reader in;
+		private final char[] buffer = new char[8192];
+		private final StringBuilder line = new StringBuilder();
+		private int position;
+		private int limit;
+		private boolean skipLinefeed;
+
+		LineReader(Reader in) {
+			this.in = in;
+		}
+
+		/**
+		 * Reads the next physical line ended by CR, LF, or CRLF, keeping at most
+		 * {@link #MAX_LINE_LENGTH} characters of it so that a file without line breaks cannot
+		 * exhaust memory.
+		 *
+		 * @return the line without its terminator, or {@code null} at the end of the input
+		 */
+		String readLine() throws IOException {
+			line.setLength(0);
+			boolean read = false;
+			while(true) {
+				if(position == limit) {
+					int n = in.read(buffer, 0, buffer.length);
+					if(n <= 0) return read ? line.toString() : null;
+					position = 0;
+					limit = n;
+				}
+				char c = buffer[position++];
+				if(skipLinefeed) {
+					skipLinefeed = false;
+					if(c == '\n') continue;
+				}
+				read = true;
+				if(c == '\n') return line.toString();
+				if(c == '\r') {
+					skipLinefeed = true;
+					return line.toString();
+				}
+				if(line.length() < MAX_LINE_LENGTH) line.append(c);
+			}
+		}
+	}
+
+	/**
+	 * The state of one import: the event being read, the batch awaiting insertion, and the
+	 * recurring events, which are few and are added at the end once every override is known.
+	 */
+	private static final class Importer {
+		final Summary summary = new Summary();
+		final ArrayList<Event> batch = new ArrayList<Event>(BATCH_SIZE);
+		final ArrayList<Event> added = new ArrayList<Event>();
+		final ArrayList<RecurringEvent> series = new ArrayList<RecurringEvent>();
+		final HashMap<String, Integer> seriesByUid = new HashMap<String, Integer>();
+		final HashMap<String, List<LocalDate>> overrides = new HashMap<String, List<LocalDate>>();
+		final HashMap<String, EventCategory> categories = new HashMap<String, EventCategory>();
+		final HashSet<EventCategory> known = new HashSet<EventCategory>();
+		PendingEvent current;
+		int nesting;
+
+		Importer() {
+			known.addAll(CategoryRegistry.presets());
+			known.addAll(DataManager.getCategories());
+		}
+
+		/**
+		 * Handles one unfolded content line.
+		 */
+		void accept(String line) {
+			int colon = valueStart(line);
+			if(colon < 0) return;
+			int semicolon = line.indexOf(';');
+			int nameEnd = semicolon >= 0 && semicolon < colon ? semicolon : colon;
+			String name = line.substring(0, nameEnd).trim().toUpperCase(Locale.ROOT);
+			String value = line.substring(colon + 1);
+			if(name.equals("BEGIN")) {
+				if(current != null) nesting++;
+				else if(value.trim().equalsIgnoreCase("VEVENT")) current = new PendingEvent();
+				return;
+			}
+			if(name.equals("END")) {
+				if(current == null) return;
+				if(nesting > 0) nesting--;
+				else if(value.trim().equalsIgnoreCase("VEVENT")) {
+					finishEvent(current);
+					current = null;
+				}
+				return;
+			}
+			if(current == null || nesting > 0) return;
+			String tzid = parameter(line, nameEnd, colon, "TZID");
+			switch(name) {
+			case "UID": current.uid = value; break;
+			case "SUMMARY": current.summary = unescape(value); break;
+			case "DTSTART": current.start = value; current.startZone = tzid; break;
+			case "DTEND": current.end = value; current.endZone = tzid; break;
+			case "DURATION": current.duration = value; break;
+			case "CATEGORIES": if(current.category == null) current.category = unescape(firstOf(value)).trim(); break;
+			case COLOR_PROPERTY: current.color = value.trim(); break;
+			case "RRULE": current.rule = value; break;
+			case "RECURRENCE-ID": current.recurrenceId = value; current.recurrenceZone = tzid; break;
+			case "EXDATE":
+				try {
+					for(String date : value.split(",")) current.exceptions.add(parseTime(date, tzid).toLocalDate());
+				} catch(DateTimeException e) {
+					// A malformed exception date is ignored rather than losing the whole series.
+				}
+				break;
+			default: break;
+			}
+		}
+
+		/**
+		 * Converts a finished VEVENT into an event or recurring event.
+		 */
+		void finishEvent(PendingEvent p) {
+			if(p.start == null) {
+				summary.skipped++;
+				return;
+			}
+			try {
+				boolean allDay = p.start.trim().length() == 8;
+				LocalDateTime start = parseTime(p.start, p.startZone).truncatedTo(ChronoUnit.MINUTES);
+				LocalDateTime end;
+				if(p.end != null) {
+					end = parseTime(p.end, p.endZone).truncatedTo(ChronoUnit.MINUTES);
+					// An all-day DTEND is exclusive: the event ends the day before.
+					if(allDay) end = end.isAfter(start) ? end.minusDays(1).toLocalDate().atTime(23, 59) : start.toLocalDate().atTime(23, 59);
+				} else if(p.duration != null) {
+					end = start.plus(parseDuration(p.duration)).truncatedTo(ChronoUnit.MINUTES);
+					if(allDay) end = end.isAfter(start) ? end.minusDays(1).toLocalDate().atTime(23, 59) : start.toLocalDate().atTime(23, 59);
+				} else {
+					end = allDay ? start.toLocalDate().atTime(23, 59) : start;
+				}
+				if(end.isBefore(start)) {
+					summary.skipped++;
+					return;
+				}
+				String name = p.summary == null || p.summary.isBlank() ? UNTITLED : p.summary;
+				EventCategory category = resolveCategory(p.category, p.color);
+
+				if(p.recurrenceId != null && p.uid != null) {
+					overrides.computeIfAbsent(p.uid, u -> new ArrayList<LocalDate>()).add(parseTime(p.recurrenceId, p.recurrenceZone).toLocalDate());
+				}
+				if(p.rule != null && p.recurrenceId == null) {
+					RecurrenceRule rule = parseRule(p.rule, p.exceptions);
+					if(rule != null) {
+						if(p.uid != null) seriesByUid.put(p.uid, series.size());
+						series.add(new RecurringEvent(name, start, end, category, rule));
+						summary.recurring++;
+						return;
+					}
+					summary.simplified++;
+				}
+				batch.add(new Event(name, start, end, category));
+				summary.events++;
+				if(batch.size() >= BATCH_SIZE) flush();
+			} catch(DateTimeException | IllegalArgumentException e) {
+				summary.skipped++;
+			}
+		}
+
+		/**
+		 * Adds the remaining batch and the recurring events, leaving out overridden occurrences.
+		 */
+		void finish() {
+			flush();
+			for(String uid : overrides.keySet()) {
+				Integer index = seriesByUid.get(uid);
+				if(index == null) continue;
+				RecurringEvent r = series.get(index);
+				RecurrenceRule rule = r.getRule();
+				for(LocalDate date : overrides.get(uid)) rule = rule.withException(date);
+				series.set(index, r.withRule(rule));
+			}
+			DataManager.addRecurringEvents(series);
+		}
+
+		void flush() {
+			if(batch.isEmpty()) return;
+			DataManager.addEvents(batch);
+			added.addAll(batch);
+			batch.clear();
+		}
+
+		/**
+		 * Removes the events added so far, after a failure part way through the file.
+		 */
+		void undo() {
+			DataManager.removeEvents(added);
+			added.clear();
+		}
+
+		/**
+		 * Resolves a category by name, creating and registering it with {@link DataManager} if
+		 * it is new. An explicit color picks the category with that exact name and color.
+		 */
+		EventCategory resolveCategory(String name, String color) {
+			if(name == null || name.isEmpty()) return EventCategory.DEFAULT;
+			String key = name + "#" + color;
+			EventCategory category = categories.get(key);
+			if(category != null) return category;
+			Color parsed = null;
+			if(color != null) {
+				try {
+					parsed = Color.decode(color);
+				} catch(NumberFormatException e) {
+					// Fall back to matching by name alone.
+				}
+			}
+			if(parsed != null) category = CategoryRegistry.canonical(name, parsed);
+			else {
+				category = CategoryRegistry.byName(name);
+				if(category == null) category = CategoryRegistry.canonical(name, colorFor(name));
+			}
+			if(known.add(category) && !DataManager.getCategories().contains(category)) DataManager.addCategory(category);
+			categories.put(key, category);
+			return category;
+		}
+
+		/**
+		 * Returns the index of the colon that separates a content line's name and parameters
+		 * from its value, skipping colons inside quoted parameter values.
+		 */
+		private static int valueStart(String line) {
+			boolean quoted = false;
+			for(int i = 0; i < line.length(); i++) {
+				char c = line.charAt(i);
+				if(c == '"') quoted = !quoted;
+				else if(c == ':' && !quoted) return i;
+			}
+			return -1;
+		}
+
+		/**
+		 * Returns the value of the named parameter between {@code from} and {@code to}, unquoted,
+		 * or {@code null} if it is absent.
+		 */
+		private static String parameter(String line, int from, int to, String name) {
+			if(from >= to) return null;
+			for(String parameter : line.substring(from + 1, to).split(";")) {
+				int eq = parameter.indexOf('=');
+				if(eq > 0 && parameter.substring(0, eq).trim().equalsIgnoreCase(name)) {
+					String value = parameter.substring(eq + 1).trim();
+					return value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"") ? value.substring(1, value.length() - 1) : value;
+				}
+			}
+			return null;
+		}
+	}
+}
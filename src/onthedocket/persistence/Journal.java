@@ -0,0 +1,523 @@
+package onthedocket.persistence;
+
+import java.awt.Color;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import onthedocket.models.CategoryRegistry;
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.models.RecurrenceRule;
+import onthedocket.models.RecurringEvent;
+import onthedocket.utils.EpochMinutes;
+import onthedocket.utils.Theme;
+
+/**
+ * An append-only write-ahead log of changes made to {@link DataManager} since the last snapshot.
+ * <p>
+ * Each mutation is appended as a small record as soon as it happens, so saving costs O(change)
+ * and edits survive a crash even when no full snapshot has been written. A journal file starts
+ * with a header holding its generation number; a snapshot records the generation of the first
+ * journal it does <em>not</em> contain, so replay can skip journals that were already folded in.
+ * </p>
+ * <pre>
+ * int   magic ("OTDJ")
+ * short version
+ * long  generation
+ * then records: byte type, followed by
+ *   ADD_EVENT / REMOVE_EVENT:       long start, long end, string category name, int ARGB, string name
+ *   ADD_CATEGORY / REMOVE_CATEGORY: string name, int ARGB
+ *   SET_THEME:                      string theme name
+ *   ADD_RECURRING / REMOVE_RECURRING: long first start, long first end, string category name,
+ *                                     int ARGB, string name, rule (as in {@link BinaryFormat})
+ * </pre>
+ * <p>
+ * Once the journal grows past its compaction threshold, the owner is notified so that it can
+ * fold the journal into a new snapshot in the background; see {@link Serializer}.
+ * </p>
+ * <p>
+ * If an append fails, the file is cut back to the end of the last complete record so no torn
+ * record is left for later ones to follow, and the journal stops recording: a record is
+ * missing, so the changes since can only be made durable by a snapshot. The owner is notified
+ * as for compaction, and {@link #sync()} fails until {@link #rotate()} starts a new file.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public class Journal {
+	/**
+	 * The four bytes "OTDJ" that open every journal file.
+	 */
+	public static final int MAGIC = 0x4F54444A;
+	private static final short VERSION = 1;
+	private static final int HEADER_SIZE = 4 + 2 + 8;
+
+	private static final byte ADD_EVENT = 1;
+	private static final byte REMOVE_EVENT = 2;
+	private static final byte ADD_CATEGORY = 3;
+	private static final byte REMOVE_CATEGORY = 4;
+	private static final byte SET_THEME = 5;
+	private static final byte ADD_RECURRING = 6;
+	private static final byte REMOVE_RECURRING = 7;
+
+	private final Path path;
+	private final long compactionThreshold;
+	private final Runnable onThresholdExceeded;
+	private FileChannel channel;
+	private long generation;
+	private ByteBuffer record = ByteBuffer.allocate(256);
+	private IOException failure;
+
+	/**
+	 * Opens the journal at the given path for appending, creating it with the given generation
+	 * if it does not exist. An existing journal keeps its own generation, and any incomplete
+	 * record left at its end by a crash is cut off.
+	 *
+	 * @param path the journal file
+	 * @param generation the generation to use when a new file is created
+	 * @param compactionThreshold the file size in bytes past which compaction is requested
+	 * @param onThresholdExceeded called after an append that leaves the journal above the threshold
+	 * @throws IOException if the journal cannot be opened or created
+	 */
+	public Journal(Path path, long generation, long compactionThreshold, Runnable onThresholdExceeded) throws IOException {
+		this.path = path;
+		this.compactionThreshold = compactionThreshold;
+		this.onThresholdExceeded = onThresholdExceeded;
+		if(Files.exists(path)) {
+			long validLength = scan(path, null);
+			if(validLength < HEADER_SIZE) {
+				create(generation);
+			} else {
+				this.generation = readGeneration(path);
+				channel = FileChannel.open(path, StandardOpenOption.WRITE);
+				channel.truncate(validLength);
+				channel.position(validLength);
+			}
+		} else {
+			create(generation);
+		}
+	}
+
+	/**
+	 * Returns the path of the file holding rotated-out records that are not yet part of a snapshot.
+	 *
+	 * @param path the journal file
+	 * @return the sibling file with an ".old" suffix
+	 */
+	public static Path rotatedPath(Path path) {
+		return path.resolveSibling(path.getFileName() + ".old");
+	}
+
+	/**
+	 * Reads the generation number from a journal file's header.
+	 *
+	 * @param path the journal file
+	 * @return the generation recorded in the header
+	 * @throws IOException if the file cannot be read or is not a journal
+	 */
+	public static long readGeneration(Path path) throws IOException {
+		try(BinaryFormat.Input in = new BinaryFormat.Input(FileChannel.open(path, StandardOpenOption.READ))) {
+			if(in.readInt() != MAGIC) throw new IOException("Not an OnTheDocket journal: " + path);
+			in.readShort();
+			return in.readLong();
+		}
+	}
+
+	/**
+	 * Applies every complete record in the given journal file to {@link DataManager}.
+	 * Categories named in records are resolved through {@link CategoryRegistry#canonical(String, Color)},
+	 * so replayed events share category instances with loaded ones. Consecutive additions or
+	 * removals of events are applied as one batch.
+	 *
+	 * @param path the journal file to replay
+	 * @return the number of records applied
+	 * @throws IOException if the file cannot be read or is not a journal
+	 */
+	public static int replay(Path path) throws IOException {
+		int[] applied = new int[1];
+		ReplayBatch batch = new ReplayBatch();
+		scan(path, in -> {
+			applyRecord(in, batch);
+			applied[0]++;
+		});
+		batch.flush();
+		return applied[0];
+	}
+
+	/**
+	 * Reads the header and then every complete record of a journal, passing each to the
+	 * given visitor if one is supplied. A truncated or unrecognized record, as left behind
+	 * by a crash mid-append, is treated as the end of the journal.
+	 *
+	 * @return the byte length of the header plus all complete records
+	 */
+	private static long scan(Path path, RecordVisitor visitor) throws IOException {
+		try(BinaryFormat.Input in = new BinaryFormat.Input(FileChannel.open(path, StandardOpenOption.READ))) {
+			long valid = 0;
+			try {
+				if(in.readInt() != MAGIC) throw new IOException("Not an OnTheDocket journal: " + path);
+				in.readShort();
+				in.readLong();
+				valid = in.position();
+				while(true) {
+					if(visitor != null) {
+						visitor.visit(in);
+					} else {
+						skipRecord(in);
+					}
+					valid = in.position();
+				}
+			} catch(EOFException e) {
+				return valid;
+			}
+		}
+	}
+
+	private static void applyRecord(BinaryFormat.Input in, ReplayBatch batch) throws IOException {
+		byte type = in.readByte();
+		if(type != ADD_EVENT && type != REMOVE_EVENT) batch.flush();
+		switch(type) {
+		case ADD_EVENT:
+		case REMOVE_EVENT: {
+			long start = in.readLong();
+			long end = in.readLong();
+			EventCategory category = resolve(in.readString(), in.readInt());
+			Event e = new Event(in.readString(), EpochMinutes.toDateTime(start), EpochMinutes.toDateTime(end), category);
+			batch.add(type, e);
+			break;
+		}
+		case ADD_CATEGORY:
+			DataManager.addCategory(resolve(in.readString(), in.readInt()));
+			break;
+		case REMOVE_CATEGORY:
+			DataManager.removeCategory(resolve(in.readString(), in.readInt()));
+			break;
+		case SET_THEME:
+			DataManager.setTheme(BinaryFormat.themeNamed(in.readString()));
+			break;
+		case ADD_RECURRING:
+		case REMOVE_RECURRING: {
+			LocalDateTime start = BinaryFormat.readDateTime(in);
+			LocalDateTime end = BinaryFormat.readDateTime(in);
+			EventCategory category = resolve(in.readString(), in.readInt());
+			String name = in.readString();
+			RecurringEvent r = new RecurringEvent(name, start, end, category, BinaryFormat.readRule(in));
+			if(type == ADD_RECURRING) {
+				DataManager.addRecurringEvent(r);
+			} else {
+				DataManager.removeRecurringEvent(r);
+			}
+			break;
+		}
+		default:
+			throw new EOFException("Unknown journal record type " + type);
+		}
+	}
+
+	private static void skipRecord(BinaryFormat.Input in) throws IOException {
+		byte type = in.readByte();
+		switch(type) {
+		case ADD_EVENT:
+		case REMOVE_EVENT:
+			in.readLong();
+			in.readLong();
+			in.readString();
+			in.readInt();
+			in.readString();
+			break;
+		case ADD_CATEGORY:
+		case REMOVE_CATEGORY:
+			in.readString();
+			in.readInt();
+			break;
+		case SET_THEME:
+			in.readString();
+			break;
+		case ADD_RECURRING:
+		case REMOVE_RECURRING:
+			in.readLong();
+			in.readLong();
+			in.readString();
+			in.readInt();
+			in.readString();
+			BinaryFormat.readRule(in);
+			break;
+		default:
+			throw new EOFException("Unknown journal record type " + type);
+		}
+	}
+
+	private static EventCategory resolve(String name, int rgb) {
+		return CategoryRegistry.canonical(name, new Color(rgb, true));
+	}
+
+	/**
+	 * Appends a record of an event being added.
+	 *
+	 * @param e the added event
+	 */
+	public synchronized void recordAddEvent(Event e) {
+		appendEvent(ADD_EVENT, e);
+	}
+
+	/**
+	 * Appends a record of an event being removed.
+	 *
+	 * @param e the removed event
+	 */
+	public synchronized void recordRemoveEvent(Event e) {
+		appendEvent(REMOVE_EVENT, e);
+	}
+
+	/**
+	 * Appends a record of a category being added.
+	 *
+	 * @param c the added category
+	 */
+	public synchronized void recordAddCategory(EventCategory c) {
+		appendCategory(ADD_CATEGORY, c);
+	}
+
+	/**
+	 * Appends a record of a category being removed.
+	 *
+	 * @param c the removed category
+	 */
+	public synchronized void recordRemoveCategory(EventCategory c) {
+		appendCategory(REMOVE_CATEGORY, c);
+	}
+
+	/**
+	 * Appends a record of the theme being changed.
+	 *
+	 * @param theme the new theme, or {@code null}
+	 */
+	public synchronized void recordSetTheme(Theme theme) {
+		byte[] name = (theme == null ? "" : theme.getName()).getBytes(StandardCharsets.UTF_8);
+		prepare(1 + 4 + name.length);
+		record.put(SET_THEME);
+		putString(name);
+		append();
+	}
+
+	/**
+	 * Appends a record of a recurring event being added.
+	 *
+	 * @param r the added recurring event
+	 */
+	public synchronized void recordAddRecurring(RecurringEvent r) {
+		appendRecurring(ADD_RECURRING, r);
+	}
+
+	/**
+	 * Appends a record of a recurring event being removed.
+	 *
+	 * @param r the removed recurring event
+	 */
+	public synchronized void recordRemoveRecurring(RecurringEvent r) {
+		appendRecurring(REMOVE_RECURRING, r);
+	}
+
+	private void appendEvent(byte type, Event e) {
+		byte[] category = e.getCategory().getName().getBytes(StandardCharsets.UTF_8);
+		byte[] name = e.getName().getBytes(StandardCharsets.UTF_8);
+		prepare(1 + 8 + 8 + 4 + category.length + 4 + 4 + name.length);
+		record.put(type);
+		record.putLong(EpochMinutes.of(e.getStart()));
+		record.putLong(EpochMinutes.of(e.getEnd()));
+		putString(category);
+		record.putInt(e.getCategory().getColor().getRGB());
+		putString(name);
+		append();
+	}
+
+	private void appendRecurring(byte type, RecurringEvent r) {
+		byte[] category = r.getCategory().getName().getBytes(StandardCharsets.UTF_8);
+		byte[] name = r.getName().getBytes(StandardCharsets.UTF_8);
+		RecurrenceRule rule = r.getRule();
+		prepare(1 + 8 + 8 + 4 + category.length + 4 + 4 + name.length
+				+ 1 + 4 + 1 + 8 + 4 + 4 + 8 * rule.getExceptions().size());
+		record.put(type);
+		record.putLong(EpochMinutes.of(r.getStart()));
+		record.putLong(EpochMinutes.of(r.getEnd()));
+		putString(category);
+		record.putInt(r.getCategory().getColor().getRGB());
+		putString(name);
+		record.put((byte) rule.getFrequency().ordinal());
+		record.putInt(rule.getInterval());
+		record.put((byte) BinaryFormat.dayMask(rule.getByDay()));
+		record.putLong(rule.getUntil() == null ? Long.MIN_VALUE : rule.getUntil().toEpochDay());
+		record.putInt(rule.getCount());
+		record.putInt(rule.getExceptions().size());
+		for(LocalDate date : rule.getExceptions()) record.putLong(date.toEpochDay());
+		append();
+	}
+
+	private void appendCategory(byte type, EventCategory c) {
+		byte[] name = c.getName().getBytes(StandardCharsets.UTF_8);
+		prepare(1 + 4 + name.length + 4);
+		record.put(type);
+		putString(name);
+		record.putInt(c.getColor().getRGB());
+		append();
+	}
+
+	private void prepare(int size) {
+		if(record.capacity() < size) record = ByteBuffer.allocate(Math.max(size, record.capacity() * 2));
+		record.clear();
+	}
+
+	private void putString(byte[] bytes) {
+		record.putInt(bytes.length);
+		record.put(bytes);
+	}
+
+	/**
+	 * Writes the prepared record to the journal file and requests compaction if the file
+	 * has grown past the threshold. A failed write is cut off again and leaves the journal
+	 * failed, as described in the class comment; editing is never interrupted.
+	 */
+	private void append() {
+		if(failure != null) return;
+		record.flip();
+		long start = -1;
+		try {
+			start = channel.position();
+			while(record.hasRemaining()) channel.write(record);
+			if(channel.size() > compactionThreshold && onThresholdExceeded != null) {
+				onThresholdExceeded.run();
+			}
+		} catch (IOException e) {
+			failure = e;
+			if(start >= 0) {
+				try {
+					channel.truncate(start);
+					channel.position(start);
+				} catch (IOException truncateFailure) {
+					e.addSuppressed(truncateFailure);
+				}
+			}
+			if(onThresholdExceeded != null) onThresholdExceeded.run();
+		}
+	}
+
+	/**
+	 * Forces all appended records to the storage device.
+	 *
+	 * @throws IOException if the journal cannot be synced, or if an append has failed since
+	 *         the journal was created or last rotated, so that it is missing changes
+	 */
+	public synchronized void sync() throws IOException {
+		if(failure != null) throw new IOException("The journal is missing changes after a failed write", failure);
+		channel.force(false);
+	}
+
+	/**
+	 * Moves the current journal file aside to {@link #rotatedPath(Path)} and starts an empty
+	 * journal with the next generation. Callers must hold the {@link DataManager} lock so
+	 * that no change falls between the captured snapshot and the new journal.
+	 *
+	 * @return the generation of the new journal, which the matching snapshot must record
+	 * @throws IOException if the files cannot be moved or created
+	 */
+	public synchronized long rotate() throws IOException {
+		channel.force(false);
+		channel.close();
+		Path rotated = rotatedPath(path);
+		if(Files.exists(rotated)) {
+			// An earlier snapshot failed, so the rotated records are still needed: keep them and append ours.
+			try(FileChannel from = FileChannel.open(path, StandardOpenOption.READ);
+					FileChannel to = FileChannel.open(rotated, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+				long offset = HEADER_SIZE;
+				while(offset < from.size()) {
+					offset += from.transferTo(offset, from.size() - offset, to);
+				}
+				to.force(false);
+			}
+			Files.delete(path);
+		} else {
+			Files.move(path, rotated, StandardCopyOption.ATOMIC_MOVE);
+		}
+		create(generation + 1);
+		return generation;
+	}
+
+	/**
+	 * Deletes the rotated-out journal once its records are safely part of a snapshot.
+	 *
+	 * @throws IOException if the file exists but cannot be deleted
+	 */
+	public void discardRotated() throws IOException {
+		Files.deleteIfExists(rotatedPath(path));
+	}
+
+	/**
+	 * Syncs and closes the journal file.
+	 *
+	 * @throws IOException if the journal cannot be closed
+	 */
+	public synchronized void close() throws IOException {
+		if(channel.isOpen()) {
+			channel.force(false);
+			channel.close();
+		}
+	}
+
+	public long getGeneration() {
+		return generation;
+	}
+
+	private void create(long newGeneration) throws IOException {
+		generation = newGeneration;
+		failure = null;
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putShort(VERSION).putLong(generation).flip();
+		while(header.hasRemaining()) channel.write(header);
+		channel.force(false);
+		Durability.forceDirectoryOf(path);
+	}
+
+	/**
+	 * Receives each record during a journal scan.
+	 */
+	private interface RecordVisitor {
+		void visit(BinaryFormat.Input in) throws IOException;
+	}
+
+	/**
+	 * Collects a run of event records of the same type during replay, so that they reach
+	 * {@link DataManager} as a single batch.
+	 */
+	private static final class ReplayBatch {
+		private static final int LIMIT = 4096;
+		private final ArrayList<Event> events = new ArrayList<Event>();
+		private byte type;
+
+		void add(byte recordType, Event e) {
+			if(recordType != type || events.size() >= LIMIT) flush();
+			type = recordType;
+			events.add(e);
+		}
+
+		void flush() {
+			if(events.isEmpty()) return;
+			if(type == ADD_EVENT) {
+				DataManager.addEvents(events);
+			} else {
+				DataManager.removeEvents(events);
+			}
+			events.clear();
+		}
+	}
+}
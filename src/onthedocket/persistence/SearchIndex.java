@@ -0,0 +1,325 @@
+package onthedocket.persistence;
+
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+import onthedocket.models.Event;
+import onthedocket.models.RecurringEvent;
+
+/**
+ * An in-memory full-text index over event names that answers case-insensitive substring
+ * searches without scanning every event.
+ * <p>
+ * Each distinct name is given an id, and every three-character sequence (trigram) of the
+ * lower-cased name maps to the ids of the names containing it. A query of three or more
+ * characters intersects the posting lists of its own trigrams, smallest first, and only the
+ * few names that survive are checked for the full substring. Because ids are handed out in
+ * increasing order, posting lists stay sorted just by appending to them. Shorter queries
+ * fall back to a scan over the distinct names, which is still far smaller than the events.
+ * </p>
+ * <p>
+ * Recurring events are indexed under their names alongside the stored events, and a matching
+ * series is listed as its next occurrence, or its first if it has ended. Once
+ * {@link #attach()}ed, the index follows every change made to {@link DataManager}. A name
+ * whose last event or series is removed loses its postings, and once more than half of the
+ * ids belong to such names the rest are numbered afresh, so the index does not grow with
+ * names that are gone. All methods are thread-safe.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public class SearchIndex {
+	private static final Comparator<Event> BY_START = Comparator.comparing(Event::getStart);
+	private static final Period SERIES_WINDOW = Period.ofYears(1);
+	private static final int MIN_COMPACTED_IDS = 64;
+
+	private final ArrayList<Name> names = new ArrayList<Name>();
+	private final HashMap<String, Name> byName = new HashMap<String, Name>();
+	private final HashMap<Long, IntList> postings = new HashMap<Long, IntList>();
+	private List<RecurringEvent> series = Collections.emptyList();
+	private int unusedIds;
+	private final DataListener listener = new DataListener() {
+		@Override
+		public void eventsAdded(List<Event> added) {
+			addAll(added);
+		}
+
+		@Override
+		public void eventsRemoved(List<Event> removed) {
+			removeAll(removed);
+		}
+
+		@Override
+		public void eventUpdated(Event oldEvent, Event newEvent) {
+			removeAll(Arrays.asList(oldEvent));
+			addAll(Arrays.asList(newEvent));
+		}
+
+		@Override
+		public void recurringEventsChanged(List<RecurringEvent> recurring) {
+			replaceSeries(recurring);
+		}
+
+		@Override
+		public void eventsReplaced() {
+			rebuild(DataManager.snapshot());
+		}
+	};
+
+	/**
+	 * Indexes the events currently held by {@link DataManager} and starts following its changes.
+	 * Changes made while the index is being built are applied once it is ready.
+	 */
+	public synchronized void attach() {
+		rebuild(DataManager.addListenerWithSnapshot(listener));
+	}
+
+	/**
+	 * Stops following changes to {@link DataManager}.
+	 */
+	public void detach() {
+		DataManager.removeListener(listener);
+	}
+
+	/**
+	 * Finds the events whose names contain the given text, ignoring case.
+	 *
+	 * @param query the text to look for; surrounding whitespace is ignored
+	 * @param limit the maximum number of events to return
+	 * @return up to {@code limit} matching events ordered by start time; empty for a blank query
+	 */
+	public List<Event> search(String query, int limit) {
+		String needle = query.trim().toLowerCase(Locale.ROOT);
+		ArrayList<Event> result = new ArrayList<Event>();
+		if(needle.isEmpty()) return result;
+		synchronized(this) {
+			if(needle.length() < 3) {
+				for(Name name : names) {
+					if(name != null && name.lower.contains(needle)) collect(name, result);
+				}
+			} else {
+				for(int id : candidates(needle)) {
+					Name name = names.get(id);
+					if(name.lower.contains(needle)) collect(name, result);
+				}
+			}
+		}
+		if(result.size() <= limit) {
+			result.sort(BY_START);
+			return result;
+		}
+		// Keep only the earliest matches in a bounded heap rather than sorting them all.
+		PriorityQueue<Event> earliest = new PriorityQueue<Event>(limit + 1, BY_START.reversed());
+		for(Event e : result) {
+			earliest.add(e);
+			if(earliest.size() > limit) earliest.poll();
+		}
+		ArrayList<Event> top = new ArrayList<Event>(earliest);
+		top.sort(BY_START);
+		return top;
+	}
+
+	/**
+	 * Returns the ids of the names containing every trigram of the given text, in ascending order.
+	 */
+	private int[] candidates(String needle) {
+		ArrayList<IntList> lists = new ArrayList<IntList>();
+		for(int i = 0; i + 3 <= needle.length(); i++) {
+			IntList list = postings.get(trigram(needle, i));
+			if(list == null) return new int[0];
+			lists.add(list);
+		}
+		lists.sort(Comparator.comparingInt((IntList l) -> l.size));
+		int[] result = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+		int size = result.length;
+		for(int l = 1; l < lists.size() && size > 0; l++) {
+			IntList other = lists.get(l);
+			int kept = 0;
+			for(int i = 0; i < size; i++) {
+				if(Arrays.binarySearch(other.values, 0, other.size, result[i]) >= 0) result[kept++] = result[i];
+			}
+			size = kept;
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * Adds the events of a name to the results, with each of its series as the occurrence to show.
+	 */
+	private static void collect(Name name, List<Event> result) {
+		result.addAll(name.events);
+		for(RecurringEvent r : name.series) {
+			Event shown = occurrenceToShow(r);
+			if(shown != null) result.add(shown);
+		}
+	}
+
+	/**
+	 * Picks the occurrence of a series to list: the next one within a year from now, or failing
+	 * that the first one within a year of its start.
+	 *
+	 * @return the occurrence, or {@code null} if neither year has one
+	 */
+	private static Event occurrenceToShow(RecurringEvent r) {
+		LocalDateTime now = LocalDateTime.now();
+		if(now.isAfter(r.getStart())) {
+			List<RecurringEvent.Occurrence> next = r.occurrencesBetween(now, now.plus(SERIES_WINDOW));
+			if(!next.isEmpty()) return next.get(0);
+		}
+		List<RecurringEvent.Occurrence> first = r.occurrencesBetween(r.getStart(), r.getStart().plus(SERIES_WINDOW));
+		return first.isEmpty() ? null : first.get(0);
+	}
+
+	private synchronized void rebuild(DataManager.Snapshot snapshot) {
+		names.clear();
+		byName.clear();
+		postings.clear();
+		unusedIds = 0;
+		for(Event e : snapshot.getEvents().toList()) add(e);
+		series = snapshot.getRecurringEvents();
+		for(RecurringEvent r : series) nameFor(r.getName()).series.add(r);
+	}
+
+	private synchronized void addAll(Collection<Event> events) {
+		for(Event e : events) add(e);
+	}
+
+	/**
+	 * Drops the given events from the index. An event is kept while {@link DataManager} still
+	 * holds an equal one, which keeps the index right for repeated events and for removals it
+	 * hears about out of order.
+	 */
+	private synchronized void removeAll(Collection<Event> events) {
+		EventIndex current = DataManager.snapshot().getEvents();
+		for(Event e : events) {
+			Name name = byName.get(e.getName());
+			if(name != null && !current.contains(e) && name.events.remove(e)) release(name);
+		}
+		compactIfSparse();
+	}
+
+	private synchronized void replaceSeries(List<RecurringEvent> recurring) {
+		for(RecurringEvent r : series) {
+			Name name = byName.get(r.getName());
+			if(name != null && name.series.remove(r)) release(name);
+		}
+		series = recurring;
+		for(RecurringEvent r : series) nameFor(r.getName()).series.add(r);
+		compactIfSparse();
+	}
+
+	/**
+	 * Indexes an event unless an equal one is already indexed, as happens when a change made
+	 * before {@link #attach()} is heard about afterwards.
+	 */
+	private void add(Event e) {
+		nameFor(e.getName()).events.add(e);
+	}
+
+	/**
+	 * Looks up the entry for a name, giving it the next id and posting its trigrams if it is new.
+	 */
+	private Name nameFor(String text) {
+		Name name = byName.get(text);
+		if(name == null) {
+			name = new Name(names.size(), text);
+			names.add(name);
+			byName.put(text, name);
+			for(int i = 0; i + 3 <= name.lower.length(); i++) {
+				IntList list = postings.computeIfAbsent(trigram(name.lower, i), t -> new IntList());
+				// A trigram occurring twice in one name is only posted once.
+				if(list.size == 0 || list.values[list.size - 1] != name.id) list.add(name.id);
+			}
+		}
+		return name;
+	}
+
+	/**
+	 * Forgets a name once it has neither events nor series, withdrawing its postings.
+	 */
+	private void release(Name name) {
+		if(!name.events.isEmpty() || !name.series.isEmpty()) return;
+		byName.remove(name.text);
+		names.set(name.id, null);
+		unusedIds++;
+		for(int i = 0; i + 3 <= name.lower.length(); i++) {
+			long key = trigram(name.lower, i);
+			IntList list = postings.get(key);
+			if(list != null && list.remove(name.id) && list.size == 0) postings.remove(key);
+		}
+	}
+
+	/**
+	 * Numbers the remaining names afresh once most ids belong to forgotten names.
+	 */
+	private void compactIfSparse() {
+		if(names.size() < MIN_COMPACTED_IDS || unusedIds * 2 <= names.size()) return;
+		ArrayList<Name> live = new ArrayList<Name>(names.size() - unusedIds);
+		for(Name name : names) {
+			if(name != null) live.add(name);
+		}
+		names.clear();
+		byName.clear();
+		postings.clear();
+		unusedIds = 0;
+		for(Name old : live) {
+			Name name = nameFor(old.text);
+			name.events.addAll(old.events);
+			name.series.addAll(old.series);
+		}
+	}
+
+	/**
+	 * Packs the three characters starting at {@code i} into one key.
+	 */
+	private static long trigram(String s, int i) {
+		return (long) s.charAt(i) << 32 | (long) s.charAt(i + 1) << 16 | s.charAt(i + 2);
+	}
+
+	/**
+	 * A distinct event name and the events and series currently carrying it.
+	 */
+	private static final class Name {
+		final int id;
+		final String text;
+		final String lower;
+		final HashSet<Event> events = new HashSet<Event>(2);
+		final ArrayList<RecurringEvent> series = new ArrayList<RecurringEvent>(0);
+
+		Name(int id, String text) {
+			this.id = id;
+			this.text = text;
+			this.lower = text.toLowerCase(Locale.ROOT);
+		}
+	}
+
+	/**
+	 * A growable array of ints, used for posting lists.
+	 */
+	private static final class IntList {
+		int[] values = new int[4];
+		int size;
+
+		void add(int value) {
+			if(size == values.length) values = Arrays.copyOf(values, size * 2);
+			values[size++] = value;
+		}
+
+		boolean remove(int value) {
+			int i = Arrays.binarySearch(values, 0, size, value);
+			if(i < 0) return false;
+			System.arraycopy(values, i + 1, values, i, --size - i);
+			return true;
+		}
+	}
+}
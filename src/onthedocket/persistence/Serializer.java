@@ -1,15 +1,27 @@
 package onthedocket.persistence;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import onthedocket.models.Event;
 import onthedocket.models.EventCategory;
+import onthedocket.models.RecurringEvent;
+import onthedocket.utils.EpochMinutes;
+import onthedocket.utils.Metrics;
 import onthedocket.utils.Theme;
 
 /**
@@ -20,11 +32,40 @@ import onthedocket.utils.Theme;
  * to perform serialization (writing) and deserialization (reading). If the
  * file is not set or accessible, operations will return {@code false}.
  * </p>
+ * <p>
+ * Data is stored in the compact {@link BinaryFormat}. Files written by earlier
+ * versions through Java object serialization can still be read, and
+ * {@link #migrateLegacy(File)} converts such a file once into the binary format.
+ * </p>
+ * <p>
+ * After {@link #deserialize()}, every change made through {@link DataManager} is appended
+ * to a {@link Journal} next to the data file, so {@link #save()} only needs to sync the
+ * journal. When the journal grows past {@link #COMPACTION_THRESHOLD} bytes, it is folded
+ * into a new snapshot on a background thread.
+ * </p>
  * 
  * @author Sitatunga147 (with moderate AI assistance)
  */
 public class Serializer {
+	/**
+	 * The journal size in bytes past which it is compacted into a new snapshot.
+	 */
+	public static final long COMPACTION_THRESHOLD = 4L << 20;
+	
 	private static File file;
+	private static Journal journal;
+	private static long generation;
+	private static volatile boolean dataLoaded;
+	private static final Object snapshotLock = new Object();
+	private static final AtomicBoolean compactionScheduled = new AtomicBoolean();
+	private static final Metrics.Timer SERIALIZE_TIMER = Metrics.timer("persistence", "serialize");
+	private static final Metrics.Timer DESERIALIZE_TIMER = Metrics.timer("persistence", "deserialize");
+	private static final Metrics.Timer SAVE_TIMER = Metrics.timer("persistence", "save");
+	private static final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "journal-compactor");
+		t.setDaemon(true);
+		return t;
+	});
 
 	/**
 	 * Constructs a Serializer that will use the provided file for all
@@ -40,17 +81,20 @@ public class Serializer {
 	/**
 	 * Serializes the current state of {@link DataManager}—including the list
 	 * of events, the list of categories, and the selected theme—to the
-	 * configured file.
+	 * configured file in the binary format. If a journal is attached, it is
+	 * rotated at the same instant the snapshot is captured and the rotated
+	 * records are discarded once the snapshot is written. Nothing is
+	 * written until {@link #deserialize()} has succeeded, so a file that
+	 * is still loading or could not be read is never replaced with partial
+	 * data.
 	 *
 	 * @return {@code true} if the serialization succeeded; {@code false}
-	 *         if the file was not set or an I/O error occurred
+	 *         if the file was not set, no data has been loaded, or an I/O error occurred
 	 */
 	public static boolean serialize() {
-		if(file == null) return false;
-		try(ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
-			oos.writeObject(DataManager.getEvents());
-			oos.writeObject(DataManager.getCategories());
-			oos.writeObject(DataManager.getTheme());
+		if(file == null || !dataLoaded) return false;
+		try {
+			writeSnapshot();
 			return true;
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -58,32 +102,303 @@ public class Serializer {
 		}
 	}
 	
+	/**
+	 * Writes a snapshot of {@link DataManager} to the configured file without ever leaving a
+	 * partially written file in its place. The data is captured in constant time under the
+	 * DataManager lock, together with the journal rotation. It is then written to a temporary
+	 * sibling file and forced to disk, the file is atomically moved over the data file, and
+	 * the directory is synced so the move survives a crash. Only one snapshot is written at a
+	 * time. Unlike {@link #serialize()}, this does not check that data has been loaded, so
+	 * callers must only use it once DataManager holds the complete data, as
+	 * {@link AutosaveService} does.
+	 *
+	 * @throws IOException if the file is not set or the snapshot cannot be written
+	 */
+	public static void writeSnapshot() throws IOException {
+		try(Metrics.Span span = SERIALIZE_TIMER.start()) {
+			span.setItems(writeSnapshotFile());
+		}
+	}
+	
+	/**
+	 * Does the work of {@link #writeSnapshot()}.
+	 *
+	 * @return the number of events written
+	 */
+	private static int writeSnapshotFile() throws IOException {
+		if(file == null) throw new IOException("No data file configured");
+		synchronized(snapshotLock) {
+			DataManager.Snapshot snapshot;
+			long snapshotGeneration;
+			synchronized(DataManager.class) {
+				snapshotGeneration = journal != null ? journal.rotate() : generation;
+				snapshot = DataManager.snapshot();
+			}
+			BinaryFormat.Contents contents = new BinaryFormat.Contents(snapshot.getEvents().toList(),
+					snapshot.getCategories(), snapshot.getRecurringEvents(), snapshot.getTheme(), snapshotGeneration);
+			Path target = file.toPath();
+			Path temp = target.resolveSibling(file.getName() + ".tmp");
+			BinaryFormat.write(temp, contents);
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			Durability.forceDirectoryOf(target);
+			if(journal != null) journal.discardRotated();
+			return contents.getEvents().size();
+		}
+	}
+	
 	/**
 	 * Deserializes data from the configured file and replaces the in-memory
 	 * contents of {@link DataManager} with the persisted events, categories,
-	 * and theme.
+	 * and theme. Both the binary format and the legacy serialized format are accepted.
+	 * Any journal records written after the snapshot are then replayed, and the
+	 * journal is attached so that later changes are recorded.
 	 *
-	 * @return {@code true} if the deserialization succeeded; {@code false}
-	 *         if the file was not set, did not exist, or an I/O or
-	 *         class-not-found error occurred
+	 * @return {@code true} if the data was loaded, or if there is no data file yet;
+	 *         {@code false} if the file was not set or could not be read, in which case
+	 *         no journal is attached and nothing should be saved over the file
 	 */
-	@SuppressWarnings("unchecked")
 	public static boolean deserialize() {
-		if(file == null || !file.exists()) return false;
-		try(ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
+		return deserialize(null, null, null);
+	}
+	
+	/**
+	 * Deserializes data as {@link #deserialize()} does, but publishes the events covering a
+	 * focus range first. Once those events are in {@link DataManager}, {@code onFocusLoaded}
+	 * is run on the calling thread; the remaining events are then indexed off to the side and
+	 * swapped in at once. Intended to run on a background thread at startup, so that the
+	 * visible month can be shown before the whole file is indexed.
+	 *
+	 * @param focusFirst the first date to load early, or {@code null} to load everything at once
+	 * @param focusLast the last date to load early, or {@code null} to load everything at once
+	 * @param onFocusLoaded run once the focus range is available, or {@code null}
+	 * @return {@code true} if the data was loaded, or if there is no data file yet;
+	 *         {@code false} if the file was not set or could not be read, in which case
+	 *         no journal is attached and nothing should be saved over the file
+	 */
+	public static boolean deserialize(LocalDate focusFirst, LocalDate focusLast, Runnable onFocusLoaded) {
+		try(Metrics.Span span = DESERIALIZE_TIMER.start()) {
+			boolean loaded = load(focusFirst, focusLast, onFocusLoaded);
+			if(loaded) span.setItems(DataManager.snapshot().getEvents().size());
+			return loaded;
+		}
+	}
+	
+	/**
+	 * Does the work of {@link #deserialize(LocalDate, LocalDate, Runnable)}.
+	 */
+	private static boolean load(LocalDate focusFirst, LocalDate focusLast, Runnable onFocusLoaded) {
+		if(file == null) return false;
+		dataLoaded = false;
+		try {
+			DataManager.setJournal(null);
+			if(journal != null) journal.close();
+			journal = null;
+			generation = 0;
+			
+			boolean loaded = true;
+			if(file.exists()) {
+				if(BinaryFormat.isBinary(file.toPath())) {
+					BinaryFormat.Contents contents = BinaryFormat.read(file.toPath());
+					DataManager.setCategories(contents.getCategories());
+					DataManager.setTheme(contents.getTheme());
+					DataManager.setRecurringEvents(contents.getRecurringEvents());
+					if(focusFirst != null && focusLast != null) {
+						long from = EpochMinutes.startOf(focusFirst);
+						long to = EpochMinutes.endOf(focusLast);
+						ArrayList<Event> focus = new ArrayList<Event>();
+						for(Event e : contents.getEvents()) {
+							if(EpochMinutes.of(e.getStart()) <= to && EpochMinutes.of(e.getEnd()) >= from) focus.add(e);
+						}
+						DataManager.setEvents(focus);
+						if(onFocusLoaded != null) onFocusLoaded.run();
+					}
+					DataManager.setEvents(contents.getEvents());
+					generation = contents.getJournalGeneration();
+				} else {
+					loaded = deserializeLegacy(file);
+				}
+			}
+			if(!loaded) return false;
+			
+			Path journalPath = journalPath();
+			Path rotatedPath = Journal.rotatedPath(journalPath);
+			boolean foldRotated = replayIfNewer(rotatedPath);
+			replayIfNewer(journalPath);
+			
+			journal = new Journal(journalPath, generation, COMPACTION_THRESHOLD, Serializer::compactInBackground);
+			DataManager.setJournal(journal);
+			dataLoaded = true;
+			if(foldRotated) serialize();
+			return true;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+	
+	/**
+	 * Reads only the theme stored in the configured file's header, without loading any events,
+	 * so that the window can be styled before the data has been loaded.
+	 *
+	 * @return the stored theme, or {@code null} if there is none or the file cannot be read
+	 */
+	public static Theme peekTheme() {
+		if(file == null || !file.exists()) return null;
+		try {
+			return BinaryFormat.isBinary(file.toPath()) ? BinaryFormat.readTheme(file.toPath()) : null;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+	
+	/**
+	 * Makes every change so far durable. With a journal attached this only syncs the
+	 * journal; otherwise, or if the journal cannot be synced or has lost a record to a failed
+	 * write, the full data set is serialized. Like {@link #serialize()}, this writes nothing
+	 * until {@link #deserialize()} has succeeded.
+	 *
+	 * @return {@code true} if the data was saved; {@code false} if no data has been loaded
+	 *         or an I/O error occurred
+	 */
+	@SuppressWarnings("try")
+	public static boolean save() {
+		try(Metrics.Span span = SAVE_TIMER.start()) {
+			if(!dataLoaded) return false;
+			if(journal == null) return serialize();
+			try {
+				journal.sync();
+				return true;
+			} catch (IOException e) {
+				e.printStackTrace();
+				return serialize();
+			}
+		}
+	}
+	
+	/**
+	 * Saves all changes as {@link #save()} does and releases the journal, waiting briefly
+	 * for a running compaction to finish. The journal is detached from {@link DataManager}
+	 * before it is closed, so later changes are not recorded in a closed file. Intended to
+	 * be called once when the application shuts down.
+	 *
+	 * @return {@code true} if the data was saved; {@code false} if an I/O error occurred
+	 */
+	public static boolean close() {
+		compactor.shutdown();
+		try {
+			compactor.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if(journal == null) return serialize();
+		boolean saved = save();
+		Journal closing = journal;
+		DataManager.setJournal(null);
+		journal = null;
+		try {
+			closing.close();
+			return saved;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+	
+	/**
+	 * Schedules a compaction of the journal into a new snapshot on the background thread,
+	 * unless one is already pending.
+	 */
+	private static void compactInBackground() {
+		if(!compactionScheduled.compareAndSet(false, true)) return;
+		try {
+			compactor.execute(() -> {
+				try {
+					serialize();
+				} finally {
+					compactionScheduled.set(false);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			compactionScheduled.set(false);
+		}
+	}
+	
+	/**
+	 * Replays the given journal file if it exists and was not yet folded into the loaded
+	 * snapshot; a journal the snapshot already contains is deleted.
+	 *
+	 * @return {@code true} if the journal was replayed
+	 */
+	private static boolean replayIfNewer(Path journalFile) throws IOException {
+		if(!Files.exists(journalFile)) return false;
+		if(Journal.readGeneration(journalFile) < generation) {
+			Files.delete(journalFile);
+			return false;
+		}
+		Journal.replay(journalFile);
+		return true;
+	}
+	
+	private static Path journalPath() {
+		return file.toPath().resolveSibling(file.getName() + ".journal");
+	}
+	
+	/**
+	 * Performs the one-time conversion of a legacy serialized data file. If the configured
+	 * file does not exist yet and {@code legacyFile} does, the legacy data is loaded into
+	 * {@link DataManager}, written to the configured file in the binary format, and the
+	 * legacy file is renamed with a ".migrated" suffix so it is not converted again.
+	 * <p>
+	 * If the legacy file cannot be read or the converted data cannot be written, the
+	 * events, categories, and recurring events read so far are cleared from DataManager
+	 * and nothing is written, so that the conversion is attempted again on the next start.
+	 * Callers must then treat the data as not loaded.
+	 * </p>
+	 *
+	 * @param legacyFile the file written by Java object serialization
+	 * @return {@code true} if there was nothing to migrate or the migration succeeded;
+	 *         {@code false} if a legacy file exists but could not be migrated
+	 */
+	public static boolean migrateLegacy(File legacyFile) {
+		if(file == null || file.exists() || !legacyFile.exists()) return true;
+		if(deserializeLegacy(legacyFile)) {
+			try {
+				writeSnapshot();
+				if(!legacyFile.renameTo(new File(legacyFile.getPath() + ".migrated"))) {
+					System.err.println("Could not rename migrated file " + legacyFile);
+				}
+				return true;
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		DataManager.setEvents(Collections.<Event>emptyList());
+		DataManager.setCategories(Collections.<EventCategory>emptyList());
+		DataManager.setRecurringEvents(Collections.<RecurringEvent>emptyList());
+		return false;
+	}
+	
+	/**
+	 * Reads a data file written by Java object serialization into {@link DataManager}.
+	 *
+	 * @param legacyFile the file to read
+	 * @return {@code true} if the file was read; {@code false} if an I/O error occurred or
+	 *         the file holds objects of unknown or unexpected classes
+	 */
+	@SuppressWarnings("unchecked")
+	private static boolean deserializeLegacy(File legacyFile) {
+		try(ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(legacyFile)))) {
 			ArrayList<Event> savedEvents = (ArrayList<Event>) ois.readObject();
 			ArrayList<EventCategory> savedCategories = (ArrayList<EventCategory>) ois.readObject();
 			Theme savedTheme = (Theme) ois.readObject();
 			
-			DataManager.getEvents().clear();
-			DataManager.getEvents().addAll(savedEvents);
-			
-			DataManager.getCategories().clear();
-			DataManager.getCategories().addAll(savedCategories);
+			DataManager.setEvents(savedEvents);
+			DataManager.setCategories(savedCategories);
 			
 			DataManager.setTheme(savedTheme);
 			return true;
-		} catch (IOException | ClassNotFoundException e) {
+		} catch (IOException | ClassNotFoundException | ClassCastException e) {
 			e.printStackTrace();
 			return false;
 		}
@@ -0,0 +1,90 @@
+package onthedocket.utils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+
+/**
+ * Converts between {@link LocalDateTime} values and a compact count of minutes since
+ * 1970-01-01T00:00. Calendar times are wall-clock times, so the conversion ignores time zones
+ * and always uses {@link ZoneOffset#UTC} internally. This class is non-instantiable.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class EpochMinutes {
+	/**
+	 * The number of minutes in one calendar day.
+	 */
+	public static final long MINUTES_PER_DAY = 24 * 60;
+
+	/**
+	 * Private constructor to prevent external instantiation.
+	 *
+	 * @throws AssertionError always thrown to enforce non-instantiability
+	 */
+	private EpochMinutes() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Returns the epoch minute of the given date-time, discarding seconds and nanoseconds.
+	 *
+	 * @param dateTime the date-time to convert; must not be null
+	 * @return the number of minutes between the epoch and {@code dateTime}
+	 */
+	public static long of(LocalDateTime dateTime) {
+		return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+	}
+
+	/**
+	 * Returns the date-time corresponding to the given epoch minute.
+	 *
+	 * @param epochMinute the number of minutes since the epoch
+	 * @return the matching {@link LocalDateTime}
+	 */
+	public static LocalDateTime toDateTime(long epochMinute) {
+		return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+	}
+
+	/**
+	 * Returns the epoch minute of midnight at the start of the given date.
+	 *
+	 * @param date the date; must not be null
+	 * @return the first epoch minute of {@code date}
+	 */
+	public static long startOf(LocalDate date) {
+		return date.toEpochDay() * MINUTES_PER_DAY;
+	}
+
+	/**
+	 * Returns the epoch minute of 23:59 on the given date, the last minute of that day.
+	 *
+	 * @param date the date; must not be null
+	 * @return the last epoch minute of {@code date}
+	 */
+	public static long endOf(LocalDate date) {
+		return startOf(date) + MINUTES_PER_DAY - 1;
+	}
+
+	/**
+	 * Returns the epoch minute of the given date at the given time of day.
+	 *
+	 * @param date the date; must not be null
+	 * @param time the time of day; must not be null
+	 * @return the epoch minute of {@code date} at {@code time}
+	 */
+	public static long of(LocalDate date, LocalTime time) {
+		return startOf(date) + time.getHour() * 60 + time.getMinute();
+	}
+
+	/**
+	 * Returns the date containing the given epoch minute.
+	 *
+	 * @param epochMinute the number of minutes since the epoch
+	 * @return the {@link LocalDate} in which {@code epochMinute} falls
+	 */
+	public static LocalDate toDate(long epochMinute) {
+		return LocalDate.ofEpochDay(Math.floorDiv(epochMinute, MINUTES_PER_DAY));
+	}
+}
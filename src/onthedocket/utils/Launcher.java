@@ -1,25 +1,87 @@
 package onthedocket.utils;
 
 import java.io.File;
+import java.time.Duration;
+import java.time.LocalDate;
 
-import onthedocket.persistence.DataManager;
+import javax.swing.SwingUtilities;
+
+import onthedocket.persistence.AutosaveService;
 import onthedocket.persistence.Serializer;
 import onthedocket.views.MainView;
 
+/**
+ * Entry point of the application. The window is created on the Swing event thread right
+ * away, styled with the theme read from the data file's header, while the stored data is
+ * loaded on a background thread: the current month's events first, then everything else.
+ * Startup milestones are recorded with {@link StartupTimer}.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
 public class Launcher {
-	
+	private static MainView view;
+	private static volatile AutosaveService autosave;
+
 	public static void main(String[] args) {
-		File serFile = new File("onthedocket.ser");
-		new Serializer(serFile);
-		Serializer.deserialize();
-		if(DataManager.getTheme() == null) {
-			new MainView();
-		} else {
-			new MainView(DataManager.getTheme());
-		}
-		
+		StartupTimer.mark("main");
+		File dataFile = new File("onthedocket.dat");
+		new Serializer(dataFile);
+		Theme theme = Serializer.peekTheme();
+
+		SwingUtilities.invokeLater(() -> {
+			view = theme == null ? new MainView() : new MainView(theme);
+			view.showLoading();
+			StartupTimer.mark("frame shown");
+		});
+
+		Thread loader = new Thread(Launcher::load, "data-loader");
+		loader.start();
+
 		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-			Serializer.serialize();
+			// Until loading finishes the in-memory data is incomplete and must not be saved.
+			if(autosave != null) {
+				autosave.stop();
+				Serializer.close();
+			}
 		}));
 	}
+
+	/**
+	 * Runs on the loader thread: migrates legacy data if needed, loads the current month,
+	 * then the rest, and finally enables editing and autosave. The calendar refreshes itself
+	 * as each part of the data is published.
+	 * <p>
+	 * If the data cannot be loaded, or a legacy data file exists but cannot be migrated,
+	 * autosave is never started, so the files on disk are left as they are rather than
+	 * overwritten with an empty calendar, and the window reports the failure instead of
+	 * editing. Either way the window leaves its loading state.
+	 * </p>
+	 */
+	private static void load() {
+		AutosaveService service = null;
+		try {
+			LocalDate today = LocalDate.now();
+			LocalDate first = today.withDayOfMonth(1);
+			LocalDate last = today.withDayOfMonth(today.lengthOfMonth());
+			if(Serializer.migrateLegacy(new File("onthedocket.ser"))
+					&& Serializer.deserialize(first, last, () -> StartupTimer.mark("current month loaded"))) {
+				StartupTimer.mark("all data loaded");
+				service = new AutosaveService(Duration.ofSeconds(5), Duration.ofSeconds(60));
+				service.start();
+				autosave = service;
+			}
+		} catch(RuntimeException e) {
+			e.printStackTrace();
+		} finally {
+			AutosaveService started = service;
+			SwingUtilities.invokeLater(() -> {
+				if(started != null) {
+					view.attachAutosave(started);
+					view.showLoaded();
+				} else {
+					view.showLoadFailed();
+				}
+			});
+		}
+	}
 }
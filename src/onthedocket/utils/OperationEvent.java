@@ -0,0 +1,33 @@
+package onthedocket.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event covering one timed operation, emitted by {@link Metrics.Span}.
+ * Spans only create the event while a recording is running, and a recording started with
+ * {@code -XX:StartFlightRecording} or from JDK Mission Control shows each operation's duration
+ * under the "OnTheDocket" category.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@Name("onthedocket.Operation")
+@Label("Operation")
+@Category("OnTheDocket")
+@Description("A timed operation such as a data query, a save, or building the month view")
+@StackTrace(false)
+final class OperationEvent extends jdk.jfr.Event {
+	@Label("Area")
+	@Description("The part of the application: data, persistence, view, or dialog")
+	String area;
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Items")
+	@Description("The number of events or days the operation handled, where meaningful")
+	int items;
+}
@@ -0,0 +1,54 @@
+package onthedocket.utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records named milestones during application startup, measured in milliseconds since the
+ * JVM started, such as the frame's first paint and the completion of data loading. Each
+ * milestone is kept only the first time it is reached, so tracking regressions in
+ * time-to-first-paint only requires comparing the recorded values between versions.
+ * <p>
+ * Milestones are printed to standard error as they happen when the system property
+ * {@code onthedocket.startupTiming} is set to {@code true}. This class is non-instantiable.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class StartupTimer {
+	private static final boolean PRINT = Boolean.getBoolean("onthedocket.startupTiming");
+	private static final Map<String, Long> milestones = new LinkedHashMap<String, Long>();
+
+	/**
+	 * Private constructor to prevent external instantiation.
+	 *
+	 * @throws AssertionError always thrown to enforce non-instantiability
+	 */
+	private StartupTimer() {
+		throw new AssertionError();
+	}
+
+	/**
+	 * Records that the named milestone has been reached, unless it was recorded before.
+	 *
+	 * @param milestone a short description, such as "first paint"
+	 */
+	public static synchronized void mark(String milestone) {
+		if(milestones.containsKey(milestone)) return;
+		long elapsed = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+		milestones.put(milestone, elapsed);
+		if(PRINT) {
+			System.err.println("[startup] " + milestone + ": " + elapsed + " ms");
+		}
+	}
+
+	/**
+	 * Returns every recorded milestone in the order it was reached.
+	 *
+	 * @return a copy of the milestones, mapped to milliseconds since JVM start
+	 */
+	public static synchronized Map<String, Long> getMilestones() {
+		return new LinkedHashMap<String, Long>(milestones);
+	}
+}
@@ -6,13 +6,19 @@ import java.awt.FlowLayout;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
+import java.time.DayOfWeek;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.Period;
 import java.time.ZoneId;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 import javax.swing.DefaultComboBoxModel;
 import javax.swing.DefaultListCellRenderer;
@@ -27,23 +33,35 @@ import javax.swing.JPanel;
 import javax.swing.JSpinner;
 import javax.swing.JTextField;
 import javax.swing.SpinnerDateModel;
+import javax.swing.SpinnerNumberModel;
 
+import onthedocket.models.CategoryRegistry;
 import onthedocket.models.Event;
 import onthedocket.models.EventCategory;
+import onthedocket.models.RecurrenceRule;
+import onthedocket.models.RecurringEvent;
+import onthedocket.persistence.ConflictDetector;
 import onthedocket.persistence.DataManager;
+import onthedocket.utils.Metrics;
 
 /**
  * Dialog for creating a new calendar event. Presents input fields for event name,
- * start date/time, end date/time, and category selection. Performs validation
- * and, on confirmation, adds the event to the DataManager.
+ * start date/time, end date/time, category selection, and an optional repetition.
+ * Performs validation and, on confirmation, adds the event (or recurring event)
+ * to the DataManager.
  * 
  * @author Sitatunga147 (with moderate AI assistance)
  */
 @SuppressWarnings("serial")
 public class AddEventDialog extends JDialog {
+	private static final Metrics.Timer OPEN_TIMER = Metrics.timer("dialog", "addEvent");
+	private static final Period CONFLICT_WINDOW = Period.ofYears(1);
+	private static final int MAX_LISTED_CONFLICTS = 10;
 	private JTextField nameField;
 	private JSpinner startDateSpinner, startTimeSpinner, endDateSpinner, endTimeSpinner;
 	private JComboBox<EventCategory> categoryCombo;
+	private JComboBox<String> repeatCombo;
+	private JSpinner repeatCountSpinner;
 	private boolean added = false;
 	
 	/**
@@ -54,6 +72,7 @@ public class AddEventDialog extends JDialog {
      */
 	public AddEventDialog(JFrame owner) {
 		super(owner, "Add Event", true);
+		OPEN_TIMER.timeUntilShown(this);
 		initComponents();
 		pack();
 		setLocationRelativeTo(owner);
@@ -70,6 +89,7 @@ public class AddEventDialog extends JDialog {
      */
 	public AddEventDialog(JFrame owner, LocalDate defaultDate) {
 		super(owner, "Add Event", true);
+		OPEN_TIMER.timeUntilShown(this);
 		initComponents();
 		LocalDateTime startDateTime = defaultDate.atTime(LocalTime.now().withSecond(0).withNano(0));
 		Date initial = Date.from(startDateTime.atZone(ZoneId.systemDefault()).toInstant());
@@ -82,6 +102,25 @@ public class AddEventDialog extends JDialog {
 		setLocationRelativeTo(owner);
 	}
 	
+	/**
+     * Constructs a modal dialog owned by the given frame with the start and end
+     * spinners preset to the given times, and positions it relative to its owner.
+     *
+     * @param owner the parent frame to which this dialog is modal
+     * @param start the initial start of the event
+     * @param end the initial end of the event
+     */
+	public AddEventDialog(JFrame owner, LocalDateTime start, LocalDateTime end) {
+		this(owner);
+		Date initialStart = Date.from(start.atZone(ZoneId.systemDefault()).toInstant());
+		Date initialEnd = Date.from(end.atZone(ZoneId.systemDefault()).toInstant());
+		
+		startDateSpinner.setValue(initialStart);
+		startTimeSpinner.setValue(initialStart);
+		endDateSpinner.setValue(initialEnd);
+		endTimeSpinner.setValue(initialEnd);
+	}
+	
 	/**
      * Indicates whether the "Add" action resulted in a new event being stored.
      *
@@ -144,12 +183,7 @@ public class AddEventDialog extends JDialog {
 		gbc.gridx = 0; gbc.gridy = 5;
         content.add(new JLabel("Category:"), gbc);
         categoryCombo = new JComboBox<>(new DefaultComboBoxModel<>(DataManager.getCategories().toArray(new EventCategory[0])));
-        for (EventCategory preset : new EventCategory[]{
-                EventCategory.DEFAULT,
-                EventCategory.WORK,
-                EventCategory.SCHOOL,
-                EventCategory.PERSONAL
-        }) {
+        for (EventCategory preset : CategoryRegistry.presets()) {
             if (!DataManager.getCategories().contains(preset)) {
                 categoryCombo.addItem(preset);
             }
@@ -158,6 +192,20 @@ public class AddEventDialog extends JDialog {
         gbc.gridx = 1;
         content.add(categoryCombo, gbc);
 
+        gbc.gridx = 0; gbc.gridy = 6;
+        content.add(new JLabel("Repeats:"), gbc);
+        repeatCombo = new JComboBox<>(new String[]{"Never", "Daily", "Weekly", "Monthly", "Yearly"});
+        gbc.gridx = 1;
+        content.add(repeatCombo, gbc);
+
+        gbc.gridx = 0; gbc.gridy = 7;
+        content.add(new JLabel("Times (0 = no end):"), gbc);
+        repeatCountSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 9999, 1));
+        repeatCountSpinner.setEnabled(false);
+        repeatCombo.addActionListener(e -> repeatCountSpinner.setEnabled(repeatCombo.getSelectedIndex() > 0));
+        gbc.gridx = 1;
+        content.add(repeatCountSpinner, gbc);
+
 		
 		JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
 		JButton addButton = new JButton("ADD");
@@ -199,7 +247,8 @@ public class AddEventDialog extends JDialog {
 	
 	/**
      * Validates the name, ensures the end is not before the start,
-     * and if valid, constructs a new Event and adds it to DataManager.
+     * and if valid, constructs a new Event, or a RecurringEvent if a repetition
+     * was chosen, and adds it to DataManager.
      * Sets the added flag and closes the dialog.
      */
 	private void onAdd() {
@@ -217,11 +266,60 @@ public class AddEventDialog extends JDialog {
         }
 
         EventCategory category = (EventCategory) categoryCombo.getSelectedItem();
-        DataManager.addEvent(new Event(name, start, end, category));
+        int repeat = repeatCombo.getSelectedIndex();
+        if (repeat > 0) {
+            RecurrenceRule rule = new RecurrenceRule(RecurrenceRule.Frequency.values()[repeat - 1], 1,
+                    Collections.<DayOfWeek>emptySet(), null, (Integer) repeatCountSpinner.getValue(), Collections.<LocalDate>emptySet());
+            RecurringEvent series = new RecurringEvent(name, start, end, category, rule);
+            if (!confirmConflicts(series.occurrencesBetween(start, start.plus(CONFLICT_WINDOW)))) {
+                return;
+            }
+            DataManager.addRecurringEvent(series);
+        } else {
+            Event event = new Event(name, start, end, category);
+            if (!confirmConflicts(Collections.singletonList(event))) {
+                return;
+            }
+            DataManager.addEvent(event);
+        }
         added = true;
         dispose();
     }
 	
+	/**
+     * Warns the user if the given events overlap events already in the calendar,
+     * and lets them decide whether to add them anyway. For a recurring event, the
+     * occurrences within {@link #CONFLICT_WINDOW} of its first start are checked.
+     * Only the first {@link #MAX_LISTED_CONFLICTS} conflicts are listed by name.
+     *
+     * @param candidates the events about to be added
+     * @return true if there is no conflict or the user chose to add anyway
+     */
+	private boolean confirmConflicts(List<? extends Event> candidates) {
+        Set<Event> conflicts = new LinkedHashSet<>();
+        for (Event candidate : candidates) {
+            conflicts.addAll(ConflictDetector.conflictsWith(candidate));
+        }
+        if (conflicts.isEmpty()) {
+            return true;
+        }
+
+        StringBuilder message = new StringBuilder("This event overlaps:\n");
+        int listed = 0;
+        for (Event e : conflicts) {
+            if (listed == MAX_LISTED_CONFLICTS) {
+                message.append("  and ").append(conflicts.size() - listed).append(" more\n");
+                break;
+            }
+            message.append("  ").append(e).append('\n');
+            listed++;
+        }
+        message.append("\nAdd it anyway?");
+        int choice = JOptionPane.showConfirmDialog(this, message.toString(), "Scheduling Conflict",
+            JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        return choice == JOptionPane.YES_OPTION;
+    }
+	
 	/**
      * Synchronizes the end-date and end-time spinners to default one hour
      * after the currently selected start date/time.
@@ -10,8 +10,13 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -23,7 +28,11 @@ import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 
 import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.models.RecurringEvent;
+import onthedocket.persistence.DataListener;
 import onthedocket.persistence.DataManager;
+import onthedocket.utils.Metrics;
 import onthedocket.utils.Theme;
 
 /**
@@ -31,6 +40,20 @@ import onthedocket.utils.Theme;
  * Fetches events from DataManager and displays them on their respective dates, or on each
  * date they span for multi-day events, using time labels and color-coded categories.
  * Supports theme changes and month navigation.
+ * <p>
+ * The month grid can be rendered in one of two {@link RenderMode}s: as a tree of Swing
+ * components per day and per event, or painted directly by a {@link PaintedMonthGrid},
+ * which stays fast no matter how many events a month holds.
+ * </p>
+ * <p>
+ * While displayed, the component listens to the DataManager and refreshes only the day
+ * cells touched by each change. Changes arriving in quick succession, possibly from
+ * background threads, are merged into a single refresh on the event dispatch thread.
+ * </p>
+ * <p>
+ * Day contents come from a {@link MonthModelCache} holding recently shown months with
+ * their labels already formatted, kept exact by the same change notifications.
+ * </p>
  *
  * @see onthedocket.persistence.DataManager
  * @see onthedocket.models.Event
@@ -41,10 +64,64 @@ import onthedocket.utils.Theme;
 @SuppressWarnings("serial")
 public class CalendarComponent extends JComponent {
 	private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("h:mm a");
+	private static final String MULTI_DAY_PROPERTY = "onthedocket.multiDay";
+	private static final Metrics.Timer UPDATE_TIMER = Metrics.timer("view", "updateWith");
+	private static final Metrics.Timer REFRESH_TIMER = Metrics.timer("view", "refreshDays");
+	private static final int CACHED_MONTHS = 12;
 	private LocalDate referenceDate;
 	private JPanel headerPanel, calendarPanel, bottomPanel;
+	private PaintedMonthGrid paintedGrid;
+	private RenderMode renderMode = RenderMode.COMPONENTS;
 	private Theme theme;
-	private ArrayList<Event> events;
+	private final Map<LocalDate, JPanel> dayCells = new HashMap<LocalDate, JPanel>();
+	private final MonthModelCache monthCache = new MonthModelCache(CACHED_MONTHS);
+	private final Object dirtyLock = new Object();
+	private LocalDate dirtyFirst, dirtyLast;
+	private final DataListener dataListener = new DataListener() {
+		@Override
+		public void eventsAdded(List<Event> added) {
+			invalidateEvents(added);
+		}
+		
+		@Override
+		public void eventsRemoved(List<Event> removed) {
+			invalidateEvents(removed);
+		}
+		
+		@Override
+		public void eventUpdated(Event oldEvent, Event newEvent) {
+			invalidateEvents(Arrays.asList(oldEvent, newEvent));
+		}
+		
+		@Override
+		public void eventsReplaced() {
+			invalidateDays(LocalDate.MIN, LocalDate.MAX);
+		}
+		
+		@Override
+		public void recurringEventsChanged(List<RecurringEvent> recurring) {
+			invalidateDays(LocalDate.MIN, LocalDate.MAX);
+		}
+		
+		@Override
+		public void categoriesChanged(List<EventCategory> categories) {
+			invalidateDays(LocalDate.MIN, LocalDate.MAX);
+		}
+	};
+	
+	/**
+	 * The ways in which the month grid can be rendered.
+	 */
+	public enum RenderMode {
+		/**
+		 * One panel per day and one panel with labels per event occurrence.
+		 */
+		COMPONENTS,
+		/**
+		 * A single lightweight component that paints every day cell itself.
+		 */
+		PAINTED
+	}
 	
 	/**
      * Creates a CalendarComponent for the current date using the default LIGHT theme.
@@ -70,29 +147,35 @@ public class CalendarComponent extends JComponent {
      */
 	public CalendarComponent(LocalDate date, Theme theme) {
 		this.referenceDate = date;
+		this.theme = theme;
 		
 		setLayout(new BorderLayout());
-		setTheme(theme);
+		updateWith(date);
 	}
 	
 	/**
      * Updates the calendar to display the month containing the new reference date,
      * rebuilds header, day cells, and bottom navigation, then repaints the component.
+     * The month's events come from the month cache, and the previous and next months
+     * are prefetched in the background so that navigating to them is immediate.
      *
      * @param newReferenceDate the date to center the calendar view on
      */
+	@SuppressWarnings("try")
 	public void updateWith(LocalDate newReferenceDate) {
-		this.referenceDate = newReferenceDate;
-		removeAll();
-		
-		events = DataManager.getEvents();
-		
-		initHeader();
-		initCalendar();
-		initBottom();
-		
-		revalidate();
-		repaint();
+		try(Metrics.Span span = UPDATE_TIMER.start()) {
+			this.referenceDate = newReferenceDate;
+			removeAll();
+			
+			initHeader();
+			initCalendar();
+			initBottom();
+			
+			revalidate();
+			repaint();
+			YearMonth month = YearMonth.from(newReferenceDate);
+			monthCache.prefetch(month.minusMonths(1), month.plusMonths(1));
+		}
 	}
 	
 	/**
@@ -137,6 +220,12 @@ public class CalendarComponent extends JComponent {
      * and panels rendered with an alternate color.
      */
 	private void initCalendar() {
+		dayCells.clear();
+		if(renderMode == RenderMode.PAINTED) {
+			initPaintedCalendar();
+			return;
+		}
+		
 		calendarPanel = new JPanel(new GridLayout(0, 7));
 		calendarPanel.setBackground(theme.getBackgroundColor());
 		int placeholders = referenceDate.withDayOfMonth(1).getDayOfWeek().getValue() % 7;
@@ -146,54 +235,201 @@ public class CalendarComponent extends JComponent {
 			calendarPanel.add(cell);
 		}
 		
+		MonthModelCache.MonthModel model = monthCache.get(YearMonth.from(referenceDate));
+		
 		for(int i = 1; i <= referenceDate.lengthOfMonth(); i++) {
 			LocalDate date = referenceDate.withDayOfMonth(i);
-			ArrayList<Event> todayEvents = new ArrayList<Event>();
-			for(Event e : events) {
-				LocalDate start = e.getStart().toLocalDate();
-				LocalDate end = e.getEnd().toLocalDate();
-				if(!date.isBefore(start) && !date.isAfter(end)) {
-					todayEvents.add(e);
-				}
-			}
 			JPanel cell = buildDayCell();
 			JLabel day = new JLabel(String.valueOf(i));
 			day.setForeground(theme.getSecondaryTextColor());
 			cell.add(day);
-			
-			for(Event e : todayEvents) {
-				JPanel eventPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-				LocalDate start = e.getStart().toLocalDate();
-				LocalDate end = e.getEnd().toLocalDate();
-				boolean isMultiDay = start.isBefore(end);
-				eventPanel.setBackground(isMultiDay ? theme.getSecondaryColor() : theme.getBackgroundColor());
-				
-				LocalDateTime cellStart = date.isEqual(start) ? e.getStart() : LocalDateTime.of(date, LocalTime.MIN);
-				LocalDateTime cellEnd = date.isEqual(end) ? e.getEnd() : LocalDateTime.of(date, LocalTime.of(23, 59));
-				JLabel timeLabel = new JLabel(cellStart.format(TIME_FORMATTER) + " - " + cellEnd.format(TIME_FORMATTER));
-				timeLabel.setForeground(theme.getPrimaryTextColor());
-				JLabel eventLabel = new JLabel(e.getName());
-				eventLabel.setForeground(e.getCategory().getColor());
-				eventPanel.add(timeLabel);
-				eventPanel.add(eventLabel);
-				cell.add(eventPanel);
-			}
+			addEventPanels(cell, model.getDay(date));
 			
 			final LocalDate cellDate = date;
 			cell.addMouseListener(new MouseAdapter() {
 				@Override
 				public void mouseClicked(MouseEvent me) {
-					JFrame owner = (JFrame) SwingUtilities.getWindowAncestor(CalendarComponent.this);
-					CellDialog dialog = new CellDialog(owner, cellDate);
-					dialog.setVisible(true);
+					openCellDialog(cellDate);
 				}
 			});
 			
+			dayCells.put(date, cell);
 			calendarPanel.add(cell);
 		}
 		add(calendarPanel, BorderLayout.CENTER);
 	}
 	
+	/**
+     * Initializes the month grid as a single {@link PaintedMonthGrid} for the
+     * current reference month.
+     */
+	private void initPaintedCalendar() {
+		paintedGrid = new PaintedMonthGrid(monthCache.get(YearMonth.from(referenceDate)), theme, this::openCellDialog);
+		add(paintedGrid, BorderLayout.CENTER);
+	}
+	
+	/**
+     * Opens the {@link CellDialog} offering actions for the given date, unless
+     * this component is disabled.
+     *
+     * @param date the date whose cell was clicked
+     */
+	private void openCellDialog(LocalDate date) {
+		if(!isEnabled()) return;
+		JFrame owner = (JFrame) SwingUtilities.getWindowAncestor(this);
+		CellDialog dialog = new CellDialog(owner, date);
+		dialog.setVisible(true);
+	}
+	
+	/**
+     * Formats the portion of an event that falls on the given date as a time range.
+     * Days before the event's last day end at 11:59 PM, and days after its first
+     * day begin at 12:00 AM.
+     *
+     * @param e the event to describe
+     * @param date a date covered by {@code e}
+     * @return a label such as "9:00 AM - 10:00 AM"
+     */
+	static String formatTimeRange(Event e, LocalDate date) {
+		LocalDateTime cellStart = date.isEqual(e.getStart().toLocalDate()) ? e.getStart() : LocalDateTime.of(date, LocalTime.MIN);
+		LocalDateTime cellEnd = date.isEqual(e.getEnd().toLocalDate()) ? e.getEnd() : LocalDateTime.of(date, LocalTime.of(23, 59));
+		return cellStart.format(TIME_FORMATTER) + " - " + cellEnd.format(TIME_FORMATTER);
+	}
+	
+	/**
+     * Appends one event panel per entry to the given day cell. Each panel shows the
+     * portion of the event falling on the cell's date; multi-day events are rendered
+     * with an alternate color.
+     *
+     * @param cell the day cell to populate
+     * @param entries the entries of the cell's date, from the month model
+     */
+	private void addEventPanels(JPanel cell, List<MonthModelCache.Entry> entries) {
+		for(MonthModelCache.Entry entry : entries) {
+			JPanel eventPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+			boolean isMultiDay = entry.isMultiDay();
+			eventPanel.setBackground(isMultiDay ? theme.getSecondaryColor() : theme.getBackgroundColor());
+			eventPanel.putClientProperty(MULTI_DAY_PROPERTY, isMultiDay);
+			
+			JLabel timeLabel = new JLabel(entry.getTimeLabel());
+			timeLabel.setForeground(theme.getPrimaryTextColor());
+			JLabel eventLabel = new JLabel(entry.getEvent().getName());
+			eventLabel.setForeground(entry.getColor());
+			eventPanel.add(timeLabel);
+			eventPanel.add(eventLabel);
+			cell.add(eventPanel);
+		}
+	}
+	
+	/**
+     * Starts listening for DataManager changes when this component is added to a displayed
+     * hierarchy, and catches up on anything that changed while it was not listening.
+     */
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		DataManager.addListener(dataListener);
+		monthCache.clear();
+		refresh();
+	}
+	
+	/**
+     * Stops listening for DataManager changes when this component is removed from
+     * a displayed hierarchy.
+     */
+	@Override
+	public void removeNotify() {
+		DataManager.removeListener(dataListener);
+		super.removeNotify();
+	}
+	
+	/**
+     * Marks the days spanned by the given events as needing a refresh.
+     *
+     * @param changed the events that were added or removed
+     */
+	private void invalidateEvents(List<Event> changed) {
+		LocalDate first = null, last = null;
+		for(Event e : changed) {
+			LocalDate start = e.getStart().toLocalDate();
+			LocalDate end = e.getEnd().toLocalDate();
+			if(first == null || start.isBefore(first)) first = start;
+			if(last == null || end.isAfter(last)) last = end;
+		}
+		if(first != null) invalidateDays(first, last);
+	}
+	
+	/**
+     * Invalidates the given days in the month cache right away, then merges them into the
+     * pending refresh range and, if no refresh is pending yet, schedules one on the event
+     * dispatch thread. May be called from any thread.
+     *
+     * @param first the first day to refresh
+     * @param last the last day to refresh
+     */
+	private void invalidateDays(LocalDate first, LocalDate last) {
+		monthCache.invalidate(first, last);
+		boolean schedule;
+		synchronized(dirtyLock) {
+			schedule = dirtyFirst == null;
+			if(schedule || first.isBefore(dirtyFirst)) dirtyFirst = first;
+			if(schedule || last.isAfter(dirtyLast)) dirtyLast = last;
+		}
+		if(schedule) {
+			SwingUtilities.invokeLater(() -> {
+				LocalDate from, to;
+				synchronized(dirtyLock) {
+					from = dirtyFirst;
+					to = dirtyLast;
+					dirtyFirst = dirtyLast = null;
+				}
+				refreshDays(from, to);
+			});
+		}
+	}
+	
+	/**
+     * Re-lays out every day cell of the displayed month from the current contents of
+     * the DataManager, keeping the header and navigation controls.
+     */
+	public void refresh() {
+		refreshDays(referenceDate.withDayOfMonth(1), referenceDate.withDayOfMonth(referenceDate.lengthOfMonth()));
+	}
+	
+	/**
+     * Rebuilds the event panels of each displayed day cell from {@code first} to {@code last}
+     * (inclusive) and revalidates only those cells, leaving the rest of the grid untouched.
+     *
+     * @param first the first date to refresh
+     * @param last the last date to refresh
+     */
+	public void refreshDays(LocalDate first, LocalDate last) {
+		try(Metrics.Span span = REFRESH_TIMER.start()) {
+			LocalDate monthStart = referenceDate.withDayOfMonth(1);
+			LocalDate monthEnd = referenceDate.withDayOfMonth(referenceDate.lengthOfMonth());
+			if(first.isBefore(monthStart)) first = monthStart;
+			if(last.isAfter(monthEnd)) last = monthEnd;
+			if(first.isAfter(last)) return;
+			span.setItems((int) ChronoUnit.DAYS.between(first, last) + 1);
+			
+			MonthModelCache.MonthModel model = monthCache.get(YearMonth.from(referenceDate));
+			for(LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+				if(renderMode == RenderMode.PAINTED) {
+					paintedGrid.setDayEntries(date, model.getDay(date));
+					continue;
+				}
+				JPanel cell = dayCells.get(date);
+				if(cell == null) continue;
+				while(cell.getComponentCount() > 1) {
+					cell.remove(cell.getComponentCount() - 1);
+				}
+				addEventPanels(cell, model.getDay(date));
+				cell.revalidate();
+				cell.repaint();
+			}
+		}
+	}
+	
 	/**
      * Initializes and lays out the bottom navigation panel, including
      * month‐prev/next buttons and the current month label.
@@ -223,18 +459,84 @@ public class CalendarComponent extends JComponent {
 		add(bottomPanel, BorderLayout.SOUTH);
 	}
 
+	public LocalDate getReferenceDate() {
+		return referenceDate;
+	}
+
+	public RenderMode getRenderMode() {
+		return renderMode;
+	}
+	
+	/**
+     * Switches the month grid to the given render mode and rebuilds the calendar.
+     *
+     * @param renderMode the new RenderMode to use
+     */
+	public void setRenderMode(RenderMode renderMode) {
+		this.renderMode = renderMode;
+		updateWith(referenceDate);
+	}
+
 	public Theme getTheme() {
 		return theme;
 	}
 
 	/**
-     * Applies a new theme to this component and refreshes its contents
-     * to reflect updated styling.
+     * Applies a new theme to this component by restyling the existing header, day cells,
+     * event panels, and navigation controls in place, then repaints. No components are
+     * rebuilt; in {@link RenderMode#PAINTED} mode the grid is simply repainted.
      *
      * @param theme the new Theme to set
      */
 	public void setTheme(Theme theme) {
 		this.theme = theme;
-		updateWith(referenceDate);
+		
+		for(Component headerCell : headerPanel.getComponents()) {
+			headerCell.setBackground(theme.getSecondaryColor());
+			for(Component label : ((JPanel) headerCell).getComponents()) {
+				label.setForeground(theme.getPrimaryTextColor());
+			}
+		}
+		
+		if(renderMode == RenderMode.PAINTED) {
+			paintedGrid.setTheme(theme);
+		} else {
+			calendarPanel.setBackground(theme.getBackgroundColor());
+			for(Component cell : calendarPanel.getComponents()) {
+				cell.setBackground(theme.getBackgroundColor());
+			}
+			for(JPanel cell : dayCells.values()) {
+				restyleDayCell(cell);
+			}
+		}
+		
+		bottomPanel.setBackground(theme.getBackgroundColor());
+		for(Component c : bottomPanel.getComponents()) {
+			if(c instanceof JButton) {
+				c.setBackground(theme.getAccentColor());
+			}
+			c.setForeground(theme.getPrimaryTextColor());
+		}
+		
+		repaint();
+	}
+	
+	/**
+     * Restyles a day cell and its event panels with the current theme. The first child
+     * is the day number label; each following child is an event panel holding a time
+     * label and a category-colored name label, which keeps its color.
+     *
+     * @param cell the day cell to restyle
+     */
+	private void restyleDayCell(JPanel cell) {
+		cell.setBackground(theme.getBackgroundColor());
+		cell.setBorder(BorderFactory.createLineBorder(theme.getSecondaryColor()));
+		cell.getComponent(0).setForeground(theme.getSecondaryTextColor());
+		for(int i = 1; i < cell.getComponentCount(); i++) {
+			JPanel eventPanel = (JPanel) cell.getComponent(i);
+			boolean isMultiDay = Boolean.TRUE.equals(eventPanel.getClientProperty(MULTI_DAY_PROPERTY));
+			eventPanel.setBackground(isMultiDay ? theme.getSecondaryColor() : theme.getBackgroundColor());
+			eventPanel.getComponent(0).setForeground(theme.getPrimaryTextColor());
+		}
 	}
 }
@@ -13,6 +13,8 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
 
+import onthedocket.utils.Metrics;
+
 /**
  * A modal dialog displayed when a calendar cell is clicked, offering options
  * to add or remove events for a specific date. The dialog title reflects
@@ -23,6 +25,7 @@ import javax.swing.SwingUtilities;
  */
 @SuppressWarnings("serial")
 public class CellDialog extends JDialog {
+	private static final Metrics.Timer OPEN_TIMER = Metrics.timer("dialog", "cell");
 	private LocalDate selectedDate;
 	
 	/**
@@ -35,6 +38,7 @@ public class CellDialog extends JDialog {
      */
 	public CellDialog(JFrame owner, LocalDate selectedDate) {
 		super(owner, selectedDate.toString(), true);
+		OPEN_TIMER.timeUntilShown(this);
 		this.selectedDate = selectedDate;
 		initComponents();
 		pack();
@@ -62,9 +66,6 @@ public class CellDialog extends JDialog {
 		    JFrame owner = (JFrame) SwingUtilities.getWindowAncestor(this);
 		    AddEventDialog addDialog = new AddEventDialog(owner, selectedDate);
 		    addDialog.setVisible(true);
-		    if (addDialog.wasAdded()) {
-		    	((MainView) owner).getCalendarComponent().updateWith(selectedDate);
-		    }
 		    dispose();
 		});
 		content.add(addButton, gbc);
@@ -74,9 +75,6 @@ public class CellDialog extends JDialog {
 			JFrame owner = (JFrame) SwingUtilities.getWindowAncestor(this);
 			RemoveEventDialog removeDialog = new RemoveEventDialog(owner, selectedDate);
 			removeDialog.setVisible(true);
-			if(removeDialog.wasRemoved()) {
-				((MainView) owner).getCalendarComponent().updateWith(selectedDate);
-			}
 			dispose();
 		});
 		content.add(removeButton, gbc);
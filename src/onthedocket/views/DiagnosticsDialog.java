@@ -0,0 +1,108 @@
+package onthedocket.views;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.filechooser.FileNameExtensionFilter;
+
+import onthedocket.utils.Metrics;
+
+/**
+ * A non-modal dialog showing the application's {@link Metrics}: call counts and latency
+ * percentiles for data queries and mutations, saving and loading, building the month view,
+ * and opening dialogs, along with counters and startup milestones. The report can be
+ * refreshed, reset, and exported as plain text or JSON to attach to a bug report.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@SuppressWarnings("serial")
+public class DiagnosticsDialog extends JDialog {
+	private final JTextArea report = new JTextArea(24, 100);
+
+	/**
+	 * Constructs a diagnostics dialog owned by the given frame.
+	 *
+	 * @param owner the parent frame used for positioning
+	 */
+	public DiagnosticsDialog(JFrame owner) {
+		super(owner, "Diagnostics", false);
+		initComponents();
+		refresh();
+		pack();
+		setLocationRelativeTo(owner);
+	}
+
+	/**
+	 * Lays out the report and the buttons.
+	 */
+	private void initComponents() {
+		report.setEditable(false);
+		report.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+		report.setBorder(BorderFactory.createEmptyBorder(4, 4, 4, 4));
+
+		JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+		JButton refreshButton = new JButton("REFRESH");
+		refreshButton.addActionListener(e -> refresh());
+		JButton resetButton = new JButton("RESET");
+		resetButton.addActionListener(e -> {
+			Metrics.reset();
+			refresh();
+		});
+		JButton textButton = new JButton("EXPORT TEXT");
+		textButton.addActionListener(e -> export("txt", "Text files (*.txt)", Metrics.toText()));
+		JButton jsonButton = new JButton("EXPORT JSON");
+		jsonButton.addActionListener(e -> export("json", "JSON files (*.json)", Metrics.toJson()));
+		JButton closeButton = new JButton("CLOSE");
+		closeButton.addActionListener(e -> dispose());
+		buttons.add(refreshButton);
+		buttons.add(resetButton);
+		buttons.add(textButton);
+		buttons.add(jsonButton);
+		buttons.add(closeButton);
+		getRootPane().setDefaultButton(refreshButton);
+
+		getContentPane().setLayout(new BorderLayout());
+		getContentPane().add(new JScrollPane(report), BorderLayout.CENTER);
+		getContentPane().add(buttons, BorderLayout.SOUTH);
+	}
+
+	/**
+	 * Replaces the shown report with the current metrics.
+	 */
+	private void refresh() {
+		report.setText(Metrics.toText());
+		report.setCaretPosition(0);
+	}
+
+	/**
+	 * Asks for a file name and writes the given dump to it.
+	 */
+	private void export(String extension, String description, String contents) {
+		JFileChooser chooser = new JFileChooser();
+		chooser.setFileFilter(new FileNameExtensionFilter(description, extension));
+		chooser.setSelectedFile(new File("onthedocket-diagnostics." + extension));
+		if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+			return;
+		}
+		try {
+			Files.writeString(chooser.getSelectedFile().toPath(), contents, StandardCharsets.UTF_8);
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			JOptionPane.showMessageDialog(this, "Could not export diagnostics: " + ex.getMessage(), "Export Failed", JOptionPane.ERROR_MESSAGE);
+		}
+	}
+}
@@ -0,0 +1,235 @@
+package onthedocket.views;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.FlowLayout;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.ListSelectionModel;
+import javax.swing.SpinnerDateModel;
+import javax.swing.SpinnerNumberModel;
+
+import onthedocket.models.CategoryRegistry;
+import onthedocket.models.EventCategory;
+import onthedocket.persistence.DataManager;
+import onthedocket.persistence.FreeSlotFinder;
+import onthedocket.utils.Metrics;
+
+/**
+ * Dialog for finding free time in the calendar. The user chooses how long a slot must be,
+ * where to start looking and for how many days, which hours and days count, and which
+ * categories of events may be ignored; the dialog then lists the first matching gaps found
+ * by {@link FreeSlotFinder}. Choosing a gap opens an {@link AddEventDialog} prefilled with it.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@SuppressWarnings("serial")
+public class FreeSlotDialog extends JDialog {
+	private static final Metrics.Timer OPEN_TIMER = Metrics.timer("dialog", "findFreeTime");
+	private final JFrame owner;
+	private JSpinner lengthSpinner, fromSpinner, daysSpinner, dayStartSpinner, dayEndSpinner, countSpinner;
+	private JCheckBox weekdaysBox;
+	private final List<JCheckBox> ignoreBoxes = new ArrayList<>();
+	private final List<EventCategory> ignoreCategories = new ArrayList<>();
+	private final DefaultListModel<FreeSlotFinder.Slot> results = new DefaultListModel<>();
+	private final JList<FreeSlotFinder.Slot> resultList = new JList<>(results);
+
+	/**
+     * Constructs a modal dialog owned by the given frame, initializes UI components,
+     * and positions the dialog relative to its owner.
+     *
+     * @param owner the parent frame to which this dialog is modal
+     */
+	public FreeSlotDialog(JFrame owner) {
+		super(owner, "Find Free Time", true);
+		OPEN_TIMER.timeUntilShown(this);
+		this.owner = owner;
+		initComponents();
+		pack();
+		setLocationRelativeTo(owner);
+	}
+
+	/**
+     * Builds and arranges the search criteria, the result list, and the buttons.
+     */
+	private void initComponents() {
+		JPanel content = new JPanel(new GridBagLayout());
+		GridBagConstraints gbc = new GridBagConstraints();
+		gbc.insets = new Insets(4, 8, 4, 8);
+		gbc.fill = GridBagConstraints.HORIZONTAL;
+		gbc.weightx = 1.0;
+
+		lengthSpinner = new JSpinner(new SpinnerNumberModel(60, 5, 24 * 60, 15));
+		addRow(content, gbc, 0, "Length (minutes):", lengthSpinner);
+
+		fromSpinner = new JSpinner(new SpinnerDateModel(new Date(), null, null, Calendar.DAY_OF_MONTH));
+		fromSpinner.setEditor(new JSpinner.DateEditor(fromSpinner, "yyyy-MM-dd"));
+		addRow(content, gbc, 1, "Search From:", fromSpinner);
+
+		daysSpinner = new JSpinner(new SpinnerNumberModel(14, 1, 366, 1));
+		addRow(content, gbc, 2, "For (days):", daysSpinner);
+
+		dayStartSpinner = buildTimeSpinner(LocalTime.of(9, 0));
+		addRow(content, gbc, 3, "Between:", dayStartSpinner);
+		dayEndSpinner = buildTimeSpinner(LocalTime.of(17, 0));
+		addRow(content, gbc, 4, "And:", dayEndSpinner);
+
+		weekdaysBox = new JCheckBox("Weekdays only", true);
+		addRow(content, gbc, 5, "", weekdaysBox);
+
+		JPanel ignorePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+		LinkedHashSet<EventCategory> categories = new LinkedHashSet<>(CategoryRegistry.presets());
+		categories.addAll(DataManager.getCategories());
+		for (EventCategory category : categories) {
+			JCheckBox box = new JCheckBox(category.getName());
+			box.setForeground(category.getColor());
+			ignoreBoxes.add(box);
+			ignoreCategories.add(category);
+			ignorePanel.add(box);
+		}
+		addRow(content, gbc, 6, "Ignore:", ignorePanel);
+
+		countSpinner = new JSpinner(new SpinnerNumberModel(5, 1, 100, 1));
+		addRow(content, gbc, 7, "Results:", countSpinner);
+
+		resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		resultList.setVisibleRowCount(8);
+		resultList.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if (e.getClickCount() == 2) {
+					onAddEvent();
+				}
+			}
+		});
+		gbc.gridx = 0;
+		gbc.gridy = 8;
+		gbc.gridwidth = 2;
+		gbc.fill = GridBagConstraints.BOTH;
+		gbc.weighty = 1.0;
+		content.add(new JScrollPane(resultList), gbc);
+
+		JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+		JButton findButton = new JButton("FIND");
+		findButton.addActionListener(e -> onFind());
+		JButton addButton = new JButton("ADD EVENT");
+		addButton.addActionListener(e -> onAddEvent());
+		JButton closeButton = new JButton("CLOSE");
+		closeButton.addActionListener(e -> dispose());
+		buttons.add(findButton);
+		buttons.add(addButton);
+		buttons.add(closeButton);
+		getRootPane().setDefaultButton(findButton);
+
+		getContentPane().setLayout(new BorderLayout());
+		getContentPane().add(content, BorderLayout.CENTER);
+		getContentPane().add(buttons, BorderLayout.SOUTH);
+	}
+
+	/**
+     * Adds a labelled field to the given row of the criteria panel.
+     */
+	private void addRow(JPanel content, GridBagConstraints gbc, int row, String label, Component field) {
+		gbc.gridx = 0;
+		gbc.gridy = row;
+		content.add(new JLabel(label), gbc);
+		gbc.gridx = 1;
+		content.add(field, gbc);
+	}
+
+	/**
+     * Creates a time spinner preconfigured to show and parse times in "HH:mm" format.
+     *
+     * @param initial the time to show initially
+     * @return a JSpinner for time selection
+     */
+	private JSpinner buildTimeSpinner(LocalTime initial) {
+		Date value = Date.from(LocalDate.now().atTime(initial).atZone(ZoneId.systemDefault()).toInstant());
+		JSpinner spinner = new JSpinner(new SpinnerDateModel(value, null, null, Calendar.MINUTE));
+		spinner.setEditor(new JSpinner.DateEditor(spinner, "HH:mm"));
+		return spinner;
+	}
+
+	/**
+     * Runs the search with the chosen criteria and lists the gaps found.
+     */
+	private void onFind() {
+		LocalTime dayStart = toLocalTime((Date) dayStartSpinner.getValue());
+		LocalTime dayEnd = toLocalTime((Date) dayEndSpinner.getValue());
+		if (!dayEnd.isAfter(dayStart) && !dayEnd.equals(LocalTime.MIDNIGHT)) {
+			JOptionPane.showMessageDialog(this, "The end of the day must be after its start.", "Validation Error", JOptionPane.WARNING_MESSAGE);
+			return;
+		}
+
+		FreeSlotFinder finder = new FreeSlotFinder(Duration.ofMinutes((Integer) lengthSpinner.getValue()));
+		finder.setHours(dayStart, dayEnd);
+		if (weekdaysBox.isSelected()) {
+			finder.setDays(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY));
+		}
+		List<EventCategory> ignored = new ArrayList<>();
+		for (int i = 0; i < ignoreBoxes.size(); i++) {
+			if (ignoreBoxes.get(i).isSelected()) {
+				ignored.add(ignoreCategories.get(i));
+			}
+		}
+		finder.setIgnoredCategories(ignored);
+
+		LocalDate from = Instant.ofEpochMilli(((Date) fromSpinner.getValue()).getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+		LocalDate to = from.plusDays((Integer) daysSpinner.getValue());
+		results.clear();
+		for (FreeSlotFinder.Slot slot : finder.find(from.atStartOfDay(), to.atStartOfDay(), (Integer) countSpinner.getValue())) {
+			results.addElement(slot);
+		}
+		if (results.isEmpty()) {
+			JOptionPane.showMessageDialog(this, "No free time found.", "Find Free Time", JOptionPane.INFORMATION_MESSAGE);
+		}
+	}
+
+	/**
+     * Opens an {@link AddEventDialog} for the selected gap, starting at its beginning
+     * and lasting the requested length.
+     */
+	private void onAddEvent() {
+		FreeSlotFinder.Slot slot = resultList.getSelectedValue();
+		if (slot == null) {
+			JOptionPane.showMessageDialog(this, "Please select a free slot.", "No Selection", JOptionPane.WARNING_MESSAGE);
+			return;
+		}
+		AddEventDialog dialog = new AddEventDialog(owner, slot.getStart(), slot.getStart().plusMinutes((Integer) lengthSpinner.getValue()));
+		dialog.setVisible(true);
+		if (dialog.wasAdded()) {
+			dispose();
+		}
+	}
+
+	private static LocalTime toLocalTime(Date date) {
+		return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalTime().withSecond(0).withNano(0);
+	}
+}
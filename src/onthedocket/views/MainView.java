@@ -1,18 +1,37 @@
 package onthedocket.views;
 
 import java.awt.BorderLayout;
+import java.awt.Graphics;
 import java.awt.event.KeyEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
+import javax.swing.BorderFactory;
+import javax.swing.ButtonGroup;
+import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JComponent;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
+import javax.swing.JLabel;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
+import javax.swing.JRadioButtonMenuItem;
 import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+import javax.swing.filechooser.FileNameExtensionFilter;
 
+import onthedocket.persistence.AutosaveService;
 import onthedocket.persistence.DataManager;
+import onthedocket.persistence.IcsFormat;
+import onthedocket.persistence.SearchIndex;
 import onthedocket.persistence.Serializer;
+import onthedocket.utils.StartupTimer;
 import onthedocket.utils.Theme;
 
 /**
@@ -26,9 +45,24 @@ import onthedocket.utils.Theme;
  */
 @SuppressWarnings("serial")
 public class MainView extends JFrame {
+	private static final DateTimeFormatter STATUS_TIME_FORMATTER = DateTimeFormatter.ofPattern("h:mm:ss a");
+	private static final FileNameExtensionFilter ICS_FILTER = new FileNameExtensionFilter("iCalendar files (*.ics)", "ics");
 	private Theme theme;
 	private JMenuBar menubar;
+	private JMenu addMenu, themeMenu;
+	private JMenuItem saveItem;
+	private JMenuItem importItem;
+	private JMenuItem exportItem;
+	private JRadioButtonMenuItem dayItem;
 	private CalendarComponent calendar;
+	private TimelineComponent timeline;
+	private YearHeatmapComponent yearView;
+	private JComponent shownView;
+	private JLabel statusLabel;
+	private AutosaveService autosave;
+	private final SearchIndex searchIndex = new SearchIndex();
+	private SearchDialog searchDialog;
+	private boolean painted = false;
 
 	/**
      * Constructs the main view using the default light theme.
@@ -43,7 +77,8 @@ public class MainView extends JFrame {
      * @param theme the initial {@link Theme} to apply to this window
      */
 	public MainView(Theme theme) {
-		setTheme(theme);
+		this.theme = theme;
+		DataManager.setTheme(theme);
 		
 		setTitle("OnTheDocket");
 		setExtendedState(JFrame.MAXIMIZED_BOTH);
@@ -65,25 +100,38 @@ public class MainView extends JFrame {
 		menubar = new JMenuBar();
 		
 		JMenu fileMenu = new JMenu("File");
-		JMenuItem saveItem = new JMenuItem("Save");
+		saveItem = new JMenuItem("Save");
 		saveItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_S, KeyEvent.CTRL_DOWN_MASK));
-		saveItem.addActionListener(e -> Serializer.serialize());
+		saveItem.addActionListener(e -> {
+			if(autosave != null) {
+				autosave.saveNow();
+			} else {
+				Serializer.save();
+			}
+		});
 		fileMenu.add(saveItem);
+		fileMenu.addSeparator();
+		importItem = new JMenuItem("Import Calendar...");
+		importItem.addActionListener(e -> importCalendar());
+		fileMenu.add(importItem);
+		exportItem = new JMenuItem("Export Calendar...");
+		exportItem.addActionListener(e -> exportCalendar());
+		fileMenu.add(exportItem);
 		fileMenu.setMnemonic(KeyEvent.VK_F);
 		
-		JMenu addMenu = new JMenu("Add");
+		addMenu = new JMenu("Add");
 		JMenuItem addEventItem = new JMenuItem("Add Event");
 		addEventItem.addActionListener(e -> {
 			AddEventDialog dialog = new AddEventDialog(this);
 			dialog.setVisible(true);
-			if(dialog.wasAdded()) {
-				calendar.updateWith(LocalDate.now());
-			}
 		});
 		addMenu.add(addEventItem);
+		JMenuItem freeTimeItem = new JMenuItem("Find Free Time...");
+		freeTimeItem.addActionListener(e -> new FreeSlotDialog(this).setVisible(true));
+		addMenu.add(freeTimeItem);
 		addMenu.setMnemonic(KeyEvent.VK_A);
 		
-		JMenu themeMenu = new JMenu("Theme");
+		themeMenu = new JMenu("Theme");
 		JMenuItem lightItem = new JMenuItem("Light");
 		lightItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_L, KeyEvent.CTRL_DOWN_MASK));
 		lightItem.addActionListener(e -> setTheme(Theme.LIGHT));
@@ -94,25 +142,310 @@ public class MainView extends JFrame {
 		themeMenu.add(darkItem);
 		themeMenu.setMnemonic(KeyEvent.VK_T);
 		
+		JMenu viewMenu = new JMenu("View");
+		ButtonGroup viewGroup = new ButtonGroup();
+		JRadioButtonMenuItem monthItem = new JRadioButtonMenuItem("Month", true);
+		monthItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_1, KeyEvent.CTRL_DOWN_MASK));
+		monthItem.addActionListener(e -> showMonth());
+		JRadioButtonMenuItem weekItem = new JRadioButtonMenuItem("Week");
+		weekItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_2, KeyEvent.CTRL_DOWN_MASK));
+		weekItem.addActionListener(e -> showTimeline(TimelineComponent.Range.WEEK));
+		dayItem = new JRadioButtonMenuItem("Day");
+		dayItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_3, KeyEvent.CTRL_DOWN_MASK));
+		dayItem.addActionListener(e -> showTimeline(TimelineComponent.Range.DAY));
+		JRadioButtonMenuItem yearItem = new JRadioButtonMenuItem("Year");
+		yearItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_4, KeyEvent.CTRL_DOWN_MASK));
+		yearItem.addActionListener(e -> showYear());
+		for(JRadioButtonMenuItem item : new JRadioButtonMenuItem[] { monthItem, weekItem, dayItem, yearItem }) {
+			viewGroup.add(item);
+			viewMenu.add(item);
+		}
+		viewMenu.addSeparator();
+		JCheckBoxMenuItem paintedItem = new JCheckBoxMenuItem("Lightweight Month Grid");
+		paintedItem.addActionListener(e -> calendar.setRenderMode(paintedItem.isSelected()
+				? CalendarComponent.RenderMode.PAINTED : CalendarComponent.RenderMode.COMPONENTS));
+		viewMenu.add(paintedItem);
+		JMenuItem searchItem = new JMenuItem("Search Events...");
+		searchItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_F, KeyEvent.CTRL_DOWN_MASK));
+		searchItem.addActionListener(e -> {
+			if(searchDialog == null) {
+				searchDialog = new SearchDialog(this, searchIndex);
+			}
+			searchDialog.setVisible(true);
+		});
+		viewMenu.add(searchItem);
+		JMenuItem reportItem = new JMenuItem("Time Report...");
+		reportItem.addActionListener(e -> new TimeReportDialog(this).setVisible(true));
+		viewMenu.add(reportItem);
+		viewMenu.setMnemonic(KeyEvent.VK_V);
+		
 		JMenu helpMenu = new JMenu("Help");
 		JMenuItem todayItem = new JMenuItem("Jump To Today");
-		todayItem.addActionListener(e -> calendar.updateWith(LocalDate.now()));
+		todayItem.addActionListener(e -> showDate(LocalDate.now()));
 		JMenuItem aboutItem = new JMenuItem("About");
 		aboutItem.addActionListener(e -> {
 			JOptionPane.showMessageDialog(this, "OnTheDocket PRE-RELEASE Version by Sitatunga147", "About", JOptionPane.INFORMATION_MESSAGE);
 		});
+		JMenuItem diagnosticsItem = new JMenuItem("Diagnostics");
+		diagnosticsItem.addActionListener(e -> new DiagnosticsDialog(this).setVisible(true));
 		helpMenu.add(todayItem);
+		helpMenu.add(diagnosticsItem);
 		helpMenu.add(aboutItem);
 		
 		menubar.add(fileMenu);
 		menubar.add(addMenu);
 		menubar.add(themeMenu);
+		menubar.add(viewMenu);
 		menubar.add(helpMenu);
 		
 		setJMenuBar(menubar);
 		
 		calendar = new CalendarComponent(LocalDate.now(), theme);
 		add(calendar, BorderLayout.CENTER);
+		shownView = calendar;
+		searchIndex.attach();
+		
+		statusLabel = new JLabel(" ");
+		statusLabel.setOpaque(true);
+		statusLabel.setBorder(BorderFactory.createEmptyBorder(2, 8, 2, 8));
+		statusLabel.setBackground(theme.getBackgroundColor());
+		statusLabel.setForeground(theme.getSecondaryTextColor());
+		add(statusLabel, BorderLayout.SOUTH);
+	}
+	
+	/**
+     * Connects this window to the given autosave service. The File &gt; Save item then
+     * requests a background save, and save progress and failures are shown in the
+     * status line at the bottom of the window.
+     *
+     * @param autosave the running {@link AutosaveService}
+     */
+	public void attachAutosave(AutosaveService autosave) {
+		this.autosave = autosave;
+		autosave.addListener(new AutosaveService.Listener() {
+			@Override
+			public void saveStarted() {
+				SwingUtilities.invokeLater(() -> statusLabel.setText("Saving..."));
+			}
+			
+			@Override
+			public void saveSucceeded(LocalDateTime time) {
+				SwingUtilities.invokeLater(() -> statusLabel.setText("Saved at " + time.format(STATUS_TIME_FORMATTER)));
+			}
+			
+			@Override
+			public void saveFailed(IOException error) {
+				SwingUtilities.invokeLater(() -> statusLabel.setText("Save failed: " + error.getMessage()));
+			}
+		});
+	}
+	
+	/**
+     * Paints the window and records the first paint as a startup milestone.
+     *
+     * @param g the graphics context to paint with
+     */
+	@Override
+	public void paint(Graphics g) {
+		super.paint(g);
+		if(!painted) {
+			painted = true;
+			StartupTimer.mark("first paint");
+		}
+	}
+	
+	/**
+     * Shows that data is still being loaded in the background. While loading, the calendar
+     * does not open day dialogs and the Add and Theme menus are disabled, so that no edits
+     * are made before the stored data is in place. Saving and exporting are disabled too,
+     * since they would write out only the part of the data loaded so far.
+     */
+	public void showLoading() {
+		addMenu.setEnabled(false);
+		themeMenu.setEnabled(false);
+		saveItem.setEnabled(false);
+		importItem.setEnabled(false);
+		exportItem.setEnabled(false);
+		calendar.setEnabled(false);
+		if(timeline != null) timeline.setEnabled(false);
+		if(yearView != null) yearView.setEnabled(false);
+		statusLabel.setText("Loading...");
+	}
+	
+	/**
+     * Re-enables editing once background loading has finished and adopts the stored theme
+     * if it differs from the one the window was opened with.
+     */
+	public void showLoaded() {
+		Theme loadedTheme = DataManager.getTheme();
+		if(loadedTheme != null && loadedTheme != theme) {
+			setTheme(loadedTheme);
+		}
+		addMenu.setEnabled(true);
+		themeMenu.setEnabled(true);
+		saveItem.setEnabled(true);
+		importItem.setEnabled(true);
+		exportItem.setEnabled(true);
+		calendar.setEnabled(true);
+		if(timeline != null) timeline.setEnabled(true);
+		if(yearView != null) yearView.setEnabled(true);
+		statusLabel.setText(" ");
+	}
+	
+	/**
+     * Reports that the stored data could not be loaded. Editing, saving, and exporting stay
+     * disabled, since changes could not be saved without overwriting the unread file.
+     */
+	public void showLoadFailed() {
+		statusLabel.setText("Could not load the calendar data; editing is disabled");
+		JOptionPane.showMessageDialog(this, "Your calendar data could not be loaded, so editing is disabled and nothing will be saved.\n"
+				+ "The data file has been left untouched. See the console output for details.", "Load Failed", JOptionPane.ERROR_MESSAGE);
+	}
+	
+	/**
+     * Asks for an iCalendar file and imports its events on a background thread, reporting
+     * progress and the outcome in the status line. The calendar refreshes itself as each
+     * batch of events arrives.
+     */
+	private void importCalendar() {
+		JFileChooser chooser = new JFileChooser();
+		chooser.setFileFilter(ICS_FILTER);
+		if(chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+		Path path = chooser.getSelectedFile().toPath();
+		importItem.setEnabled(false);
+		statusLabel.setText("Importing " + path.getFileName() + "...");
+		Thread importer = new Thread(() -> {
+			String message;
+			try {
+				message = IcsFormat.importFrom(path).toString();
+			} catch(IOException ex) {
+				ex.printStackTrace();
+				message = "Import failed: " + ex.getMessage();
+			}
+			String result = message;
+			SwingUtilities.invokeLater(() -> {
+				importItem.setEnabled(true);
+				statusLabel.setText(result);
+			});
+		}, "ics-import");
+		importer.start();
+	}
+	
+	/**
+     * Asks for a file name and exports every event to it as an iCalendar on a background
+     * thread, reporting the outcome in the status line.
+     */
+	private void exportCalendar() {
+		JFileChooser chooser = new JFileChooser();
+		chooser.setFileFilter(ICS_FILTER);
+		chooser.setSelectedFile(new File("onthedocket.ics"));
+		if(chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+		Path path = chooser.getSelectedFile().toPath();
+		statusLabel.setText("Exporting to " + path.getFileName() + "...");
+		Thread exporter = new Thread(() -> {
+			String message;
+			try {
+				message = "Exported " + IcsFormat.exportTo(path) + " events to " + path.getFileName();
+			} catch(IOException ex) {
+				ex.printStackTrace();
+				message = "Export failed: " + ex.getMessage();
+			}
+			String result = message;
+			SwingUtilities.invokeLater(() -> statusLabel.setText(result));
+		}, "ics-export");
+		exporter.start();
+	}
+	
+	/**
+     * Replaces the shown week or day timeline with the month grid, showing the month
+     * of the date the timeline was showing.
+     */
+	private void showMonth() {
+		if(shownView == calendar) return;
+		calendar.updateWith(shownDate());
+		swapView(calendar);
+	}
+	
+	/**
+     * Shows the year heatmap for the year of the date currently shown, creating it the
+     * first time it is needed. Clicking a day of the heatmap opens that day's timeline.
+     */
+	private void showYear() {
+		LocalDate date = shownDate();
+		if(yearView == null) {
+			yearView = new YearHeatmapComponent(date, theme, day -> {
+				dayItem.setSelected(true);
+				showTimeline(TimelineComponent.Range.DAY, day);
+			});
+			yearView.setEnabled(calendar.isEnabled());
+		} else {
+			yearView.updateWith(date);
+		}
+		swapView(yearView);
+	}
+	
+	/**
+     * Moves the view currently shown, whether the month grid, a timeline, or the year
+     * heatmap, to the given date.
+     *
+     * @param date the date to show
+     */
+	public void showDate(LocalDate date) {
+		if(shownView == timeline) {
+			timeline.updateWith(date);
+		} else if(shownView == yearView) {
+			yearView.updateWith(date);
+		} else {
+			calendar.updateWith(date);
+		}
+	}
+	
+	/**
+     * Returns the reference date of the view currently shown.
+     */
+	private LocalDate shownDate() {
+		if(shownView == timeline) return timeline.getReferenceDate();
+		if(shownView == yearView) return yearView.getReferenceDate();
+		return calendar.getReferenceDate();
+	}
+	
+	/**
+     * Shows the week or day timeline for the date currently shown.
+     *
+     * @param range whether to show a week or a single day
+     */
+	private void showTimeline(TimelineComponent.Range range) {
+		showTimeline(range, shownDate());
+	}
+	
+	/**
+     * Shows the week or day timeline for the given date, creating the timeline the first
+     * time it is needed.
+     *
+     * @param range whether to show a week or a single day
+     * @param date the date to show
+     */
+	private void showTimeline(TimelineComponent.Range range, LocalDate date) {
+		if(timeline == null) {
+			timeline = new TimelineComponent(date, range, theme);
+			timeline.setEnabled(calendar.isEnabled());
+		} else {
+			timeline.setRange(range);
+			timeline.updateWith(date);
+		}
+		swapView(timeline);
+	}
+	
+	/**
+     * Puts the given view in the center of the window in place of the one shown.
+     */
+	private void swapView(JComponent view) {
+		if(shownView == view) return;
+		remove(shownView);
+		add(view, BorderLayout.CENTER);
+		shownView = view;
+		revalidate();
+		repaint();
 	}
 	
 	public CalendarComponent getCalendarComponent() {
@@ -124,18 +457,19 @@ public class MainView extends JFrame {
 	}
 
 	/**
-     * Applies a new theme to this view, rebuilds the UI components,
-     * and repaints the window.
+     * Applies a new theme to this view by restyling the existing calendar component
+     * in place, without rebuilding the menu bar or the calendar.
      *
      * @param theme the new {@link Theme} to set
      */
 	public void setTheme(Theme theme) {
 		DataManager.setTheme(theme);
 		this.theme = theme;
-		getContentPane().removeAll();
-		initComponents();
-		
-		revalidate();
-		repaint();
+		getContentPane().setForeground(theme.getBackgroundColor());
+		statusLabel.setBackground(theme.getBackgroundColor());
+		statusLabel.setForeground(theme.getSecondaryTextColor());
+		calendar.setTheme(theme);
+		if(timeline != null) timeline.setTheme(theme);
+		if(yearView != null) yearView.setTheme(theme);
 	}
 }
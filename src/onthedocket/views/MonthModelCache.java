@@ -0,0 +1,269 @@
+package onthedocket.views;
+
+import java.awt.Color;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import onthedocket.models.Event;
+import onthedocket.persistence.DataManager;
+import onthedocket.utils.Metrics;
+
+/**
+ * A least-recently-used cache of {@link MonthModel}s: for each day of a month, the events covering
+ * it in start order with their time labels already formatted and their colors already resolved.
+ * Building a month reads the {@link DataManager} once and formats one label per occurrence, so
+ * keeping recently shown months, and prefetching the neighbors of the shown month on a background
+ * thread, makes month navigation cost no more than laying out the grid.
+ * <p>
+ * The owner keeps the cache exact by calling {@link #invalidate(LocalDate, LocalDate)} with the
+ * days touched by each DataManager change, before it refreshes anything. Only those days are
+ * rebuilt on the next {@link #get(YearMonth)}. A month being built, here or on the prefetch thread,
+ * while an invalidation arrives is returned to its caller but not kept, so stale data never
+ * enters the cache.
+ * </p>
+ *
+ * @see CalendarComponent
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public class MonthModelCache {
+	private static final Metrics.Timer BUILD_TIMER = Metrics.timer("view", "buildMonthModel");
+	private static final Metrics.Counter HITS = Metrics.counter("view.monthCache.hits");
+	private static final Metrics.Counter MISSES = Metrics.counter("view.monthCache.misses");
+	private static final ExecutorService PREFETCHER = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "month-prefetch");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private final int capacity;
+	private final LinkedHashMap<YearMonth, MonthModel> models = new LinkedHashMap<YearMonth, MonthModel>(16, 0.75f, true);
+	private long generation;
+
+	/**
+	 * One day's event as shown in a month grid.
+	 */
+	public static final class Entry {
+		private final Event event;
+		private final String timeLabel;
+		private final Color color;
+		private final boolean multiDay;
+
+		private Entry(Event event, LocalDate date) {
+			this.event = event;
+			this.timeLabel = CalendarComponent.formatTimeRange(event, date);
+			this.color = event.getCategory().getColor();
+			this.multiDay = event.getStart().toLocalDate().isBefore(event.getEnd().toLocalDate());
+		}
+
+		public Event getEvent() {
+			return event;
+		}
+
+		public String getTimeLabel() {
+			return timeLabel;
+		}
+
+		public Color getColor() {
+			return color;
+		}
+
+		public boolean isMultiDay() {
+			return multiDay;
+		}
+	}
+
+	/**
+	 * The entries of every day of one month. Models returned by {@link MonthModelCache#get(YearMonth)}
+	 * are immutable and complete.
+	 */
+	public static final class MonthModel {
+		private final YearMonth month;
+		private final List<List<Entry>> days;
+
+		private MonthModel(YearMonth month, List<List<Entry>> days) {
+			this.month = month;
+			this.days = days;
+		}
+
+		public YearMonth getMonth() {
+			return month;
+		}
+
+		/**
+		 * Returns the entries for a day of this month.
+		 *
+		 * @param date a date within this model's month
+		 * @return the entries in start order; empty if the day has no events
+		 */
+		public List<Entry> getDay(LocalDate date) {
+			return days.get(date.getDayOfMonth() - 1);
+		}
+
+		/**
+		 * Returns a copy of this model in which the days from {@code first} to {@code last}
+		 * (inclusive, within this month) must be rebuilt.
+		 */
+		private MonthModel withStale(LocalDate first, LocalDate last) {
+			List<List<Entry>> copy = new ArrayList<List<Entry>>(days);
+			for(int day = first.getDayOfMonth(); day <= last.getDayOfMonth(); day++) {
+				copy.set(day - 1, null);
+			}
+			return new MonthModel(month, copy);
+		}
+
+		private boolean isComplete() {
+			return !days.contains(null);
+		}
+
+		/**
+		 * Returns a complete model, reading from the DataManager only the span of stale days.
+		 */
+		private MonthModel rebuildStale() {
+			int first = days.indexOf(null) + 1;
+			int last = days.lastIndexOf(null) + 1;
+			List<List<Entry>> rebuilt = new ArrayList<List<Entry>>(days);
+			buildDays(month.atDay(first), month.atDay(last), rebuilt);
+			return new MonthModel(month, Collections.unmodifiableList(rebuilt));
+		}
+	}
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param capacity the most months to keep; the least recently used month is dropped first
+	 */
+	public MonthModelCache(int capacity) {
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the model for a month, building it on the calling thread if it is not cached and
+	 * rebuilding any days invalidated since it was cached.
+	 *
+	 * @param month the month to return
+	 * @return the complete model for {@code month}
+	 */
+	public MonthModel get(YearMonth month) {
+		MonthModel cached;
+		long readGeneration;
+		synchronized(this) {
+			cached = models.get(month);
+			readGeneration = generation;
+		}
+		if(cached != null && cached.isComplete()) {
+			HITS.increment();
+			return cached;
+		}
+		MISSES.increment();
+		return load(month, cached, readGeneration);
+	}
+
+	/**
+	 * Builds the given months on the background prefetch thread, unless they are already cached.
+	 *
+	 * @param months the months about to be shown
+	 */
+	public void prefetch(YearMonth... months) {
+		for(YearMonth month : months) {
+			PREFETCHER.execute(() -> {
+				MonthModel cached;
+				long readGeneration;
+				synchronized(this) {
+					cached = models.get(month);
+					readGeneration = generation;
+				}
+				if(cached == null || !cached.isComplete()) load(month, cached, readGeneration);
+			});
+		}
+	}
+
+	/**
+	 * Marks the days from {@code first} to {@code last} (inclusive) as changed in every cached
+	 * month, and discards any month currently being built. Either bound may lie far outside the
+	 * cached months, as with {@link LocalDate#MIN} and {@link LocalDate#MAX}.
+	 *
+	 * @param first the first changed day
+	 * @param last the last changed day
+	 */
+	public synchronized void invalidate(LocalDate first, LocalDate last) {
+		generation++;
+		for(Map.Entry<YearMonth, MonthModel> entry : models.entrySet()) {
+			YearMonth month = entry.getKey();
+			LocalDate monthStart = month.atDay(1);
+			LocalDate monthEnd = month.atEndOfMonth();
+			if(first.isAfter(monthEnd) || last.isBefore(monthStart)) continue;
+			LocalDate from = first.isBefore(monthStart) ? monthStart : first;
+			LocalDate to = last.isAfter(monthEnd) ? monthEnd : last;
+			entry.setValue(entry.getValue().withStale(from, to));
+		}
+	}
+
+	/**
+	 * Discards every cached month and any month currently being built.
+	 */
+	public synchronized void clear() {
+		generation++;
+		models.clear();
+	}
+
+	/**
+	 * Builds or completes a month and caches it if nothing was invalidated since
+	 * {@code readGeneration}.
+	 */
+	private MonthModel load(YearMonth month, MonthModel cached, long readGeneration) {
+		MonthModel built;
+		if(cached == null) {
+			List<List<Entry>> days = new ArrayList<List<Entry>>(Collections.nCopies(month.lengthOfMonth(), (List<Entry>) null));
+			buildDays(month.atDay(1), month.atEndOfMonth(), days);
+			built = new MonthModel(month, Collections.unmodifiableList(days));
+		} else {
+			built = cached.rebuildStale();
+		}
+		synchronized(this) {
+			if(generation == readGeneration) {
+				models.put(month, built);
+				Iterator<YearMonth> eldest = models.keySet().iterator();
+				while(models.size() > capacity) {
+					eldest.next();
+					eldest.remove();
+				}
+			}
+		}
+		return built;
+	}
+
+	/**
+	 * Fills in the entries of the days from {@code first} to {@code last} (inclusive) of one month.
+	 */
+	private static void buildDays(LocalDate first, LocalDate last, List<List<Entry>> days) {
+		try(Metrics.Span span = BUILD_TIMER.start()) {
+			TreeMap<LocalDate, ArrayList<Event>> eventsByDay = DataManager.getEventsByDay(first, last);
+			int entries = 0;
+			for(LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+				ArrayList<Event> events = eventsByDay.get(date);
+				List<Entry> day = Collections.emptyList();
+				if(events != null) {
+					Entry[] built = new Entry[events.size()];
+					for(int i = 0; i < built.length; i++) {
+						built[i] = new Entry(events.get(i), date);
+					}
+					day = Collections.unmodifiableList(Arrays.asList(built));
+					entries += built.length;
+				}
+				days.set(date.getDayOfMonth() - 1, day);
+			}
+			span.setItems(entries);
+		}
+	}
+}
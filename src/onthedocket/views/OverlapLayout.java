@@ -0,0 +1,261 @@
+package onthedocket.views;
+
+import java.util.Arrays;
+import java.util.List;
+
+import onthedocket.models.Event;
+import onthedocket.utils.EpochMinutes;
+
+/**
+ * Packs one day's events into side-by-side columns so that events overlapping in time, as
+ * defined by {@link Event#overlaps(Event)} inclusive of start and end, never share a column.
+ * <p>
+ * The events are sorted by start and swept once. Columns whose last event ended before the next
+ * event starts are returned to a free list, and each event takes the lowest free column, so the
+ * whole layout takes O(n log n) time. Events chained together by overlaps form a cluster; every
+ * event of a cluster is as wide as the cluster has columns, and clusters are laid out
+ * independently, so a busy morning does not narrow the events of the afternoon.
+ * </p>
+ * <p>
+ * A layout keeps its working arrays between calls and only grows them, so laying out a day no
+ * larger than any laid out before allocates nothing. Results stay valid until the next call to
+ * {@link #layout(List)}. Instances are not thread-safe; a view typically keeps one per thread it
+ * paints on.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+public final class OverlapLayout {
+	private static final int INDEX_BITS = 21;
+	private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+	private int size;
+	private Event[] events = new Event[0];
+	private long[] keys = new long[0];
+	private long[] starts = new long[0];
+	private long[] ends = new long[0];
+	private int[] columns = new int[0];
+	private int[] columnCounts = new int[0];
+	private long[] columnEnds = new long[0];
+	private int[] busy = new int[0];
+	private int[] free = new int[0];
+
+	/**
+	 * Lays out the given events, replacing the previous layout.
+	 *
+	 * @param dayEvents the events to lay out, in any order; typically those covering one day.
+	 *        A {@link java.util.RandomAccess} list avoids creating an iterator.
+	 * @return the number of events laid out
+	 * @throws IllegalArgumentException if there are more than 2,097,151 events
+	 */
+	public int layout(List<? extends Event> dayEvents) {
+		int n = dayEvents.size();
+		if(n > INDEX_MASK) throw new IllegalArgumentException("Too many events to lay out: " + n);
+		ensureCapacity(n);
+		size = n;
+		if(n == 0) return 0;
+
+		long base = Long.MAX_VALUE;
+		for(int i = 0; i < n; i++) {
+			Event e = dayEvents.get(i);
+			events[i] = e;
+			starts[i] = EpochMinutes.of(e.getStart());
+			ends[i] = EpochMinutes.of(e.getEnd());
+			if(starts[i] < base) base = starts[i];
+		}
+		boolean sorted = true;
+		for(int i = 0; i < n; i++) {
+			keys[i] = (starts[i] - base) << INDEX_BITS | i;
+			if(i > 0 && keys[i] < keys[i - 1]) sorted = false;
+		}
+		if(!sorted) heapSort(keys, n);
+
+		int busyCount = 0, freeCount = 0, clusterColumns = 0, clusterFirst = 0;
+		long clusterEnd = Long.MIN_VALUE;
+		for(int k = 0; k < n; k++) {
+			int i = (int) (keys[k] & INDEX_MASK);
+			long start = starts[i];
+			if(start > clusterEnd) {
+				Arrays.fill(columnCounts, clusterFirst, k, clusterColumns);
+				busyCount = freeCount = clusterColumns = 0;
+				clusterFirst = k;
+				clusterEnd = ends[i];
+			}
+			while(busyCount > 0 && columnEnds[busy[0]] < start) {
+				int column = busy[0];
+				busy[0] = busy[--busyCount];
+				siftDown(busy, busyCount, 0, columnEnds);
+				free[freeCount] = column;
+				siftUp(free, freeCount++, null);
+			}
+			int column;
+			if(freeCount > 0) {
+				column = free[0];
+				free[0] = free[--freeCount];
+				siftDown(free, freeCount, 0, null);
+			} else {
+				column = clusterColumns++;
+			}
+			columnEnds[column] = ends[i];
+			busy[busyCount] = column;
+			siftUp(busy, busyCount++, columnEnds);
+			columns[k] = column;
+			if(ends[i] > clusterEnd) clusterEnd = ends[i];
+		}
+		Arrays.fill(columnCounts, clusterFirst, n, clusterColumns);
+		return n;
+	}
+
+	/**
+	 * Returns the number of events in the current layout.
+	 *
+	 * @return the number of events laid out by the last call to {@link #layout(List)}
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns an event of the current layout. Events are numbered in start order.
+	 *
+	 * @param k the position of the event, from 0 to {@link #size()} - 1
+	 * @return the {@code k}-th event by start
+	 */
+	public Event getEvent(int k) {
+		return events[index(k)];
+	}
+
+	/**
+	 * Returns the column assigned to an event.
+	 *
+	 * @param k the position of the event, from 0 to {@link #size()} - 1
+	 * @return the event's column, counted from 0 at the left
+	 */
+	public int getColumn(int k) {
+		check(k);
+		return columns[k];
+	}
+
+	/**
+	 * Returns the number of columns of the cluster holding an event, which divides the
+	 * available width among the cluster's events.
+	 *
+	 * @param k the position of the event, from 0 to {@link #size()} - 1
+	 * @return the number of columns of the event's cluster; 1 for an event overlapping no other
+	 */
+	public int getColumnCount(int k) {
+		check(k);
+		return columnCounts[k];
+	}
+
+	/**
+	 * Returns the left edge of an event within the given width.
+	 *
+	 * @param k the position of the event, from 0 to {@link #size()} - 1
+	 * @param width the width available to the whole day
+	 * @return the x offset of the event's column
+	 */
+	public int getX(int k, int width) {
+		return getColumn(k) * width / getColumnCount(k);
+	}
+
+	/**
+	 * Returns the width of an event within the given width. Adjacent columns share their
+	 * edges exactly, so rounding never leaves gaps.
+	 *
+	 * @param k the position of the event, from 0 to {@link #size()} - 1
+	 * @param width the width available to the whole day
+	 * @return the width of the event's column
+	 */
+	public int getWidth(int k, int width) {
+		return (getColumn(k) + 1) * width / getColumnCount(k) - getX(k, width);
+	}
+
+	private int index(int k) {
+		check(k);
+		return (int) (keys[k] & INDEX_MASK);
+	}
+
+	private void check(int k) {
+		if(k < 0 || k >= size) throw new IndexOutOfBoundsException("Index " + k + " out of bounds for layout of " + size);
+	}
+
+	/**
+	 * Grows every working array to hold at least {@code n} events.
+	 */
+	private void ensureCapacity(int n) {
+		if(n <= keys.length) return;
+		int capacity = Math.max(n, keys.length * 2);
+		events = new Event[capacity];
+		keys = new long[capacity];
+		starts = new long[capacity];
+		ends = new long[capacity];
+		columns = new int[capacity];
+		columnCounts = new int[capacity];
+		columnEnds = new long[capacity];
+		busy = new int[capacity];
+		free = new int[capacity];
+	}
+
+	/**
+	 * Sorts the first {@code n} keys in place, without allocating.
+	 */
+	private static void heapSort(long[] a, int n) {
+		for(int i = n / 2 - 1; i >= 0; i--) siftDownLongs(a, n, i);
+		for(int end = n - 1; end > 0; end--) {
+			long top = a[0];
+			a[0] = a[end];
+			a[end] = top;
+			siftDownLongs(a, end, 0);
+		}
+	}
+
+	/**
+	 * Restores the max-heap order of {@code a[0..n)} below position {@code i}.
+	 */
+	private static void siftDownLongs(long[] a, int n, int i) {
+		long value = a[i];
+		for(int child = 2 * i + 1; child < n; child = 2 * i + 1) {
+			if(child + 1 < n && a[child + 1] > a[child]) child++;
+			if(a[child] <= value) break;
+			a[i] = a[child];
+			i = child;
+		}
+		a[i] = value;
+	}
+
+	/**
+	 * Moves the column at position {@code i} of a min-heap up to its place. The heap is
+	 * ordered by {@code priority[column]}, or by the column number if {@code priority} is null.
+	 */
+	private static void siftUp(int[] heap, int i, long[] priority) {
+		int value = heap[i];
+		long key = priority == null ? value : priority[value];
+		while(i > 0) {
+			int parent = (i - 1) / 2;
+			int above = heap[parent];
+			if((priority == null ? above : priority[above]) <= key) break;
+			heap[i] = above;
+			i = parent;
+		}
+		heap[i] = value;
+	}
+
+	/**
+	 * Moves the column at position {@code i} of a min-heap of {@code n} columns down to its
+	 * place, ordered as in {@link #siftUp(int[], int, long[])}.
+	 */
+	private static void siftDown(int[] heap, int n, int i, long[] priority) {
+		if(n == 0) return;
+		int value = heap[i];
+		long key = priority == null ? value : priority[value];
+		for(int child = 2 * i + 1; child < n; child = 2 * i + 1) {
+			if(child + 1 < n && (priority == null ? heap[child + 1] : priority[heap[child + 1]]) < (priority == null ? heap[child] : priority[heap[child]])) child++;
+			int below = heap[child];
+			if((priority == null ? below : priority[below]) >= key) break;
+			heap[i] = below;
+			i = child;
+		}
+		heap[i] = value;
+	}
+}
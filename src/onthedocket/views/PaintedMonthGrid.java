@@ -0,0 +1,195 @@
+package onthedocket.views;
+
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+
+import onthedocket.utils.Theme;
+
+/**
+ * A lightweight month grid that paints day cells, event times, and color-coded event names
+ * directly in {@link #paintComponent(Graphics)} instead of building a Swing component per
+ * day and per event. Days holding more events than fit in their cell show as many as fit
+ * followed by a "+N more" line, so painting cost depends on the cell size rather than on
+ * the number of events in a day.
+ * <p>
+ * Clicks are hit-tested against the cell geometry and reported as dates to a callback.
+ * </p>
+ *
+ * @see CalendarComponent
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@SuppressWarnings("serial")
+public class PaintedMonthGrid extends JComponent {
+	private static final int PADDING = 3;
+
+	private LocalDate firstDay;
+	private int placeholders;
+	private ArrayList<List<MonthModelCache.Entry>> dayEntries = new ArrayList<List<MonthModelCache.Entry>>();
+	private Theme theme;
+
+	/**
+     * Creates a painted grid for the month of the given model.
+     *
+     * @param model the entries of each date of the month to display
+     * @param theme the visual theme to paint with
+     * @param onDayClicked called with the date of a day cell when it is clicked
+     */
+	public PaintedMonthGrid(MonthModelCache.MonthModel model, Theme theme, Consumer<LocalDate> onDayClicked) {
+		this.theme = theme;
+		this.firstDay = model.getMonth().atDay(1);
+		this.placeholders = firstDay.getDayOfWeek().getValue() % 7;
+		for(int i = 0; i < firstDay.lengthOfMonth(); i++) {
+			dayEntries.add(model.getDay(firstDay.plusDays(i)));
+		}
+
+		setOpaque(true);
+		setPreferredSize(new Dimension(700, 500));
+		addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent me) {
+				LocalDate date = dateAt(me.getPoint());
+				if(date != null) {
+					onDayClicked.accept(date);
+				}
+			}
+		});
+	}
+
+	/**
+     * Replaces the entries shown for a single date and repaints only that day's cell.
+     * Dates outside the displayed month are ignored.
+     *
+     * @param date the date whose events changed
+     * @param entries the entries now covering {@code date}
+     */
+	public void setDayEntries(LocalDate date, List<MonthModelCache.Entry> entries) {
+		if(!date.withDayOfMonth(1).equals(firstDay)) return;
+		dayEntries.set(date.getDayOfMonth() - 1, entries);
+		repaint(cellBounds(date.getDayOfMonth()));
+	}
+
+	/**
+     * Returns the date of the day cell under the given point.
+     *
+     * @param p a point in this component's coordinate space
+     * @return the date under {@code p}, or {@code null} if the point is outside every day cell
+     */
+	public LocalDate dateAt(Point p) {
+		if(p.x < 0 || p.y < 0 || p.x >= getWidth() || p.y >= getHeight()) return null;
+		int col = p.x * 7 / getWidth();
+		int row = p.y * rowCount() / getHeight();
+		int day = row * 7 + col - placeholders + 1;
+		if(day < 1 || day > dayEntries.size()) return null;
+		return firstDay.withDayOfMonth(day);
+	}
+
+	/**
+     * Paints the background, then every day cell intersecting the current clip.
+     *
+     * @param g the graphics context to paint with
+     */
+	@Override
+	protected void paintComponent(Graphics g) {
+		Graphics2D g2 = (Graphics2D) g.create();
+		g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		g2.setColor(theme.getBackgroundColor());
+		g2.fillRect(0, 0, getWidth(), getHeight());
+
+		Rectangle clip = g2.getClipBounds();
+		for(int day = 1; day <= dayEntries.size(); day++) {
+			Rectangle bounds = cellBounds(day);
+			if(clip == null || clip.intersects(bounds)) {
+				Graphics2D cell = (Graphics2D) g2.create(bounds.x, bounds.y, bounds.width, bounds.height);
+				paintCell(cell, day, bounds.width, bounds.height);
+				cell.dispose();
+			}
+		}
+		g2.dispose();
+	}
+
+	/**
+     * Paints one day cell: its border, its day number, and as many event lines as fit,
+     * collapsing the remainder into a "+N more" line.
+     */
+	private void paintCell(Graphics2D g, int day, int width, int height) {
+		FontMetrics fm = g.getFontMetrics();
+		int lineHeight = fm.getHeight();
+		List<MonthModelCache.Entry> entries = dayEntries.get(day - 1);
+
+		g.setColor(theme.getSecondaryColor());
+		g.drawRect(0, 0, width - 1, height - 1);
+		g.setColor(theme.getSecondaryTextColor());
+		g.drawString(String.valueOf(day), PADDING, PADDING + fm.getAscent());
+
+		int top = PADDING + lineHeight + PADDING;
+		int capacity = Math.max(0, (height - top - PADDING) / lineHeight);
+		int shown = entries.size() <= capacity ? entries.size() : Math.max(0, capacity - 1);
+
+		for(int i = 0; i < shown; i++) {
+			MonthModelCache.Entry entry = entries.get(i);
+			int y = top + i * lineHeight;
+			if(entry.isMultiDay()) {
+				g.setColor(theme.getSecondaryColor());
+				g.fillRect(1, y, width - 2, lineHeight);
+			}
+			String time = entry.getTimeLabel();
+			g.setColor(theme.getPrimaryTextColor());
+			g.drawString(time, PADDING, y + fm.getAscent());
+			g.setColor(entry.getColor());
+			g.drawString(entry.getEvent().getName(), PADDING * 3 + fm.stringWidth(time), y + fm.getAscent());
+		}
+
+		if(shown < entries.size()) {
+			g.setColor(theme.getSecondaryTextColor());
+			g.drawString("+" + (entries.size() - shown) + " more", PADDING, top + shown * lineHeight + fm.getAscent());
+		}
+	}
+
+	/**
+     * Computes the bounds of the cell for the given day of the month. Column and row edges
+     * are derived from the component size so that rounding never leaves gaps.
+     */
+	private Rectangle cellBounds(int day) {
+		int slot = placeholders + day - 1;
+		int col = slot % 7;
+		int row = slot / 7;
+		int rows = rowCount();
+		int x0 = col * getWidth() / 7;
+		int x1 = (col + 1) * getWidth() / 7;
+		int y0 = row * getHeight() / rows;
+		int y1 = (row + 1) * getHeight() / rows;
+		return new Rectangle(x0, y0, x1 - x0, y1 - y0);
+	}
+
+	private int rowCount() {
+		return (placeholders + dayEntries.size() + 6) / 7;
+	}
+
+	public Theme getTheme() {
+		return theme;
+	}
+
+	/**
+     * Applies a new theme and repaints the grid.
+     *
+     * @param theme the new Theme to paint with
+     */
+	public void setTheme(Theme theme) {
+		this.theme = theme;
+		repaint();
+	}
+}
@@ -5,9 +5,13 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -18,20 +22,26 @@ import javax.swing.JScrollPane;
 import javax.swing.ListSelectionModel;
 
 import onthedocket.models.Event;
+import onthedocket.models.RecurringEvent;
 import onthedocket.persistence.DataManager;
+import onthedocket.utils.Metrics;
 
 /**
  * A modal dialog that displays all events for a specific date and allows
  * the user to select and remove one or more events. Presents the events
  * in a scrollable list, enforces selection, and confirms before deletion.
+ * Removing an occurrence of a recurring event skips that date only, unless the
+ * user chooses to remove the whole series.
  * Upon successful removal, a flag is set to indicate the change.
  * 
  * @author Sitatunga147 (with moderate AI assistance)
  */
 @SuppressWarnings("serial")
 public class RemoveEventDialog extends JDialog {
+	private static final Metrics.Timer OPEN_TIMER = Metrics.timer("dialog", "removeEvents");
 	private final LocalDate date;
 	private final JList<Event> eventJList;
+	private final JCheckBox wholeSeriesBox = new JCheckBox("Remove entire series of recurring events");
 	private boolean removed = false;
 
 	/**
@@ -43,6 +53,7 @@ public class RemoveEventDialog extends JDialog {
 	 */
 	public RemoveEventDialog(JFrame owner, LocalDate date) {
 		super(owner, "Remove Events: " + date, true);
+		OPEN_TIMER.timeUntilShown(this);
 		this.date = date;
 		
 		List<Event> events = DataManager.getEventsOn(date);
@@ -85,6 +96,15 @@ public class RemoveEventDialog extends JDialog {
         JScrollPane scroll = new JScrollPane(eventJList);
         content.add(scroll, gbc);
 
+        for (int i = 0; i < eventJList.getModel().getSize(); i++) {
+            if (eventJList.getModel().getElementAt(i) instanceof RecurringEvent.Occurrence) {
+                gbc.gridy = 2;
+                gbc.weighty = 0;
+                content.add(wholeSeriesBox, gbc);
+                break;
+            }
+        }
+
         JPanel buttons = new JPanel();
         JButton removeBtn = new JButton("Remove");
         JButton cancelBtn = new JButton("Cancel");
@@ -126,8 +146,18 @@ public class RemoveEventDialog extends JDialog {
             return;
         }
 
+        List<Event> single = new ArrayList<>();
+        Set<RecurringEvent> wholeSeries = new LinkedHashSet<>();
         for (Event e : selected) {
-            DataManager.removeEvent(e);
+            if (wholeSeriesBox.isSelected() && e instanceof RecurringEvent.Occurrence) {
+                wholeSeries.add(((RecurringEvent.Occurrence) e).getSeries());
+            } else {
+                single.add(e);
+            }
+        }
+        DataManager.removeEvents(single);
+        for (RecurringEvent series : wholeSeries) {
+            DataManager.removeRecurringEvent(series);
         }
         removed = true;
         dispose();
@@ -0,0 +1,170 @@
+package onthedocket.views;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import javax.swing.AbstractAction;
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JComponent;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import onthedocket.models.Event;
+import onthedocket.persistence.SearchIndex;
+import onthedocket.utils.Metrics;
+
+/**
+ * A non-modal dialog for finding events by name. Results are looked up in a {@link SearchIndex}
+ * and refreshed on every keystroke, listing each match with its date. Choosing a result, by
+ * double-clicking it or pressing Enter, moves the view shown in the main window to its date.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@SuppressWarnings("serial")
+public class SearchDialog extends JDialog {
+	private static final Metrics.Timer OPEN_TIMER = Metrics.timer("dialog", "search");
+	private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("EEE yyyy-MM-dd h:mm a");
+	private static final int MAX_RESULTS = 200;
+	private final SearchIndex index;
+	private final MainView owner;
+	private final JTextField queryField = new JTextField(30);
+	private final DefaultListModel<Event> results = new DefaultListModel<>();
+	private final JList<Event> resultList = new JList<>(results);
+	private final JLabel countLabel = new JLabel(" ");
+
+	/**
+	 * Constructs a search dialog owned by the given window.
+	 *
+	 * @param owner the main window, whose shown view moves to chosen results
+	 * @param index the index to search
+	 */
+	public SearchDialog(MainView owner, SearchIndex index) {
+		super(owner, "Search Events", false);
+		OPEN_TIMER.timeUntilShown(this);
+		this.index = index;
+		this.owner = owner;
+		initComponents();
+		pack();
+		setLocationRelativeTo(owner);
+	}
+
+	/**
+	 * Lays out the query field, result list, and result count, and wires up
+	 * searching as the user types.
+	 */
+	private void initComponents() {
+		queryField.getDocument().addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				runSearch();
+			}
+
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				runSearch();
+			}
+
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+				runSearch();
+			}
+		});
+		queryField.addActionListener(e -> {
+			if (resultList.getSelectedIndex() < 0 && !results.isEmpty()) {
+				resultList.setSelectedIndex(0);
+			}
+			showSelected();
+		});
+
+		resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		resultList.setVisibleRowCount(12);
+		resultList.setCellRenderer(new ResultRenderer());
+		resultList.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if (e.getClickCount() == 2) {
+					showSelected();
+				}
+			}
+		});
+		resultList.getInputMap(JComponent.WHEN_FOCUSED).put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "show");
+		resultList.getActionMap().put("show", new AbstractAction() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				showSelected();
+			}
+		});
+		getRootPane().registerKeyboardAction(e -> dispose(), KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0),
+				JComponent.WHEN_IN_FOCUSED_WINDOW);
+
+		countLabel.setBorder(BorderFactory.createEmptyBorder(2, 8, 2, 8));
+		queryField.setBorder(BorderFactory.createCompoundBorder(BorderFactory.createEmptyBorder(8, 8, 8, 8), queryField.getBorder()));
+
+		getContentPane().setLayout(new BorderLayout());
+		getContentPane().add(queryField, BorderLayout.NORTH);
+		getContentPane().add(new JScrollPane(resultList), BorderLayout.CENTER);
+		getContentPane().add(countLabel, BorderLayout.SOUTH);
+	}
+
+	/**
+	 * Replaces the listed results with those matching the current query.
+	 */
+	private void runSearch() {
+		List<Event> matches = index.search(queryField.getText(), MAX_RESULTS + 1);
+		results.clear();
+		for (int i = 0; i < Math.min(matches.size(), MAX_RESULTS); i++) {
+			results.addElement(matches.get(i));
+		}
+		if (queryField.getText().isBlank()) {
+			countLabel.setText(" ");
+		} else if (matches.size() > MAX_RESULTS) {
+			countLabel.setText("Showing the first " + MAX_RESULTS + " matches");
+		} else {
+			countLabel.setText(matches.size() + (matches.size() == 1 ? " match" : " matches"));
+		}
+	}
+
+	/**
+	 * Moves the view shown in the main window to the date of the selected result.
+	 */
+	private void showSelected() {
+		Event selected = resultList.getSelectedValue();
+		if (selected != null) {
+			owner.showDate(selected.getStart().toLocalDate());
+		}
+	}
+
+	/**
+	 * Renders a result as its date and time, name, and category, with the name
+	 * painted in the category's color.
+	 */
+	private static class ResultRenderer extends DefaultListCellRenderer {
+		@Override
+		public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+			JLabel label = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+			if (value instanceof Event) {
+				Event e = (Event) value;
+				label.setText(e.getStart().format(DATE_FORMATTER) + "   " + e.getName() + " (" + e.getCategory().getName() + ")");
+				if (!isSelected) {
+					label.setForeground(e.getCategory().getColor());
+				}
+			}
+			return label;
+		}
+	}
+}
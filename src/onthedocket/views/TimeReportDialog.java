@@ -0,0 +1,272 @@
+package onthedocket.views;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.JTable;
+import javax.swing.SpinnerDateModel;
+import javax.swing.SwingUtilities;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.DefaultTableModel;
+
+import onthedocket.models.EventCategory;
+import onthedocket.persistence.CategoryRollups;
+import onthedocket.persistence.CsvFormat;
+import onthedocket.persistence.DataListener;
+import onthedocket.persistence.DataManager;
+import onthedocket.utils.Metrics;
+
+/**
+ * A non-modal dialog reporting the hours booked per category in each week, month, or year of a
+ * chosen range of dates, with a total per period and for the whole range. The report can be
+ * exported as CSV for a spreadsheet.
+ * <p>
+ * The figures come from {@link DataManager#getCategoryTotals(CategoryRollups.Period, LocalDate, LocalDate)},
+ * which reads the rollups DataManager keeps up to date, so a report over many years costs one
+ * lookup per period rather than a pass over every event. While open, the dialog refreshes
+ * itself, at most once per batch of changes, whenever the data changes.
+ * </p>
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@SuppressWarnings("serial")
+public class TimeReportDialog extends JDialog {
+	private static final Metrics.Timer OPEN_TIMER = Metrics.timer("dialog", "timeReport");
+	private static final DateTimeFormatter WEEK_FORMATTER = DateTimeFormatter.ofPattern("'Week of' MMM d, yyyy");
+	private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("MMMM yyyy");
+	private static final DateTimeFormatter YEAR_FORMATTER = DateTimeFormatter.ofPattern("yyyy");
+	private final JComboBox<CategoryRollups.Period> periodBox = new JComboBox<>(CategoryRollups.Period.values());
+	private JSpinner fromSpinner, toSpinner;
+	private final DefaultTableModel tableModel = new DefaultTableModel() {
+		@Override
+		public boolean isCellEditable(int row, int column) {
+			return false;
+		}
+
+		@Override
+		public Class<?> getColumnClass(int column) {
+			if (column == 0) {
+				return String.class;
+			}
+			return column == getColumnCount() - 1 ? Integer.class : Double.class;
+		}
+	};
+	private final JLabel summaryLabel = new JLabel(" ");
+	private List<CategoryRollups.Totals> rows = Collections.emptyList();
+	private List<EventCategory> columns = Collections.emptyList();
+	private boolean refreshPending;
+	private final DataListener dataListener = new DataListener() {
+		@Override
+		public void dataChanged() {
+			scheduleRefresh();
+		}
+	};
+
+	/**
+	 * Constructs a time report dialog owned by the given frame, showing the months of the
+	 * current year so far.
+	 *
+	 * @param owner the parent frame used for positioning
+	 */
+	public TimeReportDialog(JFrame owner) {
+		super(owner, "Time Report", false);
+		OPEN_TIMER.timeUntilShown(this);
+		initComponents();
+		refresh();
+		DataManager.addListener(dataListener);
+		pack();
+		setLocationRelativeTo(owner);
+	}
+
+	/**
+	 * Lays out the choice of period and range, the report table, and the buttons.
+	 */
+	private void initComponents() {
+		LocalDate today = LocalDate.now();
+		periodBox.setSelectedItem(CategoryRollups.Period.MONTH);
+		periodBox.addActionListener(e -> refresh());
+		fromSpinner = buildDateSpinner(today.withDayOfYear(1));
+		toSpinner = buildDateSpinner(today);
+
+		JPanel criteria = new JPanel(new FlowLayout(FlowLayout.LEFT));
+		criteria.add(periodBox);
+		criteria.add(new JLabel("From:"));
+		criteria.add(fromSpinner);
+		criteria.add(new JLabel("To:"));
+		criteria.add(toSpinner);
+
+		JTable table = new JTable(tableModel);
+		table.setAutoCreateRowSorter(true);
+		table.setFillsViewportHeight(true);
+		summaryLabel.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
+		JPanel center = new JPanel(new BorderLayout());
+		center.add(new JScrollPane(table), BorderLayout.CENTER);
+		center.add(summaryLabel, BorderLayout.SOUTH);
+
+		JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+		JButton refreshButton = new JButton("REFRESH");
+		refreshButton.addActionListener(e -> refresh());
+		JButton exportButton = new JButton("EXPORT CSV");
+		exportButton.addActionListener(e -> export());
+		JButton closeButton = new JButton("CLOSE");
+		closeButton.addActionListener(e -> dispose());
+		buttons.add(refreshButton);
+		buttons.add(exportButton);
+		buttons.add(closeButton);
+		getRootPane().setDefaultButton(refreshButton);
+
+		getContentPane().setLayout(new BorderLayout());
+		getContentPane().add(criteria, BorderLayout.NORTH);
+		getContentPane().add(center, BorderLayout.CENTER);
+		getContentPane().add(buttons, BorderLayout.SOUTH);
+	}
+
+	/**
+	 * Creates a date spinner showing and parsing dates in "yyyy-MM-dd" format.
+	 *
+	 * @param initial the date to show initially
+	 * @return a JSpinner for date selection
+	 */
+	private JSpinner buildDateSpinner(LocalDate initial) {
+		Date value = Date.from(initial.atStartOfDay(ZoneId.systemDefault()).toInstant());
+		JSpinner spinner = new JSpinner(new SpinnerDateModel(value, null, null, Calendar.DAY_OF_MONTH));
+		spinner.setEditor(new JSpinner.DateEditor(spinner, "yyyy-MM-dd"));
+		spinner.addChangeListener(e -> refresh());
+		return spinner;
+	}
+
+	/**
+	 * Reads the totals of every period of the chosen range and shows them, with a column for
+	 * each category that booked time.
+	 */
+	private void refresh() {
+		LocalDate from = toLocalDate(fromSpinner);
+		LocalDate to = toLocalDate(toSpinner);
+		CategoryRollups.Period period = (CategoryRollups.Period) periodBox.getSelectedItem();
+		rows = to.isBefore(from) ? Collections.<CategoryRollups.Totals>emptyList() : DataManager.getCategoryTotals(period, from, to);
+		columns = CategoryRollups.categoriesOf(rows);
+
+		List<String> header = new ArrayList<>();
+		header.add("Period");
+		for (EventCategory category : columns) {
+			header.add(category.getName() + " (h)");
+		}
+		header.add("Total (h)");
+		header.add("Events");
+		Object[][] data = new Object[rows.size()][];
+		long totalMinutes = 0;
+		for (int i = 0; i < rows.size(); i++) {
+			CategoryRollups.Totals row = rows.get(i);
+			Object[] cells = new Object[header.size()];
+			cells[0] = label(row);
+			for (int c = 0; c < columns.size(); c++) {
+				cells[c + 1] = hours(row.getMinutes(columns.get(c)));
+			}
+			cells[cells.length - 2] = hours(row.getTotalMinutes());
+			cells[cells.length - 1] = row.getCount();
+			data[i] = cells;
+			totalMinutes += row.getTotalMinutes();
+		}
+		tableModel.setDataVector(data, header.toArray());
+		if (to.isBefore(from)) {
+			summaryLabel.setText("The end of the range must not be before its start.");
+		} else {
+			summaryLabel.setText(String.format("%.2f hours booked over %d periods", totalMinutes / 60.0, rows.size()));
+		}
+	}
+
+	/**
+	 * Schedules a refresh on the event dispatch thread unless one is already pending.
+	 * May be called from any thread.
+	 */
+	private void scheduleRefresh() {
+		synchronized (this) {
+			if (refreshPending) {
+				return;
+			}
+			refreshPending = true;
+		}
+		SwingUtilities.invokeLater(() -> {
+			synchronized (this) {
+				refreshPending = false;
+			}
+			if (isDisplayable()) {
+				refresh();
+			}
+		});
+	}
+
+	/**
+	 * Asks for a file name and writes the shown report to it as CSV.
+	 */
+	private void export() {
+		JFileChooser chooser = new JFileChooser();
+		chooser.setFileFilter(new FileNameExtensionFilter("CSV files (*.csv)", "csv"));
+		chooser.setSelectedFile(new File("onthedocket-time-report.csv"));
+		if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+			return;
+		}
+		try {
+			CsvFormat.exportCategoryReport(chooser.getSelectedFile().toPath(), rows, columns);
+		} catch (IOException ex) {
+			ex.printStackTrace();
+			JOptionPane.showMessageDialog(this, "Could not export the report: " + ex.getMessage(), "Export Failed", JOptionPane.ERROR_MESSAGE);
+		}
+	}
+
+	/**
+	 * Stops listening for DataManager changes once the dialog is closed.
+	 */
+	@Override
+	public void dispose() {
+		DataManager.removeListener(dataListener);
+		super.dispose();
+	}
+
+	/**
+	 * Names a period the way the report lists it.
+	 */
+	private static String label(CategoryRollups.Totals row) {
+		switch (row.getPeriod()) {
+		case WEEK:
+			return row.getStart().format(WEEK_FORMATTER);
+		case MONTH:
+			return row.getStart().format(MONTH_FORMATTER);
+		default:
+			return row.getStart().format(YEAR_FORMATTER);
+		}
+	}
+
+	/**
+	 * Converts minutes to hours, rounded to two decimals.
+	 */
+	private static Double hours(long minutes) {
+		return Math.round(minutes / 60.0 * 100) / 100.0;
+	}
+
+	private static LocalDate toLocalDate(JSpinner spinner) {
+		return Instant.ofEpochMilli(((Date) spinner.getValue()).getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+	}
+}
@@ -0,0 +1,284 @@
+package onthedocket.views;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.FlowLayout;
+import java.awt.Point;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.ScrollPaneConstants;
+import javax.swing.SwingUtilities;
+
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.models.RecurringEvent;
+import onthedocket.persistence.DataListener;
+import onthedocket.persistence.DataManager;
+import onthedocket.utils.Theme;
+
+/**
+ * Renders a week or a single day as a scrollable {@link TimelineGrid}, with the dates across
+ * the top, an hourly time axis down the side, and navigation controls below. Weeks start on
+ * Sunday, like the month grid of {@link CalendarComponent}.
+ * <p>
+ * While displayed, the component listens to the DataManager and repaints the columns of the
+ * days touched by each change. The grid itself holds no events, so there is nothing to rebuild.
+ * </p>
+ *
+ * @see TimelineGrid
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@SuppressWarnings("serial")
+public class TimelineComponent extends JComponent {
+	private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy");
+	private static final DateTimeFormatter WEEK_FORMATTER = DateTimeFormatter.ofPattern("MMMM d, yyyy");
+	private static final int FIRST_VISIBLE_HOUR = 7;
+	private LocalDate referenceDate;
+	private Range range;
+	private Theme theme;
+	private final TimelineGrid grid;
+	private final JScrollPane scrollPane;
+	private JPanel bottomPanel;
+	private JLabel rangeLabel;
+	private final DataListener dataListener = new DataListener() {
+		@Override
+		public void eventsAdded(List<Event> added) {
+			repaintEvents(added);
+		}
+
+		@Override
+		public void eventsRemoved(List<Event> removed) {
+			repaintEvents(removed);
+		}
+
+		@Override
+		public void eventUpdated(Event oldEvent, Event newEvent) {
+			repaintEvents(Arrays.asList(oldEvent, newEvent));
+		}
+
+		@Override
+		public void eventsReplaced() {
+			SwingUtilities.invokeLater(() -> grid.repaint());
+		}
+
+		@Override
+		public void recurringEventsChanged(List<RecurringEvent> recurring) {
+			SwingUtilities.invokeLater(() -> grid.repaint());
+		}
+
+		@Override
+		public void categoriesChanged(List<EventCategory> categories) {
+			SwingUtilities.invokeLater(() -> grid.repaint());
+		}
+	};
+
+	/**
+	 * The spans of time a timeline can show.
+	 */
+	public enum Range {
+		/**
+		 * A single day.
+		 */
+		DAY(1),
+		/**
+		 * The week, from Sunday to Saturday, containing the reference date.
+		 */
+		WEEK(7);
+
+		private final int days;
+
+		Range(int days) {
+			this.days = days;
+		}
+
+		public int getDays() {
+			return days;
+		}
+
+		/**
+		 * Returns the first day shown for the given reference date.
+		 *
+		 * @param date the reference date
+		 * @return {@code date} itself for a day, or the Sunday starting its week
+		 */
+		public LocalDate firstDay(LocalDate date) {
+			return this == DAY ? date : date.minusDays(date.getDayOfWeek().getValue() % 7);
+		}
+	}
+
+	/**
+     * Creates a timeline showing the given range around the specified date.
+     *
+     * @param date the reference date to display
+     * @param range whether to show the day or the week of {@code date}
+     * @param theme the visual theme to apply
+     */
+	public TimelineComponent(LocalDate date, Range range, Theme theme) {
+		this.referenceDate = date;
+		this.range = range;
+		this.theme = theme;
+
+		setLayout(new BorderLayout());
+		grid = new TimelineGrid(range.firstDay(date), range.getDays(), theme, this::openCellDialog);
+		scrollPane = new JScrollPane(grid, ScrollPaneConstants.VERTICAL_SCROLLBAR_ALWAYS, ScrollPaneConstants.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+		scrollPane.setColumnHeaderView(grid.createDayHeader());
+		scrollPane.setRowHeaderView(grid.createTimeAxis());
+		scrollPane.setBorder(BorderFactory.createEmptyBorder());
+		scrollPane.getVerticalScrollBar().setUnitIncrement(TimelineGrid.HOUR_HEIGHT / 4);
+		scrollPane.getViewport().setViewPosition(new Point(0, FIRST_VISIBLE_HOUR * TimelineGrid.HOUR_HEIGHT));
+		add(scrollPane, BorderLayout.CENTER);
+		initBottom();
+		updateWith(date);
+	}
+
+	/**
+     * Shows the day or week containing the new reference date, keeping the scroll position.
+     *
+     * @param newReferenceDate the date to show
+     */
+	public void updateWith(LocalDate newReferenceDate) {
+		this.referenceDate = newReferenceDate;
+		LocalDate firstDay = range.firstDay(newReferenceDate);
+		grid.setRange(firstDay, range.getDays());
+		if(range == Range.DAY) {
+			rangeLabel.setText(firstDay.format(DAY_FORMATTER));
+		} else {
+			rangeLabel.setText("Week of " + firstDay.format(WEEK_FORMATTER));
+		}
+		scrollPane.repaint();
+	}
+
+	/**
+     * Initializes and lays out the bottom navigation panel, including
+     * previous/next buttons and the label of the shown day or week.
+     */
+	private void initBottom() {
+		bottomPanel = new JPanel(new FlowLayout());
+		bottomPanel.setBackground(theme.getBackgroundColor());
+
+		JButton leftButton = new JButton("◄");
+		leftButton.setBackground(theme.getAccentColor());
+		leftButton.setForeground(theme.getPrimaryTextColor());
+		leftButton.addActionListener(e -> {
+			updateWith(referenceDate.minusDays(range.getDays()));
+		});
+		JButton rightButton = new JButton("►");
+		rightButton.setBackground(theme.getAccentColor());
+		rightButton.setForeground(theme.getPrimaryTextColor());
+		rightButton.addActionListener(e -> {
+			updateWith(referenceDate.plusDays(range.getDays()));
+		});
+		rangeLabel = new JLabel();
+		rangeLabel.setForeground(theme.getPrimaryTextColor());
+
+		bottomPanel.add(leftButton);
+		bottomPanel.add(rangeLabel);
+		bottomPanel.add(rightButton);
+		add(bottomPanel, BorderLayout.SOUTH);
+	}
+
+	/**
+     * Opens the {@link CellDialog} offering actions for the given date, unless
+     * this component is disabled.
+     *
+     * @param date the date whose column was clicked
+     */
+	private void openCellDialog(LocalDate date) {
+		if(!isEnabled()) return;
+		JFrame owner = (JFrame) SwingUtilities.getWindowAncestor(this);
+		CellDialog dialog = new CellDialog(owner, date);
+		dialog.setVisible(true);
+	}
+
+	/**
+     * Repaints, on the event dispatch thread, the columns of the days spanned by the given
+     * events. May be called from any thread.
+     *
+     * @param changed the events that were added or removed
+     */
+	private void repaintEvents(List<Event> changed) {
+		LocalDate first = null, last = null;
+		for(Event e : changed) {
+			LocalDate start = e.getStart().toLocalDate();
+			LocalDate end = e.getEnd().toLocalDate();
+			if(first == null || start.isBefore(first)) first = start;
+			if(last == null || end.isAfter(last)) last = end;
+		}
+		if(first == null) return;
+		LocalDate from = first, to = last;
+		SwingUtilities.invokeLater(() -> grid.repaintDays(from, to));
+	}
+
+	/**
+     * Starts listening for DataManager changes when this component is added to a displayed
+     * hierarchy, and catches up on anything that changed while it was not listening.
+     */
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		DataManager.addListener(dataListener);
+		grid.repaint();
+	}
+
+	/**
+     * Stops listening for DataManager changes when this component is removed from
+     * a displayed hierarchy.
+     */
+	@Override
+	public void removeNotify() {
+		DataManager.removeListener(dataListener);
+		super.removeNotify();
+	}
+
+	public LocalDate getReferenceDate() {
+		return referenceDate;
+	}
+
+	public Range getRange() {
+		return range;
+	}
+
+	/**
+     * Switches between the day and the week view of the current reference date.
+     *
+     * @param range the new Range to show
+     */
+	public void setRange(Range range) {
+		this.range = range;
+		updateWith(referenceDate);
+	}
+
+	public Theme getTheme() {
+		return theme;
+	}
+
+	/**
+     * Applies a new theme to the grid, its headers, and the navigation controls, then repaints.
+     *
+     * @param theme the new Theme to set
+     */
+	public void setTheme(Theme theme) {
+		this.theme = theme;
+		grid.setTheme(theme);
+		scrollPane.getViewport().setBackground(theme.getBackgroundColor());
+		bottomPanel.setBackground(theme.getBackgroundColor());
+		for(Component c : bottomPanel.getComponents()) {
+			if(c instanceof JButton) {
+				c.setBackground(theme.getAccentColor());
+			}
+			c.setForeground(theme.getPrimaryTextColor());
+		}
+		scrollPane.repaint();
+	}
+}
@@ -0,0 +1,438 @@
+package onthedocket.views;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.ToolTipManager;
+
+import onthedocket.models.Event;
+import onthedocket.persistence.DataManager;
+import onthedocket.utils.Metrics;
+import onthedocket.utils.Theme;
+
+/**
+ * A scrollable timeline of one or more consecutive days, with one column per day and an hourly
+ * time axis running downwards. Meant to be placed in a {@link javax.swing.JScrollPane} together
+ * with its {@link #createDayHeader() day header} and {@link #createTimeAxis() time axis}.
+ * <p>
+ * Nothing is built per event: each paint queries the {@link DataManager} only for the time
+ * window of each day column that intersects the clip, and paints only the hour rows inside it.
+ * Since scrolling repaints just the newly exposed strip, scrolling through days with hundreds
+ * of events costs a few small range queries per frame. Overlapping events are placed side by
+ * side by an {@link OverlapLayout}, for which the window is widened to whole groups of
+ * overlapping events.
+ * </p>
+ *
+ * @see TimelineComponent
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@SuppressWarnings("serial")
+public class TimelineGrid extends JComponent implements Scrollable {
+	/**
+	 * The height of one hour, in pixels.
+	 */
+	public static final int HOUR_HEIGHT = 48;
+	private static final int MINUTES_PER_DAY = 24 * 60;
+	private static final int MIN_COLUMN_WIDTH = 110;
+	private static final int HEADER_HEIGHT = 24;
+	private static final int AXIS_WIDTH = 64;
+	private static final int PADDING = 3;
+	private static final DateTimeFormatter HEADER_FORMATTER = DateTimeFormatter.ofPattern("EEE M/d");
+	private static final DateTimeFormatter HOUR_FORMATTER = DateTimeFormatter.ofPattern("h a");
+	private static final Metrics.Timer PAINT_TIMER = Metrics.timer("view", "paintTimeline");
+
+	private LocalDate firstDay;
+	private int dayCount;
+	private Theme theme;
+	private final OverlapLayout layout = new OverlapLayout();
+
+	/**
+     * Creates a timeline of {@code dayCount} days starting on {@code firstDay}.
+     *
+     * @param firstDay the day shown in the leftmost column
+     * @param dayCount the number of days, and so of columns, to show
+     * @param theme the visual theme to paint with
+     * @param onDayClicked called with the date of a day column when it is clicked
+     */
+	public TimelineGrid(LocalDate firstDay, int dayCount, Theme theme, Consumer<LocalDate> onDayClicked) {
+		this.firstDay = firstDay;
+		this.dayCount = dayCount;
+		this.theme = theme;
+
+		setOpaque(true);
+		ToolTipManager.sharedInstance().registerComponent(this);
+		addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent me) {
+				LocalDate date = dateAt(me.getPoint());
+				if(date != null) {
+					onDayClicked.accept(date);
+				}
+			}
+		});
+	}
+
+	/**
+     * Shows {@code dayCount} days starting on {@code firstDay} and repaints.
+     *
+     * @param firstDay the day shown in the leftmost column
+     * @param dayCount the number of days to show
+     */
+	public void setRange(LocalDate firstDay, int dayCount) {
+		this.firstDay = firstDay;
+		this.dayCount = dayCount;
+		revalidate();
+		repaint();
+	}
+
+	/**
+     * Repaints the columns of the shown days from {@code first} to {@code last} (inclusive).
+     * Days outside the shown range are ignored.
+     *
+     * @param first the first changed day
+     * @param last the last changed day
+     */
+	public void repaintDays(LocalDate first, LocalDate last) {
+		LocalDate lastDay = firstDay.plusDays(dayCount - 1);
+		if(first.isAfter(lastDay) || last.isBefore(firstDay)) return;
+		int from = first.isBefore(firstDay) ? 0 : (int) ChronoUnit.DAYS.between(firstDay, first);
+		int to = last.isAfter(lastDay) ? dayCount - 1 : (int) ChronoUnit.DAYS.between(firstDay, last);
+		Rectangle left = columnBounds(from);
+		Rectangle right = columnBounds(to);
+		repaint(left.x, 0, right.x + right.width - left.x, getHeight());
+	}
+
+	/**
+     * Returns the date of the day column under the given point.
+     *
+     * @param p a point in this component's coordinate space
+     * @return the date under {@code p}, or {@code null} if the point is outside every column
+     */
+	public LocalDate dateAt(Point p) {
+		if(p.x < 0 || p.y < 0 || p.x >= getWidth() || p.y >= getHeight()) return null;
+		return firstDay.plusDays(p.x * dayCount / getWidth());
+	}
+
+	/**
+     * Lists the events under the mouse pointer, one per line.
+     *
+     * @param me the mouse event giving the pointer location
+     * @return the names and times of the events under the pointer, or {@code null} if there are none
+     */
+	@Override
+	public String getToolTipText(MouseEvent me) {
+		LocalDate date = dateAt(me.getPoint());
+		if(date == null) return null;
+		LocalDateTime time = date.atStartOfDay().plusMinutes(minuteAt(me.getY()));
+		ArrayList<Event> events = DataManager.getEventsBetween(time, time);
+		if(events.isEmpty()) return null;
+		StringBuilder text = new StringBuilder("<html>");
+		for(Event e : events) {
+			text.append(escape(e.getName())).append(" (").append(CalendarComponent.formatTimeRange(e, date)).append(")<br>");
+		}
+		return text.append("</html>").toString();
+	}
+
+	/**
+     * Paints the background and hour lines of the clip, then the events of every day column
+     * intersecting it, querying each column only for the time window inside the clip.
+     *
+     * @param g the graphics context to paint with
+     */
+	@Override
+	protected void paintComponent(Graphics g) {
+		try(Metrics.Span span = PAINT_TIMER.start()) {
+			Graphics2D g2 = (Graphics2D) g.create();
+			g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			Rectangle clip = g2.getClipBounds();
+			if(clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+			g2.setColor(theme.getBackgroundColor());
+			g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+			int firstRow = Math.max(0, clip.y / HOUR_HEIGHT);
+			int lastRow = Math.min(23, (clip.y + clip.height) / HOUR_HEIGHT);
+			for(int row = firstRow; row <= lastRow; row++) {
+				int y = row * HOUR_HEIGHT;
+				g2.setColor(theme.getSecondaryColor());
+				g2.drawLine(clip.x, y, clip.x + clip.width, y);
+			}
+
+			int painted = 0;
+			int firstColumn = Math.max(0, clip.x * dayCount / Math.max(1, getWidth()));
+			int lastColumn = Math.min(dayCount - 1, (clip.x + clip.width) * dayCount / Math.max(1, getWidth()));
+			int fromMinute = minuteAt(clip.y);
+			int toMinute = minuteAt(clip.y + clip.height);
+			for(int column = firstColumn; column <= lastColumn; column++) {
+				Rectangle bounds = columnBounds(column);
+				LocalDate date = firstDay.plusDays(column);
+				g2.setColor(theme.getSecondaryColor());
+				g2.drawLine(bounds.x, clip.y, bounds.x, clip.y + clip.height);
+
+				layout.layout(queryClusters(date, fromMinute, toMinute));
+				Graphics2D cell = (Graphics2D) g2.create(bounds.x, 0, bounds.width, getHeight());
+				for(int k = 0; k < layout.size(); k++) {
+					Event e = layout.getEvent(k);
+					int top = yFor(e.getStart(), date);
+					int bottom = Math.max(top + PADDING * 2, yFor(e.getEnd(), date));
+					if(bottom < clip.y || top > clip.y + clip.height) continue;
+					int x = PADDING + layout.getX(k, bounds.width - PADDING * 2);
+					int width = Math.max(1, layout.getWidth(k, bounds.width - PADDING * 2) - 1);
+					paintEvent(cell, e, date, x, top, width, bottom - top);
+					painted++;
+				}
+				cell.dispose();
+			}
+			span.setItems(painted);
+			g2.dispose();
+		}
+	}
+
+	/**
+     * Returns the events covering {@code date} that overlap the given minutes of the day,
+     * together with every event of {@code date} chained to them by overlaps, so that the
+     * column layout of an event does not depend on how far the view is scrolled. The day is
+     * queried once, and a single sweep over its events in start order splits them into
+     * clusters, keeping those that reach into the window.
+     */
+	private static ArrayList<Event> queryClusters(LocalDate date, int fromMinute, int toMinute) {
+		LocalDateTime dayStart = date.atStartOfDay();
+		LocalDateTime from = dayStart.plusMinutes(fromMinute);
+		LocalDateTime to = dayStart.plusMinutes(toMinute);
+		ArrayList<Event> day = DataManager.getEventsBetween(dayStart, dayStart.plusMinutes(MINUTES_PER_DAY - 1));
+		ArrayList<Event> result = new ArrayList<Event>(day.size());
+		int clusterStart = 0;
+		LocalDateTime clusterEnd = null;
+		for(int i = 0; i <= day.size(); i++) {
+			Event e = i < day.size() ? day.get(i) : null;
+			if(clusterEnd != null && (e == null || e.getStart().isAfter(clusterEnd))) {
+				// The cluster is over; keep it if it reaches into the window.
+				if(!day.get(clusterStart).getStart().isAfter(to) && !clusterEnd.isBefore(from)) {
+					result.addAll(day.subList(clusterStart, i));
+				}
+				clusterStart = i;
+				clusterEnd = null;
+			}
+			if(e != null && (clusterEnd == null || e.getEnd().isAfter(clusterEnd))) clusterEnd = e.getEnd();
+		}
+		return result;
+	}
+
+	/**
+     * Paints one event as a block at the given bounds within its day column, labeled with its
+     * name and times where the block is tall enough.
+     */
+	private void paintEvent(Graphics2D g, Event e, LocalDate date, int x, int top, int w, int height) {
+		Color color = e.getCategory().getColor();
+		g.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 60));
+		g.fillRect(x, top, w, height);
+		g.setColor(color);
+		g.drawRect(x, top, w - 1, height - 1);
+		g.fillRect(x, top, Math.min(3, w), height);
+
+		FontMetrics fm = g.getFontMetrics();
+		if(height < fm.getHeight() || w <= 3 + PADDING) return;
+		Shape clip = g.getClip();
+		g.clipRect(x + 3, top, w - 3 - PADDING, height);
+		int textX = x + 3 + PADDING;
+		int baseline = top + fm.getAscent() + 1;
+		g.setColor(theme.getPrimaryTextColor());
+		g.drawString(e.getName(), textX, baseline);
+		if(height >= fm.getHeight() * 2) {
+			g.setColor(theme.getSecondaryTextColor());
+			g.drawString(CalendarComponent.formatTimeRange(e, date), textX, baseline + fm.getHeight());
+		}
+		g.setClip(clip);
+	}
+
+	/**
+     * Returns the y coordinate of a time within the column of {@code date}, clamped to the column.
+     */
+	private static int yFor(LocalDateTime time, LocalDate date) {
+		if(time.toLocalDate().isBefore(date)) return 0;
+		if(time.toLocalDate().isAfter(date)) return MINUTES_PER_DAY * HOUR_HEIGHT / 60;
+		return (time.getHour() * 60 + time.getMinute()) * HOUR_HEIGHT / 60;
+	}
+
+	/**
+     * Returns the minute of the day at the given y coordinate, clamped to the day.
+     */
+	private static int minuteAt(int y) {
+		return Math.max(0, Math.min(MINUTES_PER_DAY - 1, y * 60 / HOUR_HEIGHT));
+	}
+
+	/**
+     * Computes the bounds of the column for the given day index. Column edges are derived
+     * from the component width so that rounding never leaves gaps.
+     */
+	private Rectangle columnBounds(int column) {
+		int x0 = column * getWidth() / dayCount;
+		int x1 = (column + 1) * getWidth() / dayCount;
+		return new Rectangle(x0, 0, x1 - x0, getHeight());
+	}
+
+	private static String escape(String text) {
+		return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+	}
+
+	/**
+     * Creates a header showing the date of each column, to be used as the column header of
+     * the scroll pane holding this grid. It follows this grid's width.
+     *
+     * @return the day header component
+     */
+	public JComponent createDayHeader() {
+		JComponent header = new JComponent() {
+			@Override
+			public Dimension getPreferredSize() {
+				return new Dimension(TimelineGrid.this.getWidth(), HEADER_HEIGHT);
+			}
+
+			@Override
+			protected void paintComponent(Graphics g) {
+				Graphics2D g2 = (Graphics2D) g.create();
+				g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+				g2.setColor(theme.getSecondaryColor());
+				g2.fillRect(0, 0, getWidth(), getHeight());
+				FontMetrics fm = g2.getFontMetrics();
+				for(int column = 0; column < dayCount; column++) {
+					Rectangle bounds = columnBounds(column);
+					LocalDate date = firstDay.plusDays(column);
+					String label = date.format(HEADER_FORMATTER);
+					g2.setColor(date.equals(LocalDate.now()) ? theme.getAccentColor() : theme.getPrimaryTextColor());
+					g2.drawString(label, bounds.x + (bounds.width - fm.stringWidth(label)) / 2, (HEADER_HEIGHT + fm.getAscent() - fm.getDescent()) / 2);
+					g2.setColor(theme.getBackgroundColor());
+					g2.drawLine(bounds.x, 0, bounds.x, HEADER_HEIGHT);
+				}
+				g2.dispose();
+			}
+		};
+		addComponentListener(new ComponentAdapter() {
+			@Override
+			public void componentResized(ComponentEvent ce) {
+				header.revalidate();
+				header.repaint();
+			}
+		});
+		return header;
+	}
+
+	/**
+     * Creates the hourly time axis, to be used as the row header of the scroll pane holding
+     * this grid. Only the hour labels inside the clip are painted.
+     *
+     * @return the time axis component
+     */
+	public JComponent createTimeAxis() {
+		return new JComponent() {
+			@Override
+			public Dimension getPreferredSize() {
+				return new Dimension(AXIS_WIDTH, 24 * HOUR_HEIGHT);
+			}
+
+			@Override
+			protected void paintComponent(Graphics g) {
+				Graphics2D g2 = (Graphics2D) g.create();
+				g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+				Rectangle clip = g2.getClipBounds();
+				if(clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+				g2.setColor(theme.getBackgroundColor());
+				g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+				FontMetrics fm = g2.getFontMetrics();
+				int firstRow = Math.max(0, clip.y / HOUR_HEIGHT - 1);
+				int lastRow = Math.min(23, (clip.y + clip.height) / HOUR_HEIGHT);
+				g2.setColor(theme.getSecondaryTextColor());
+				for(int row = firstRow; row <= lastRow; row++) {
+					String label = LocalTime.of(row, 0).format(HOUR_FORMATTER);
+					g2.drawString(label, AXIS_WIDTH - PADDING * 2 - fm.stringWidth(label), row * HOUR_HEIGHT + fm.getAscent());
+				}
+				g2.dispose();
+			}
+		};
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+		return new Dimension(dayCount * MIN_COLUMN_WIDTH, 24 * HOUR_HEIGHT);
+	}
+
+	@Override
+	public Dimension getPreferredScrollableViewportSize() {
+		return new Dimension(dayCount * MIN_COLUMN_WIDTH, 12 * HOUR_HEIGHT);
+	}
+
+	/**
+     * Scrolls by a quarter of an hour vertically, or by a column horizontally.
+     */
+	@Override
+	public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+		return orientation == SwingConstants.VERTICAL ? HOUR_HEIGHT / 4 : MIN_COLUMN_WIDTH;
+	}
+
+	/**
+     * Scrolls by the visible extent, less an hour so that some context stays in view.
+     */
+	@Override
+	public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+		if(orientation == SwingConstants.VERTICAL) return Math.max(HOUR_HEIGHT, visibleRect.height - HOUR_HEIGHT);
+		return Math.max(MIN_COLUMN_WIDTH, visibleRect.width - MIN_COLUMN_WIDTH);
+	}
+
+	/**
+     * Stretches the columns to fill the viewport, unless that would make them narrower than
+     * the minimum column width.
+     */
+	@Override
+	public boolean getScrollableTracksViewportWidth() {
+		return getParent() instanceof JViewport && getParent().getWidth() >= getPreferredSize().width;
+	}
+
+	@Override
+	public boolean getScrollableTracksViewportHeight() {
+		return false;
+	}
+
+	public LocalDate getFirstDay() {
+		return firstDay;
+	}
+
+	public int getDayCount() {
+		return dayCount;
+	}
+
+	public Theme getTheme() {
+		return theme;
+	}
+
+	/**
+     * Applies a new theme and repaints the grid.
+     *
+     * @param theme the new Theme to paint with
+     */
+	public void setTheme(Theme theme) {
+		this.theme = theme;
+		repaint();
+	}
+}
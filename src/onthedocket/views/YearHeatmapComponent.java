@@ -0,0 +1,423 @@
+package onthedocket.views;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.ToolTipManager;
+
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.models.RecurringEvent;
+import onthedocket.persistence.DataListener;
+import onthedocket.persistence.DataManager;
+import onthedocket.persistence.DayAggregates;
+import onthedocket.utils.Theme;
+
+/**
+ * Shows a whole year as twelve small month grids whose day cells are shaded by how busy each
+ * day is, measured either by the number of events or by the hours they book. Hovering over a day
+ * lists its totals per category, and clicking one reports its date to a callback.
+ * <p>
+ * The shading comes from {@link DataManager#getDayTotals(LocalDate, LocalDate)}, which reads the
+ * per-day counters DataManager maintains, so building the year costs 365 lookups however many
+ * events it holds. Months without any events have their names dimmed. While displayed, the
+ * component reloads the totals, at most once per batch of changes, whenever the data changes.
+ * </p>
+ *
+ * @see onthedocket.persistence.DayAggregates
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+@SuppressWarnings("serial")
+public class YearHeatmapComponent extends JComponent {
+	private static final DateTimeFormatter TOOLTIP_FORMATTER = DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy");
+	private static final int LEVELS = 4;
+	private LocalDate referenceDate;
+	private int year;
+	private Measure measure = Measure.COUNT;
+	private Theme theme;
+	private DayAggregates.Totals[] totals = new DayAggregates.Totals[0];
+	private final boolean[] monthHasEvents = new boolean[12];
+	private final HeatmapGrid grid;
+	private JPanel bottomPanel;
+	private JLabel yearLabel;
+	private boolean reloadPending;
+	private final DataListener dataListener = new DataListener() {
+		@Override
+		public void eventsAdded(List<Event> added) {
+			scheduleReload();
+		}
+
+		@Override
+		public void eventsRemoved(List<Event> removed) {
+			scheduleReload();
+		}
+
+		@Override
+		public void eventUpdated(Event oldEvent, Event newEvent) {
+			scheduleReload();
+		}
+
+		@Override
+		public void eventsReplaced() {
+			scheduleReload();
+		}
+
+		@Override
+		public void recurringEventsChanged(List<RecurringEvent> recurring) {
+			scheduleReload();
+		}
+	};
+
+	/**
+	 * The ways of measuring how busy a day is.
+	 */
+	public enum Measure {
+		/**
+		 * The number of events covering the day.
+		 */
+		COUNT("Events per day"),
+		/**
+		 * The hours booked by events on the day.
+		 */
+		HOURS("Hours booked per day");
+
+		private final String label;
+
+		Measure(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public String toString() {
+			return label;
+		}
+	}
+
+	/**
+     * Creates a heatmap of the year containing the given date.
+     *
+     * @param date any date within the year to display
+     * @param theme the visual theme to apply
+     * @param onDayClicked called with the date of a day cell when it is clicked
+     */
+	public YearHeatmapComponent(LocalDate date, Theme theme, Consumer<LocalDate> onDayClicked) {
+		this.referenceDate = date;
+		this.year = date.getYear();
+		this.theme = theme;
+
+		setLayout(new BorderLayout());
+		grid = new HeatmapGrid(onDayClicked);
+		add(grid, BorderLayout.CENTER);
+		initBottom();
+		reload();
+	}
+
+	/**
+     * Shows the year containing the given date.
+     *
+     * @param date any date within the year to display
+     */
+	public void updateWith(LocalDate date) {
+		referenceDate = date;
+		year = date.getYear();
+		yearLabel.setText(String.valueOf(year));
+		reload();
+	}
+
+	/**
+     * Initializes and lays out the bottom panel with the previous/next year buttons, the year
+     * label, and the choice of measure.
+     */
+	private void initBottom() {
+		bottomPanel = new JPanel(new FlowLayout());
+		bottomPanel.setBackground(theme.getBackgroundColor());
+
+		JButton leftButton = new JButton("◄");
+		leftButton.setBackground(theme.getAccentColor());
+		leftButton.setForeground(theme.getPrimaryTextColor());
+		leftButton.addActionListener(e -> updateWith(referenceDate.minusYears(1)));
+		JButton rightButton = new JButton("►");
+		rightButton.setBackground(theme.getAccentColor());
+		rightButton.setForeground(theme.getPrimaryTextColor());
+		rightButton.addActionListener(e -> updateWith(referenceDate.plusYears(1)));
+		yearLabel = new JLabel(String.valueOf(year));
+		yearLabel.setForeground(theme.getPrimaryTextColor());
+		JComboBox<Measure> measureBox = new JComboBox<>(Measure.values());
+		measureBox.addActionListener(e -> setMeasure((Measure) measureBox.getSelectedItem()));
+
+		bottomPanel.add(leftButton);
+		bottomPanel.add(yearLabel);
+		bottomPanel.add(rightButton);
+		bottomPanel.add(measureBox);
+		add(bottomPanel, BorderLayout.SOUTH);
+	}
+
+	/**
+     * Reads the totals of every day of the shown year and whether each month has events,
+     * then repaints.
+     */
+	private void reload() {
+		totals = DataManager.getDayTotals(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+		for(int month = 1; month <= 12; month++) {
+			monthHasEvents[month - 1] = DataManager.hasEvents(YearMonth.of(year, month));
+		}
+		grid.repaint();
+	}
+
+	/**
+     * Schedules a reload on the event dispatch thread unless one is already pending.
+     * May be called from any thread.
+     */
+	private void scheduleReload() {
+		synchronized(this) {
+			if(reloadPending) return;
+			reloadPending = true;
+		}
+		SwingUtilities.invokeLater(() -> {
+			synchronized(this) {
+				reloadPending = false;
+			}
+			reload();
+		});
+	}
+
+	/**
+     * Starts listening for DataManager changes when this component is added to a displayed
+     * hierarchy, and catches up on anything that changed while it was not listening.
+     */
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		DataManager.addListener(dataListener);
+		reload();
+	}
+
+	/**
+     * Stops listening for DataManager changes when this component is removed from
+     * a displayed hierarchy.
+     */
+	@Override
+	public void removeNotify() {
+		DataManager.removeListener(dataListener);
+		super.removeNotify();
+	}
+
+	/**
+     * Returns the value of the current measure for a day's totals.
+     */
+	private long valueOf(DayAggregates.Totals day) {
+		return measure == Measure.COUNT ? day.getCount() : day.getMinutes();
+	}
+
+	/**
+     * Describes a number of minutes in hours, such as "2.5 h".
+     */
+	private static String hours(long minutes) {
+		return String.format("%.1f h", minutes / 60.0);
+	}
+
+	public LocalDate getReferenceDate() {
+		return referenceDate;
+	}
+
+	public Measure getMeasure() {
+		return measure;
+	}
+
+	/**
+     * Switches between shading by event count and by booked hours, and repaints.
+     *
+     * @param measure the new Measure to shade by
+     */
+	public void setMeasure(Measure measure) {
+		this.measure = measure;
+		grid.repaint();
+	}
+
+	public Theme getTheme() {
+		return theme;
+	}
+
+	/**
+     * Applies a new theme to the heatmap and the navigation controls, then repaints.
+     *
+     * @param theme the new Theme to set
+     */
+	public void setTheme(Theme theme) {
+		this.theme = theme;
+		bottomPanel.setBackground(theme.getBackgroundColor());
+		for(Component c : bottomPanel.getComponents()) {
+			if(c instanceof JButton) {
+				c.setBackground(theme.getAccentColor());
+				c.setForeground(theme.getPrimaryTextColor());
+			} else if(c instanceof JLabel) {
+				c.setForeground(theme.getPrimaryTextColor());
+			}
+		}
+		repaint();
+	}
+
+	/**
+     * The painted grid of twelve months, laid out in three rows of four.
+     */
+	private class HeatmapGrid extends JComponent {
+		private static final int MONTH_COLUMNS = 4;
+		private static final int MONTH_ROWS = 3;
+		private static final int PADDING = 8;
+		private static final int TITLE_HEIGHT = 20;
+
+		HeatmapGrid(Consumer<LocalDate> onDayClicked) {
+			setOpaque(true);
+			setPreferredSize(new Dimension(900, 600));
+			ToolTipManager.sharedInstance().registerComponent(this);
+			addMouseListener(new MouseAdapter() {
+				@Override
+				public void mouseClicked(MouseEvent me) {
+					LocalDate date = dateAt(me.getPoint());
+					if(date != null && YearHeatmapComponent.this.isEnabled()) {
+						onDayClicked.accept(date);
+					}
+				}
+			});
+		}
+
+		@Override
+		public String getToolTipText(MouseEvent me) {
+			LocalDate date = dateAt(me.getPoint());
+			if(date == null) return null;
+			DayAggregates.Totals day = totals[date.getDayOfYear() - 1];
+			StringBuilder text = new StringBuilder("<html>").append(date.format(TOOLTIP_FORMATTER)).append("<br>");
+			text.append(day.getCount()).append(day.getCount() == 1 ? " event, " : " events, ").append(hours(day.getMinutes()));
+			for(Map.Entry<EventCategory, Long> entry : day.getCategoryMinutes().entrySet()) {
+				text.append("<br>").append(entry.getKey().getName().replace("&", "&amp;").replace("<", "&lt;"))
+					.append(": ").append(hours(entry.getValue()));
+			}
+			return text.append("</html>").toString();
+		}
+
+		@Override
+		protected void paintComponent(Graphics g) {
+			Graphics2D g2 = (Graphics2D) g.create();
+			g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g2.setColor(theme.getBackgroundColor());
+			g2.fillRect(0, 0, getWidth(), getHeight());
+			if(totals.length == 0) {
+				g2.dispose();
+				return;
+			}
+
+			long max = 0;
+			for(DayAggregates.Totals day : totals) max = Math.max(max, valueOf(day));
+
+			Rectangle clip = g2.getClipBounds();
+			for(int month = 1; month <= 12; month++) {
+				Rectangle area = monthBounds(month);
+				if(clip != null && !clip.intersects(area)) continue;
+				g2.setColor(monthHasEvents[month - 1] ? theme.getPrimaryTextColor() : theme.getSecondaryTextColor());
+				g2.drawString(Month.of(month).getDisplayName(TextStyle.FULL, Locale.getDefault()), area.x, area.y + g2.getFontMetrics().getAscent());
+
+				YearMonth yearMonth = YearMonth.of(year, month);
+				for(int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
+					LocalDate date = yearMonth.atDay(day);
+					Rectangle cell = cellBounds(date);
+					long value = valueOf(totals[date.getDayOfYear() - 1]);
+					g2.setColor(shade(value, max));
+					g2.fillRect(cell.x + 1, cell.y + 1, cell.width - 2, cell.height - 2);
+					if(date.equals(LocalDate.now())) {
+						g2.setColor(theme.getPrimaryTextColor());
+						g2.drawRect(cell.x + 1, cell.y + 1, cell.width - 3, cell.height - 3);
+					}
+				}
+			}
+			g2.dispose();
+		}
+
+		/**
+         * Maps a value onto one of a few shades between the background and the accent color,
+         * relative to the busiest day of the year. Days without events keep a faint tint.
+         */
+		private Color shade(long value, long max) {
+			Color low = theme.getSecondaryColor();
+			Color high = theme.getAccentColor();
+			if(value <= 0 || max <= 0) return blend(theme.getBackgroundColor(), low, 0.5);
+			int level = (int) Math.min(LEVELS, (value * LEVELS + max - 1) / max);
+			return blend(low, high, (double) level / LEVELS);
+		}
+
+		private Color blend(Color from, Color to, double fraction) {
+			return new Color(
+				(int) Math.round(from.getRed() + (to.getRed() - from.getRed()) * fraction),
+				(int) Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * fraction),
+				(int) Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * fraction));
+		}
+
+		/**
+         * Returns the area given to a month, including its title line.
+         */
+		private Rectangle monthBounds(int month) {
+			int col = (month - 1) % MONTH_COLUMNS;
+			int row = (month - 1) / MONTH_COLUMNS;
+			int x0 = col * getWidth() / MONTH_COLUMNS + PADDING;
+			int x1 = (col + 1) * getWidth() / MONTH_COLUMNS - PADDING;
+			int y0 = row * getHeight() / MONTH_ROWS + PADDING;
+			int y1 = (row + 1) * getHeight() / MONTH_ROWS - PADDING;
+			return new Rectangle(x0, y0, x1 - x0, y1 - y0);
+		}
+
+		/**
+         * Returns the cell of a date within its month's area: seven columns starting on Sunday,
+         * below the month's title line.
+         */
+		private Rectangle cellBounds(LocalDate date) {
+			Rectangle area = monthBounds(date.getMonthValue());
+			int top = area.y + TITLE_HEIGHT;
+			int placeholders = date.withDayOfMonth(1).getDayOfWeek().getValue() % 7;
+			int slot = placeholders + date.getDayOfMonth() - 1;
+			int col = slot % 7;
+			int row = slot / 7;
+			int size = Math.max(4, Math.min(area.width / 7, (area.y + area.height - top) / 6));
+			return new Rectangle(area.x + col * size, top + row * size, size, size);
+		}
+
+		/**
+         * Returns the date of the day cell under the given point, or {@code null} if there is none.
+         */
+		private LocalDate dateAt(Point p) {
+			for(int month = 1; month <= 12; month++) {
+				if(!monthBounds(month).contains(p)) continue;
+				YearMonth yearMonth = YearMonth.of(year, month);
+				for(int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
+					LocalDate date = yearMonth.atDay(day);
+					if(cellBounds(date).contains(p)) return date;
+				}
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package onthedocket.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link RecurrenceRule} and the occurrences {@link RecurringEvent} expands from it.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+class RecurrenceRuleTest {
+	private static final LocalDate FIRST = LocalDate.of(2025, 1, 31);
+
+	private static List<LocalDate> dates(RecurrenceRule rule, LocalDate first, LocalDate from, LocalDate to) {
+		ArrayList<LocalDate> dates = new ArrayList<LocalDate>();
+		rule.forEachDate(first, from, to, dates::add);
+		return dates;
+	}
+
+	private static RecurrenceRule rule(RecurrenceRule.Frequency frequency, int interval, LocalDate until, int count) {
+		return new RecurrenceRule(frequency, interval, Collections.<DayOfWeek>emptySet(), until, count, Collections.<LocalDate>emptySet());
+	}
+
+	@Test
+	void dailyWithInterval() {
+		List<LocalDate> dates = dates(rule(RecurrenceRule.Frequency.DAILY, 3, null, 0), FIRST, FIRST, FIRST.plusDays(10));
+		assertEquals(Arrays.asList(FIRST, FIRST.plusDays(3), FIRST.plusDays(6), FIRST.plusDays(9)), dates);
+	}
+
+	@Test
+	void rangeStartingLaterSkipsAhead() {
+		LocalDate from = FIRST.plusYears(40).plusDays(1);
+		List<LocalDate> dates = dates(rule(RecurrenceRule.Frequency.DAILY, 3, null, 0), FIRST, from, from.plusDays(5));
+		for(LocalDate date : dates) {
+			assertEquals(0, (date.toEpochDay() - FIRST.toEpochDay()) % 3, date + " is on the series' cadence");
+		}
+		assertEquals(2, dates.size());
+	}
+
+	@Test
+	void weeklyOnChosenDays() {
+		LocalDate monday = LocalDate.of(2025, 6, 2);
+		RecurrenceRule rule = new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 2,
+				EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), null, 0, Collections.<LocalDate>emptySet());
+		assertEquals(Arrays.asList(monday, monday.plusDays(3), monday.plusDays(14), monday.plusDays(17)),
+				dates(rule, monday, monday, monday.plusDays(20)));
+	}
+
+	@Test
+	void weeklyDoesNotReachBeforeFirst() {
+		LocalDate thursday = LocalDate.of(2025, 6, 5);
+		RecurrenceRule rule = new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 1,
+				EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), null, 0, Collections.<LocalDate>emptySet());
+		assertEquals(Arrays.asList(thursday, thursday.plusDays(4)), dates(rule, thursday, thursday.minusDays(7), thursday.plusDays(4)));
+	}
+
+	@Test
+	void monthlySkipsMonthsWithoutTheDay() {
+		List<LocalDate> dates = dates(rule(RecurrenceRule.Frequency.MONTHLY, 1, null, 0), FIRST, FIRST, LocalDate.of(2025, 6, 30));
+		assertEquals(Arrays.asList(FIRST, LocalDate.of(2025, 3, 31), LocalDate.of(2025, 5, 31)), dates);
+	}
+
+	@Test
+	void yearlyOnLeapDay() {
+		LocalDate leap = LocalDate.of(2024, 2, 29);
+		assertEquals(Arrays.asList(leap, LocalDate.of(2028, 2, 29)),
+				dates(rule(RecurrenceRule.Frequency.YEARLY, 1, null, 0), leap, leap, LocalDate.of(2029, 1, 1)));
+	}
+
+	@Test
+	void countIsFromFirstOccurrence() {
+		RecurrenceRule rule = rule(RecurrenceRule.Frequency.DAILY, 1, null, 5);
+		assertEquals(5, dates(rule, FIRST, FIRST, FIRST.plusDays(30)).size());
+		assertEquals(Arrays.asList(FIRST.plusDays(3), FIRST.plusDays(4)), dates(rule, FIRST, FIRST.plusDays(3), FIRST.plusDays(30)));
+	}
+
+	@Test
+	void untilAndExceptionsLimitDates() {
+		RecurrenceRule rule = rule(RecurrenceRule.Frequency.DAILY, 1, FIRST.plusDays(4), 0).withException(FIRST.plusDays(2));
+		assertEquals(Arrays.asList(FIRST, FIRST.plusDays(1), FIRST.plusDays(3), FIRST.plusDays(4)),
+				dates(rule, FIRST, FIRST, FIRST.plusDays(30)));
+		assertEquals(rule, rule(RecurrenceRule.Frequency.DAILY, 1, null, 0).withException(FIRST.plusDays(2)).withUntil(FIRST.plusDays(4)));
+	}
+
+	@Test
+	void rejectsInvalidParts() {
+		assertThrows(IllegalArgumentException.class, () -> rule(RecurrenceRule.Frequency.DAILY, 0, null, 0));
+		assertThrows(IllegalArgumentException.class, () -> rule(RecurrenceRule.Frequency.DAILY, 1, null, -1));
+	}
+
+	@Test
+	void occurrencesKeepTimeAndDuration() {
+		LocalDateTime start = FIRST.atTime(22, 0);
+		RecurringEvent series = new RecurringEvent("Night shift", start, start.plusHours(8), EventCategory.WORK,
+				rule(RecurrenceRule.Frequency.DAILY, 1, null, 0));
+		List<RecurringEvent.Occurrence> occurrences = series.occurrencesBetween(start.plusDays(1), start.plusDays(2));
+		assertEquals(2, occurrences.size());
+		RecurringEvent.Occurrence o = occurrences.get(0);
+		assertEquals(start.plusDays(1), o.getStart());
+		assertEquals(start.plusDays(1).plusHours(8), o.getEnd());
+		assertEquals(series, o.getSeries());
+	}
+}
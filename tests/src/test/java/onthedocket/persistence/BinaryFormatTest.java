@@ -0,0 +1,182 @@
+package onthedocket.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.models.RecurrenceRule;
+import onthedocket.models.RecurringEvent;
+import onthedocket.utils.EpochMinutes;
+import onthedocket.utils.Theme;
+
+/**
+ * Tests for {@link BinaryFormat}: reading files of older versions, writing them back as the
+ * current version, and rejecting damaged files with an {@link IOException}.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+class BinaryFormatTest {
+	private static final LocalDateTime START = LocalDateTime.of(2024, 5, 6, 9, 30);
+	private static final LocalDateTime END = LocalDateTime.of(2024, 5, 6, 11, 0);
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * Builds a version 1 file: no journal generation and no recurring table.
+	 */
+	private static byte[] versionOneFile(int categoryId, int eventCount) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(BinaryFormat.MAGIC);
+		out.writeShort(1);
+		writeString(out, Theme.DARK.getName());
+		out.writeInt(1);
+		writeString(out, "Work");
+		out.writeInt(Color.RED.getRGB());
+		out.writeByte(1);
+		out.writeInt(eventCount);
+		out.writeLong(EpochMinutes.of(START));
+		out.writeLong(EpochMinutes.of(END));
+		out.writeInt(categoryId);
+		writeString(out, "Standup");
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static short versionOf(Path path) throws IOException {
+		byte[] bytes = Files.readAllBytes(path);
+		return (short) ((bytes[4] & 0xFF) << 8 | bytes[5] & 0xFF);
+	}
+
+	@Test
+	void migratesVersionOneToCurrent() throws IOException {
+		Path v1 = dir.resolve("v1.otd");
+		Files.write(v1, versionOneFile(0, 1));
+
+		BinaryFormat.Contents old = BinaryFormat.read(v1);
+		assertSame(Theme.DARK, old.getTheme());
+		assertEquals(0, old.getJournalGeneration());
+		assertEquals(Arrays.asList(EventCategory.WORK), old.getCategories());
+		assertEquals(Arrays.asList(new Event("Standup", START, END, EventCategory.WORK)), old.getEvents());
+		assertTrue(old.getRecurringEvents().isEmpty());
+
+		Path v3 = dir.resolve("v3.otd");
+		BinaryFormat.write(v3, old);
+		assertEquals(BinaryFormat.VERSION, versionOf(v3));
+		BinaryFormat.Contents current = BinaryFormat.read(v3);
+		assertSame(Theme.DARK, current.getTheme());
+		assertEquals(old.getCategories(), current.getCategories());
+		assertEquals(old.getEvents(), current.getEvents());
+		assertTrue(current.getRecurringEvents().isEmpty());
+	}
+
+	@Test
+	void roundTripsRecurringEvents() throws IOException {
+		RecurrenceRule rule = new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 2,
+				EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), LocalDate.of(2024, 12, 31), 0,
+				Arrays.asList(LocalDate.of(2024, 5, 20)));
+		RecurringEvent series = new RecurringEvent("Review", START, END, EventCategory.SCHOOL, rule);
+		Event single = new Event("Lunch", START.plusHours(3), END.plusHours(3), EventCategory.PERSONAL);
+		Path path = dir.resolve("data.otd");
+		BinaryFormat.write(path, new BinaryFormat.Contents(Arrays.asList(single),
+				Arrays.asList(EventCategory.SCHOOL), Arrays.asList(series), null, 7));
+
+		BinaryFormat.Contents read = BinaryFormat.read(path);
+		assertNull(read.getTheme());
+		assertEquals(7, read.getJournalGeneration());
+		assertEquals(Arrays.asList(single), read.getEvents());
+		assertEquals(Arrays.asList(series), read.getRecurringEvents());
+		assertEquals(rule, read.getRecurringEvents().get(0).getRule());
+	}
+
+	@Test
+	void rejectsCategoryIndexOutsideDictionary() throws IOException {
+		Path path = dir.resolve("bad-index.otd");
+		Files.write(path, versionOneFile(5, 1));
+		IOException e = assertThrows(IOException.class, () -> BinaryFormat.read(path));
+		assertTrue(e.getMessage().contains("category index"), e.getMessage());
+		assertThrows(IOException.class, () -> BinaryFormat.readStore(path));
+	}
+
+	@Test
+	void rejectsNegativeIndex() throws IOException {
+		Path path = dir.resolve("negative-index.otd");
+		Files.write(path, versionOneFile(-1, 1));
+		assertThrows(IOException.class, () -> BinaryFormat.read(path));
+	}
+
+	@Test
+	void rejectsCountsPastTheEnd() throws IOException {
+		Path path = dir.resolve("bad-count.otd");
+		Files.write(path, versionOneFile(0, Integer.MAX_VALUE));
+		assertThrows(EOFException.class, () -> BinaryFormat.read(path));
+		Files.write(path, versionOneFile(0, -3));
+		assertThrows(IOException.class, () -> BinaryFormat.read(path));
+	}
+
+	@Test
+	void rejectsStringLengthPastTheEnd() throws IOException {
+		byte[] bytes = versionOneFile(0, 1);
+		bytes[6] = 0x7F;
+		bytes[7] = (byte) 0xFF;
+		bytes[8] = (byte) 0xFF;
+		bytes[9] = (byte) 0xF0;
+		Path path = dir.resolve("bad-string.otd");
+		Files.write(path, bytes);
+		assertThrows(EOFException.class, () -> BinaryFormat.read(path));
+		assertThrows(EOFException.class, () -> BinaryFormat.readTheme(path));
+	}
+
+	@Test
+	void rejectsUnknownVersionsAndFiles() throws IOException {
+		byte[] bytes = versionOneFile(0, 1);
+		bytes[5] = (byte) (BinaryFormat.VERSION + 1);
+		Path future = dir.resolve("future.otd");
+		Files.write(future, bytes);
+		assertThrows(IOException.class, () -> BinaryFormat.read(future));
+
+		Path text = dir.resolve("text.otd");
+		Files.write(text, "not a data file".getBytes(StandardCharsets.UTF_8));
+		assertThrows(IOException.class, () -> BinaryFormat.read(text));
+	}
+
+	@Test
+	void readsEmptyContents() throws IOException {
+		Path path = dir.resolve("empty.otd");
+		BinaryFormat.write(path, new BinaryFormat.Contents(Collections.<Event>emptyList(),
+				Collections.<EventCategory>emptyList(), Collections.<RecurringEvent>emptyList(), null, 0));
+		BinaryFormat.Contents read = BinaryFormat.read(path);
+		assertTrue(read.getEvents().isEmpty());
+		assertTrue(read.getCategories().isEmpty());
+		assertTrue(read.getRecurringEvents().isEmpty());
+	}
+}
@@ -0,0 +1,124 @@
+package onthedocket.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+
+/**
+ * Tests for {@link CategoryRollups}: splitting events at period boundaries, including events
+ * ending exactly where a period starts, and keeping totals in step as events come and go.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+class CategoryRollupsTest {
+	private static final EventCategory[] CATEGORIES = {EventCategory.WORK, EventCategory.SCHOOL, EventCategory.PERSONAL};
+
+	@Test
+	void periodsStartOnSundaysAndFirsts() {
+		LocalDate wednesday = LocalDate.of(2025, 7, 16);
+		assertEquals(DayOfWeek.SUNDAY, CategoryRollups.Period.WEEK.startOf(wednesday).getDayOfWeek());
+		assertEquals(LocalDate.of(2025, 7, 13), CategoryRollups.Period.WEEK.startOf(wednesday));
+		assertEquals(LocalDate.of(2025, 7, 13), CategoryRollups.Period.WEEK.startOf(LocalDate.of(2025, 7, 13)));
+		assertEquals(LocalDate.of(2025, 7, 1), CategoryRollups.Period.MONTH.startOf(wednesday));
+		assertEquals(LocalDate.of(2025, 1, 1), CategoryRollups.Period.YEAR.startOf(wednesday));
+	}
+
+	@Test
+	void splitsAtMonthBoundary() {
+		Event trip = new Event("Trip", LocalDateTime.of(2025, 1, 31, 20, 0), LocalDateTime.of(2025, 2, 1, 4, 0), EventCategory.PERSONAL);
+		CategoryRollups rollups = CategoryRollups.of(Arrays.asList(trip));
+		CategoryRollups.Totals january = rollups.get(CategoryRollups.Period.MONTH, LocalDate.of(2025, 1, 15));
+		CategoryRollups.Totals february = rollups.get(CategoryRollups.Period.MONTH, LocalDate.of(2025, 2, 15));
+		assertEquals(240, january.getMinutes(EventCategory.PERSONAL));
+		assertEquals(240, february.getMinutes(EventCategory.PERSONAL));
+		assertEquals(1, january.getCount());
+		assertEquals(1, february.getCount());
+		assertEquals(480, rollups.get(CategoryRollups.Period.YEAR, LocalDate.of(2025, 6, 1)).getTotalMinutes());
+	}
+
+	@Test
+	void eventEndingAtPeriodStartStaysInItsPeriod() {
+		LocalDateTime february = LocalDateTime.of(2025, 2, 1, 0, 0);
+		Event lateShift = new Event("Late shift", february.minusHours(3), february, EventCategory.WORK);
+		Event marker = new Event("Marker", february, february, EventCategory.SCHOOL);
+		CategoryRollups rollups = CategoryRollups.of(Arrays.asList(lateShift, marker));
+
+		CategoryRollups.Totals january = rollups.get(CategoryRollups.Period.MONTH, LocalDate.of(2025, 1, 1));
+		assertEquals(1, january.getCount());
+		assertEquals(180, january.getTotalMinutes());
+		CategoryRollups.Totals next = rollups.get(CategoryRollups.Period.MONTH, LocalDate.of(2025, 2, 1));
+		assertEquals(1, next.getCount(), "only the zero-length event starting there counts");
+		assertEquals(0, next.getMinutes(EventCategory.WORK));
+
+		LocalDateTime sunday = LocalDateTime.of(2025, 7, 13, 0, 0);
+		CategoryRollups week = CategoryRollups.of(Arrays.asList(new Event("Saturday", sunday.minusHours(2), sunday, EventCategory.WORK)));
+		assertEquals(0, week.get(CategoryRollups.Period.WEEK, sunday.toLocalDate()).getCount());
+		assertEquals(1, week.get(CategoryRollups.Period.WEEK, sunday.toLocalDate().minusDays(1)).getCount());
+	}
+
+	@Test
+	void queryListsEveryPeriodInOrder() {
+		CategoryRollups rollups = CategoryRollups.of(Arrays.asList(
+				new Event("a", LocalDateTime.of(2025, 3, 3, 9, 0), LocalDateTime.of(2025, 3, 3, 10, 0), EventCategory.WORK)));
+		List<CategoryRollups.Totals> rows = rollups.query(CategoryRollups.Period.MONTH, LocalDate.of(2025, 1, 20), LocalDate.of(2025, 5, 2));
+		assertEquals(5, rows.size());
+		for(int i = 0; i < rows.size(); i++) {
+			assertEquals(LocalDate.of(2025, i + 1, 1), rows.get(i).getStart());
+			assertEquals(i == 2 ? 60 : 0, rows.get(i).getTotalMinutes());
+		}
+		assertEquals(LocalDate.of(2025, 2, 28), rows.get(1).getEnd());
+		assertTrue(rollups.query(CategoryRollups.Period.MONTH, LocalDate.of(2025, 5, 2), LocalDate.of(2025, 1, 20)).isEmpty());
+		assertEquals(Arrays.asList(EventCategory.WORK), CategoryRollups.categoriesOf(rows));
+	}
+
+	@Test
+	void matchesBruteForceTotals() {
+		Random random = new Random(25);
+		LocalDateTime base = LocalDateTime.of(2024, 12, 1, 0, 0);
+		ArrayList<Event> events = new ArrayList<Event>();
+		for(int i = 0; i < 500; i++) {
+			LocalDateTime start = base.plusMinutes(random.nextInt(60 * 24 * 120));
+			LocalDateTime end = start.plusMinutes(random.nextInt(8) == 0 ? random.nextInt(60 * 24 * 20) : random.nextInt(180));
+			if(random.nextInt(4) == 0) end = end.toLocalDate().plusDays(1).atStartOfDay();
+			events.add(new Event("e" + i, start, end, CATEGORIES[random.nextInt(CATEGORIES.length)]));
+		}
+		CategoryRollups rollups = CategoryRollups.of(events.subList(0, 400)).withAll(events.subList(400, 500)).withoutAll(events.subList(0, 100));
+		List<Event> held = events.subList(100, 500);
+
+		for(CategoryRollups.Period period : CategoryRollups.Period.values()) {
+			for(CategoryRollups.Totals row : rollups.query(period, base.toLocalDate(), base.toLocalDate().plusDays(150))) {
+				LocalDateTime periodStart = row.getStart().atStartOfDay();
+				LocalDateTime periodEnd = period.next(row.getStart()).atStartOfDay();
+				int count = 0;
+				HashMap<EventCategory, Long> categories = new HashMap<EventCategory, Long>();
+				for(Event e : held) {
+					boolean startsIn = !e.getStart().isBefore(periodStart) && e.getStart().isBefore(periodEnd);
+					boolean runsIn = e.getStart().isBefore(periodStart) && e.getEnd().isAfter(periodStart);
+					if(!startsIn && !runsIn) continue;
+					count++;
+					LocalDateTime from = e.getStart().isAfter(periodStart) ? e.getStart() : periodStart;
+					LocalDateTime to = e.getEnd().isBefore(periodEnd) ? e.getEnd() : periodEnd;
+					long booked = Duration.between(from, to).toMinutes();
+					if(booked > 0) categories.merge(e.getCategory(), booked, Long::sum);
+				}
+				String where = period + " " + row.getStart();
+				assertEquals(count, row.getCount(), where);
+				assertEquals(categories, row.getCategoryMinutes(), where);
+			}
+		}
+	}
+}
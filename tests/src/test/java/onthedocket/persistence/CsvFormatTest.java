@@ -0,0 +1,62 @@
+package onthedocket.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+
+/**
+ * Tests for {@link CsvFormat}: quoting of awkward category names, and numbers that read the
+ * same in every locale.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+class CsvFormatTest {
+	@TempDir
+	Path dir;
+
+	@Test
+	void quotesFieldsAndIgnoresLocale() throws IOException {
+		EventCategory awkward = new EventCategory("Chess, \"blitz\"\nand more", new Color(0x884422));
+		LocalDateTime start = LocalDateTime.of(2025, 3, 4, 18, 0);
+		CategoryRollups rollups = CategoryRollups.of(Arrays.asList(
+				new Event("Club", start, start.plusMinutes(90), awkward),
+				new Event("Shift", start.plusDays(1), start.plusDays(1).plusMinutes(20), EventCategory.WORK)));
+		List<CategoryRollups.Totals> rows = rollups.query(CategoryRollups.Period.MONTH, LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 1));
+
+		Path path = dir.resolve("report.csv");
+		Locale saved = Locale.getDefault();
+		Locale.setDefault(Locale.GERMANY);
+		try {
+			assertEquals(1, CsvFormat.exportCategoryReport(path, rows, CategoryRollups.categoriesOf(rows)));
+		} finally {
+			Locale.setDefault(saved);
+		}
+
+		String csv = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+		assertEquals("Period,Start,End,Work (hours),\"Chess, \"\"blitz\"\"\nand more (hours)\",Total (hours),Events\r\n"
+				+ "Monthly,2025-03-01,2025-03-31,0.33,1.50,1.83,2\r\n", csv);
+	}
+
+	@Test
+	void plainNamesAreNotQuoted() throws IOException {
+		Path path = dir.resolve("empty.csv");
+		assertEquals(0, CsvFormat.exportCategoryReport(path, Arrays.<CategoryRollups.Totals>asList(), Arrays.asList(EventCategory.SCHOOL)));
+		assertEquals("Period,Start,End,School (hours),Total (hours),Events\r\n",
+				new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+	}
+}
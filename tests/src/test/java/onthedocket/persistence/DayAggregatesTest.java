@@ -0,0 +1,95 @@
+package onthedocket.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+
+/**
+ * Tests for {@link DayAggregates}: splitting events across days, months, and years, and
+ * keeping totals in step as events come and go.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+class DayAggregatesTest {
+	private static final EventCategory[] CATEGORIES = {EventCategory.WORK, EventCategory.SCHOOL, EventCategory.PERSONAL};
+
+	@Test
+	void splitsAcrossTheYearBoundary() {
+		Event party = new Event("Party", LocalDateTime.of(2024, 12, 31, 22, 0), LocalDateTime.of(2025, 1, 1, 2, 30), EventCategory.PERSONAL);
+		DayAggregates totals = DayAggregates.of(Arrays.asList(party));
+
+		assertEquals(1, totals.getCount(LocalDate.of(2024, 12, 31)));
+		assertEquals(120, totals.getMinutes(LocalDate.of(2024, 12, 31)));
+		assertEquals(1, totals.getCount(LocalDate.of(2025, 1, 1)));
+		assertEquals(150, totals.getMinutes(LocalDate.of(2025, 1, 1)));
+		assertEquals(Long.valueOf(150), totals.get(LocalDate.of(2025, 1, 1)).getCategoryMinutes().get(EventCategory.PERSONAL));
+		assertTrue(totals.hasEvents(YearMonth.of(2024, 12)));
+		assertTrue(totals.hasEvents(YearMonth.of(2025, 1)));
+		assertFalse(totals.hasEvents(YearMonth.of(2025, 2)));
+	}
+
+	@Test
+	void removingEverythingLeavesNoMonths() {
+		Event a = new Event("a", LocalDateTime.of(2025, 3, 30, 9, 0), LocalDateTime.of(2025, 4, 2, 9, 0), EventCategory.WORK);
+		Event b = new Event("b", LocalDateTime.of(2026, 7, 1, 9, 0), LocalDateTime.of(2026, 7, 1, 10, 0), EventCategory.SCHOOL);
+		DayAggregates both = DayAggregates.of(Arrays.asList(a, b));
+		DayAggregates none = both.without(a).without(b);
+
+		assertFalse(none.hasEvents(YearMonth.of(2025, 3)));
+		assertFalse(none.hasEvents(YearMonth.of(2025, 4)));
+		assertFalse(none.hasEvents(YearMonth.of(2026, 7)));
+		assertSame(DayAggregates.Totals.EMPTY, none.get(LocalDate.of(2025, 4, 1)));
+		assertEquals(1, both.getCount(LocalDate.of(2025, 4, 1)), "older versions are unchanged");
+	}
+
+	@Test
+	void matchesBruteForceTotals() {
+		Random random = new Random(11);
+		LocalDateTime base = LocalDateTime.of(2024, 11, 20, 0, 0);
+		ArrayList<Event> events = new ArrayList<Event>();
+		for(int i = 0; i < 400; i++) {
+			LocalDateTime start = base.plusMinutes(random.nextInt(60 * 24 * 90));
+			LocalDateTime end = start.plusMinutes(random.nextInt(10) == 0 ? random.nextInt(60 * 24 * 5) : random.nextInt(240));
+			events.add(new Event("e" + i, start, end, CATEGORIES[random.nextInt(CATEGORIES.length)]));
+		}
+		DayAggregates totals = DayAggregates.of(events.subList(0, 300)).withAll(events.subList(300, 400)).withoutAll(events.subList(0, 50));
+		ArrayList<Event> held = new ArrayList<Event>(events.subList(50, 400));
+
+		for(LocalDate date = base.toLocalDate(); date.isBefore(base.toLocalDate().plusDays(100)); date = date.plusDays(1)) {
+			LocalDateTime dayStart = date.atStartOfDay();
+			LocalDateTime nextDay = dayStart.plusDays(1);
+			int count = 0;
+			long minutes = 0;
+			HashMap<EventCategory, Long> categories = new HashMap<EventCategory, Long>();
+			for(Event e : held) {
+				if(!e.getStart().isBefore(nextDay) || e.getEnd().isBefore(dayStart)) continue;
+				LocalDateTime from = e.getStart().isAfter(dayStart) ? e.getStart() : dayStart;
+				LocalDateTime to = e.getEnd().isBefore(nextDay) ? e.getEnd() : nextDay;
+				long booked = Duration.between(from, to).toMinutes();
+				count++;
+				minutes += booked;
+				if(booked > 0) categories.merge(e.getCategory(), booked, Long::sum);
+			}
+			assertEquals(count, totals.getCount(date), date.toString());
+			assertEquals(minutes, totals.getMinutes(date), date.toString());
+			Map<EventCategory, Long> actual = totals.get(date).getCategoryMinutes();
+			assertEquals(categories, actual, date.toString());
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package onthedocket.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import onthedocket.models.Event;
+import onthedocket.utils.EpochMinutes;
+
+/**
+ * Tests for {@link EventIndex}: overlap queries against a linear scan, inclusive ends, and
+ * that new versions leave old ones untouched.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+class EventIndexTest {
+	private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+	private static Event event(String name, int fromMinute, int toMinute) {
+		return new Event(name, BASE.plusMinutes(fromMinute), BASE.plusMinutes(toMinute));
+	}
+
+	@Test
+	void queryMatchesLinearScan() {
+		Random random = new Random(42);
+		ArrayList<Event> events = new ArrayList<Event>();
+		for(int i = 0; i < 500; i++) {
+			int start = random.nextInt(20000);
+			events.add(event("e" + i, start, start + random.nextInt(600)));
+		}
+		EventIndex index = EventIndex.of(events.subList(0, 250));
+		for(Event e : events.subList(250, events.size())) index = index.with(e);
+		for(int i = 0; i < 100; i += 2) index = index.without(events.get(i));
+		List<Event> held = new ArrayList<Event>(events);
+		for(int i = 0; i < 100; i += 2) held.remove(events.get(i));
+
+		assertEquals(held.size(), index.size());
+		for(int q = 0; q < 200; q++) {
+			long from = EpochMinutes.of(BASE) + random.nextInt(21000);
+			long to = from + random.nextInt(900);
+			ArrayList<Event> expected = new ArrayList<Event>();
+			for(Event e : held) {
+				if(EpochMinutes.of(e.getStart()) <= to && EpochMinutes.of(e.getEnd()) >= from) expected.add(e);
+			}
+			ArrayList<Event> actual = index.query(from, to);
+			assertEquals(expected.size(), actual.size());
+			assertTrue(actual.containsAll(expected));
+			for(int i = 1; i < actual.size(); i++) {
+				assertFalse(actual.get(i).getStart().isBefore(actual.get(i - 1).getStart()), "results are in start order");
+			}
+		}
+	}
+
+	@Test
+	void endsAreInclusive() {
+		Event e = event("meeting", 60, 120);
+		EventIndex index = EventIndex.EMPTY.with(e);
+		long start = EpochMinutes.of(e.getStart());
+		long end = EpochMinutes.of(e.getEnd());
+		assertEquals(Arrays.asList(e), index.query(end, end + 10));
+		assertEquals(Arrays.asList(e), index.query(start - 10, start));
+		assertTrue(index.query(end + 1, end + 10).isEmpty());
+		assertTrue(index.query(start - 10, start - 1).isEmpty());
+	}
+
+	@Test
+	void versionsAreIndependent() {
+		Event a = event("a", 0, 30);
+		Event b = event("b", 10, 40);
+		EventIndex one = EventIndex.EMPTY.with(a);
+		EventIndex two = one.with(b);
+		EventIndex back = two.without(a);
+
+		assertEquals(Arrays.asList(a), one.toList());
+		assertEquals(Arrays.asList(a, b), two.toList());
+		assertEquals(Arrays.asList(b), back.toList());
+		assertTrue(two.contains(a));
+		assertFalse(back.contains(a));
+	}
+
+	@Test
+	void removingAbsentEventKeepsIndex() {
+		EventIndex index = EventIndex.EMPTY.with(event("a", 0, 30));
+		assertSame(index, index.without(event("b", 0, 30)));
+	}
+
+	@Test
+	void withoutIfRemovesMatches() {
+		ArrayList<Event> events = new ArrayList<Event>();
+		for(int i = 0; i < 20; i++) events.add(event("e" + i, i * 10, i * 10 + 5));
+		EventIndex index = EventIndex.of(events).withoutIf(e -> e.getName().endsWith("3"));
+		assertEquals(18, index.size());
+		assertFalse(index.contains(events.get(3)));
+		assertFalse(index.contains(events.get(13)));
+		assertTrue(index.contains(events.get(4)));
+	}
+}
@@ -0,0 +1,132 @@
+package onthedocket.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.models.RecurrenceRule;
+import onthedocket.models.RecurringEvent;
+import onthedocket.utils.Theme;
+
+/**
+ * Tests for {@link Journal}: replaying recorded changes into {@link DataManager}, and
+ * recovering from a record torn off by a crash.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+class JournalTest {
+	private static final LocalDateTime MONDAY = LocalDateTime.of(2025, 6, 2, 9, 0);
+	private static final EventCategory CHESS = new EventCategory("Chess club", new Color(0x336699));
+
+	@TempDir
+	Path dir;
+
+	@BeforeEach
+	@AfterEach
+	void clearData() {
+		DataManager.setEvents(Collections.<Event>emptyList());
+		DataManager.setCategories(Collections.<EventCategory>emptyList());
+		DataManager.setRecurringEvents(Collections.<RecurringEvent>emptyList());
+		DataManager.setTheme(null);
+	}
+
+	@Test
+	void replayAppliesRecordsInOrder() throws IOException {
+		Event first = new Event("Opening prep", MONDAY, MONDAY.plusHours(1), CHESS);
+		Event second = new Event("Blitz", MONDAY.plusDays(1), MONDAY.plusDays(1).plusHours(2), CHESS);
+		Event dropped = new Event("Cancelled", MONDAY.plusDays(2), MONDAY.plusDays(2).plusHours(1), EventCategory.WORK);
+		RecurringEvent weekly = new RecurringEvent("Club night", MONDAY.withHour(19), MONDAY.withHour(21), CHESS,
+				new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY).withException(LocalDate.of(2025, 6, 9)));
+
+		Path path = dir.resolve("journal.otj");
+		Journal journal = new Journal(path, 4, Long.MAX_VALUE, null);
+		journal.recordAddCategory(CHESS);
+		journal.recordAddEvent(first);
+		journal.recordAddEvent(dropped);
+		journal.recordAddEvent(second);
+		journal.recordRemoveEvent(dropped);
+		journal.recordSetTheme(Theme.DARK);
+		journal.recordAddRecurring(weekly);
+		journal.close();
+
+		assertEquals(4, Journal.readGeneration(path));
+		assertEquals(7, Journal.replay(path));
+		assertEquals(new HashSet<Event>(Arrays.asList(first, second)), new HashSet<Event>(DataManager.getEvents()));
+		assertEquals(Arrays.asList(CHESS), DataManager.getCategories());
+		assertSame(Theme.DARK, DataManager.getTheme());
+		assertEquals(Arrays.asList(weekly), DataManager.getRecurringEvents());
+		assertSame(CHESS, DataManager.getEvents().get(0).getCategory(), "replayed categories are the canonical instances");
+	}
+
+	@Test
+	void replayStopsAtTornRecord() throws IOException {
+		Event kept = new Event("Kept", MONDAY, MONDAY.plusHours(1), EventCategory.PERSONAL);
+		Path path = dir.resolve("torn.otj");
+		Journal journal = new Journal(path, 1, Long.MAX_VALUE, null);
+		journal.recordAddEvent(kept);
+		journal.close();
+		long complete = Files.size(path);
+		Files.write(path, new byte[] {1, 0, 0, 0, 0, 0}, StandardOpenOption.APPEND);
+
+		assertEquals(1, Journal.replay(path));
+		assertEquals(Arrays.asList(kept), DataManager.getEvents());
+
+		Journal reopened = new Journal(path, 99, Long.MAX_VALUE, null);
+		assertEquals(1, reopened.getGeneration(), "an existing journal keeps its generation");
+		reopened.close();
+		assertEquals(complete, Files.size(path), "the torn record is cut off on reopening");
+	}
+
+	@Test
+	void requestsCompactionPastThreshold() throws IOException {
+		int[] requests = new int[1];
+		Journal journal = new Journal(dir.resolve("small.otj"), 1, 64, () -> requests[0]++);
+		journal.recordAddEvent(new Event("Short", MONDAY, MONDAY.plusMinutes(5)));
+		journal.recordAddEvent(new Event("Short", MONDAY, MONDAY.plusMinutes(5)));
+		journal.close();
+		assertTrue(requests[0] > 0);
+	}
+
+	@Test
+	void failedAppendStopsRecording() throws IOException {
+		int[] requests = new int[1];
+		Path path = dir.resolve("failing.otj");
+		Journal journal = new Journal(path, 1, Long.MAX_VALUE, () -> requests[0]++);
+		journal.recordAddEvent(new Event("Saved", MONDAY, MONDAY.plusHours(1)));
+		journal.close();
+		long complete = Files.size(path);
+
+		journal.recordAddEvent(new Event("Lost", MONDAY, MONDAY.plusHours(1)));
+		assertEquals(1, requests[0], "a failed append asks for a snapshot");
+		assertThrows(IOException.class, journal::sync);
+		assertEquals(complete, Files.size(path));
+		assertEquals(1, Journal.replay(path));
+	}
+
+	@Test
+	void rejectsOtherFiles() throws IOException {
+		Path path = dir.resolve("notes.txt");
+		Files.write(path, "not a journal at all".getBytes(StandardCharsets.UTF_8));
+		assertThrows(IOException.class, () -> Journal.replay(path));
+	}
+}
@@ -0,0 +1,108 @@
+package onthedocket.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import onthedocket.models.Event;
+import onthedocket.models.EventCategory;
+import onthedocket.models.RecurringEvent;
+import onthedocket.utils.Theme;
+
+/**
+ * Tests for {@link Serializer}: converting legacy data files, and never writing over data
+ * that could not be read.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+class SerializerTest {
+	private static final LocalDateTime START = LocalDateTime.of(2023, 9, 4, 10, 0);
+
+	@TempDir
+	Path dir;
+
+	@BeforeEach
+	@AfterEach
+	void clearData() {
+		DataManager.setEvents(Collections.<Event>emptyList());
+		DataManager.setCategories(Collections.<EventCategory>emptyList());
+		DataManager.setRecurringEvents(Collections.<RecurringEvent>emptyList());
+	}
+
+	@Test
+	void migratesLegacyFile() throws IOException {
+		Event event = new Event("Dentist", START, START.plusHours(1), EventCategory.PERSONAL);
+		File legacy = dir.resolve("onthedocket.ser").toFile();
+		try(ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(legacy))) {
+			out.writeObject(new ArrayList<Event>(Arrays.asList(event)));
+			out.writeObject(new ArrayList<EventCategory>(Arrays.asList(EventCategory.PERSONAL)));
+			out.writeObject(Theme.LIGHT);
+		}
+		File data = dir.resolve("onthedocket.dat").toFile();
+		new Serializer(data);
+
+		assertTrue(Serializer.migrateLegacy(legacy));
+		assertTrue(data.exists());
+		assertFalse(legacy.exists());
+		assertTrue(new File(legacy.getPath() + ".migrated").exists());
+		assertEquals(Arrays.asList(event), BinaryFormat.read(data.toPath()).getEvents());
+		assertTrue(Serializer.migrateLegacy(legacy), "nothing is left to migrate");
+	}
+
+	@Test
+	void unreadableDataFileIsNeverOverwritten() throws IOException {
+		File data = dir.resolve("onthedocket.dat").toFile();
+		byte[] corrupt = {0x4F, 0x54, 0x44, 0x4B, 0, 3, 0, 0};
+		Files.write(data.toPath(), corrupt);
+		new Serializer(data);
+
+		assertFalse(Serializer.deserialize());
+		DataManager.addEvent(new Event("Partial", START, START.plusHours(1)));
+		assertFalse(Serializer.save());
+		assertFalse(Serializer.serialize());
+		assertTrue(Arrays.equals(corrupt, Files.readAllBytes(data.toPath())));
+	}
+
+	@Test
+	void savesOnceLoaded() throws IOException {
+		File data = dir.resolve("onthedocket.dat").toFile();
+		new Serializer(data);
+		assertTrue(Serializer.deserialize(), "a missing file loads as an empty calendar");
+		Event event = new Event("Kept", START, START.plusHours(1));
+		DataManager.addEvent(event);
+		assertTrue(Serializer.save());
+		assertTrue(Serializer.serialize());
+		assertEquals(Arrays.asList(event), BinaryFormat.read(data.toPath()).getEvents());
+	}
+
+	@Test
+	void unreadableLegacyFileIsKept() throws IOException {
+		File legacy = dir.resolve("onthedocket.ser").toFile();
+		Files.write(legacy.toPath(), "not serialized objects".getBytes(StandardCharsets.UTF_8));
+		File data = dir.resolve("onthedocket.dat").toFile();
+		new Serializer(data);
+		DataManager.addEvent(new Event("Stale", START, START.plusHours(1)));
+
+		assertFalse(Serializer.migrateLegacy(legacy));
+		assertTrue(DataManager.getEvents().isEmpty());
+		assertFalse(data.exists(), "no data file blocks a later migration");
+		assertTrue(legacy.exists());
+	}
+}
@@ -0,0 +1,131 @@
+package onthedocket.views;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import onthedocket.models.Event;
+
+/**
+ * Tests for {@link OverlapLayout}: column assignment, cluster widths, and pixel edges.
+ *
+ * @author Sitatunga147 (with moderate AI assistance)
+ */
+class OverlapLayoutTest {
+	private static final LocalDateTime DAY = LocalDateTime.of(2025, 4, 14, 0, 0);
+
+	private static Event event(String name, int fromMinute, int toMinute) {
+		return new Event(name, DAY.plusMinutes(fromMinute), DAY.plusMinutes(toMinute));
+	}
+
+	@Test
+	void separateEventsTakeTheFullWidth() {
+		OverlapLayout layout = new OverlapLayout();
+		assertEquals(2, layout.layout(Arrays.asList(event("a", 60, 120), event("b", 180, 240))));
+		for (int k = 0; k < 2; k++) {
+			assertEquals(0, layout.getColumn(k));
+			assertEquals(1, layout.getColumnCount(k));
+			assertEquals(0, layout.getX(k, 300));
+			assertEquals(300, layout.getWidth(k, 300));
+		}
+	}
+
+	@Test
+	void touchingEventsOverlap() {
+		OverlapLayout layout = new OverlapLayout();
+		layout.layout(Arrays.asList(event("a", 60, 120), event("b", 120, 180)));
+		assertNotEquals(layout.getColumn(0), layout.getColumn(1));
+		assertEquals(2, layout.getColumnCount(0));
+	}
+
+	@Test
+	void freedColumnsAreReused() {
+		OverlapLayout layout = new OverlapLayout();
+		Event a = event("a", 540, 600);
+		Event b = event("b", 570, 660);
+		Event c = event("c", 630, 720);
+		layout.layout(Arrays.asList(c, a, b));
+		assertEquals(Arrays.asList(a, b, c), Arrays.asList(layout.getEvent(0), layout.getEvent(1), layout.getEvent(2)));
+		assertEquals(0, layout.getColumn(0));
+		assertEquals(1, layout.getColumn(1));
+		assertEquals(0, layout.getColumn(2));
+		for (int k = 0; k < 3; k++) {
+			assertEquals(2, layout.getColumnCount(k));
+		}
+	}
+
+	@Test
+	void clustersAreLaidOutIndependently() {
+		OverlapLayout layout = new OverlapLayout();
+		layout.layout(Arrays.asList(event("a", 480, 600), event("b", 490, 600), event("c", 500, 600), event("d", 780, 840)));
+		for (int k = 0; k < 3; k++) {
+			assertEquals(3, layout.getColumnCount(k));
+		}
+		assertEquals(1, layout.getColumnCount(3));
+		assertEquals(0, layout.getColumn(3));
+	}
+
+	@Test
+	void overlappingEventsNeverShareAColumn() {
+		Random random = new Random(7);
+		OverlapLayout layout = new OverlapLayout();
+		for (int round = 0; round < 50; round++) {
+			List<Event> events = new ArrayList<>();
+			int n = 1 + random.nextInt(40);
+			for (int i = 0; i < n; i++) {
+				int start = random.nextInt(1380);
+				events.add(event("e" + i, start, start + random.nextInt(180)));
+			}
+			Collections.shuffle(events, random);
+			assertEquals(n, layout.layout(events));
+			for (int i = 0; i < n; i++) {
+				assertTrue(layout.getColumn(i) < layout.getColumnCount(i));
+				if (i > 0) {
+					assertFalse(layout.getEvent(i).getStart().isBefore(layout.getEvent(i - 1).getStart()));
+				}
+				for (int j = i + 1; j < n; j++) {
+					if (layout.getEvent(i).overlaps(layout.getEvent(j))) {
+						assertNotEquals(layout.getColumn(i), layout.getColumn(j));
+						assertEquals(layout.getColumnCount(i), layout.getColumnCount(j));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void columnsShareEdgesExactly() {
+		OverlapLayout layout = new OverlapLayout();
+		layout.layout(Arrays.asList(event("a", 0, 60), event("b", 0, 60), event("c", 0, 60)));
+		int width = 100;
+		int[] left = new int[3];
+		int[] right = new int[3];
+		for (int k = 0; k < 3; k++) {
+			int column = layout.getColumn(k);
+			left[column] = layout.getX(k, width);
+			right[column] = left[column] + layout.getWidth(k, width);
+		}
+		assertEquals(0, left[0]);
+		assertEquals(right[0], left[1]);
+		assertEquals(right[1], left[2]);
+		assertEquals(width, right[2]);
+	}
+
+	@Test
+	void emptyDayHasNoEvents() {
+		OverlapLayout layout = new OverlapLayout();
+		layout.layout(Arrays.asList(event("a", 0, 60)));
+		assertEquals(0, layout.layout(Collections.<Event>emptyList()));
+		assertEquals(0, layout.size());
+	}
+}